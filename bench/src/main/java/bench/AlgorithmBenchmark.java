@@ -0,0 +1,82 @@
+package bench;
+
+import algorithms.DijkstraEngine;
+import algorithms.GraphAlgorithms;
+import algorithms.ShortestPathCache;
+import algorithms.ShortestPathResult;
+import graph.CsrGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ GraphAlgorithms: кратчайший путь, компоненты сильной связности, топологическая сортировка.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class AlgorithmBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int n;
+
+    @Param({"SPARSE", "DENSE", "DAG"})
+    public GraphGenerator.Shape shape;
+
+    private CsrGraph<Integer> csr;
+    private DijkstraEngine<Integer> engine;
+    private final ShortestPathResult<Integer> reuse = new ShortestPathResult<>();
+    private ShortestPathCache<Integer> cache;
+    private int[] sources;
+    private int[] targets;
+    private int query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csr = GraphGenerator.generate(shape, n, 42).build().freeze();
+        engine = new DijkstraEngine<>(csr);
+        cache = new ShortestPathCache<>(256);
+        SplittableRandom r = new SplittableRandom(3);
+        sources = new int[256];
+        targets = new int[256];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = r.nextInt(n);
+            targets[i] = r.nextInt(n);
+        }
+    }
+
+    // один запрос source -> target (случайные пары по кругу)
+    @Benchmark
+    public long dijkstra() {
+        int i = query++ & (sources.length - 1);
+        return engine.query(sources[i], targets[i], reuse).distance();
+    }
+
+    // то же через фасад GraphAlgorithms: движок и результат создаются на каждый вызов, в отличие от engine/reuse
+    @Benchmark
+    public long dijkstraFacade() {
+        int i = query++ & (sources.length - 1);
+        return GraphAlgorithms.shortestPath(csr, sources[i], targets[i]).distance();
+    }
+
+    // те же пары через кэш деревьев: после прогрева все источники в кэше (если хватает памяти)
+    @Benchmark
+    public long dijkstraCached() {
+        int i = query++ & (sources.length - 1);
+        return cache.distance(csr, sources[i], targets[i]);
+    }
+
+    @Benchmark
+    public Object findSCC() {
+        return GraphAlgorithms.stronglyConnectedComponents(csr);
+    }
+
+    @Benchmark
+    public Object topologicalSort() {
+        return GraphAlgorithms.topologicalOrder(csr);
+    }
+}
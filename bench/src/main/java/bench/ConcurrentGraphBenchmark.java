@@ -0,0 +1,164 @@
+package bench;
+
+import graph.ConcurrentGraph;
+import graph.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ Конкуренция читателей и писателей: ConcurrentGraph (чтение по снимку без блокировок)
+ против Graph под ReentrantReadWriteLock. Чтение — соседи и проверка ребра случайной вершины,
+ запись — удаление случайного ребра и добавление нового.
+ Смеси: readHeavy — 3 читателя на 1 писателя, writeHeavy — 1 читатель на 3 писателя.
+ writers1 / writers4 — только писатели ConcurrentGraph: цена общей блокировки под конкуренцией
+ (суммарная пропускная способность 4 писателей против одного).
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class ConcurrentGraphBenchmark {
+
+    @Param({"10000", "100000"})
+    public int n;
+
+    private ConcurrentGraph<Integer> concurrent;
+    private Graph<Integer> locked;
+    private ReentrantReadWriteLock lock;
+
+    @State(Scope.Thread)
+    public static class Rnd {
+        final SplittableRandom r = new SplittableRandom(Thread.currentThread().getId());
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GraphGenerator gen = GraphGenerator.generate(GraphGenerator.Shape.SPARSE, n, 42);
+        locked = gen.buildBatched();
+        lock = new ReentrantReadWriteLock();
+        concurrent = new ConcurrentGraph<>(true);
+        Integer[] from = new Integer[gen.from.length];
+        Integer[] to = new Integer[gen.to.length];
+        for (int i = 0; i < from.length; i++) {
+            from[i] = gen.from[i];
+            to[i] = gen.to[i];
+        }
+        for (int v = 0; v < n; v++) concurrent.addVertex(v);
+        concurrent.addEdges(from, to, gen.weight);
+    }
+
+    private int read(ConcurrentGraph.Snapshot<Integer> s, SplittableRandom r) {
+        Integer v = r.nextInt(n);
+        return s.getAdjacent(v).size() + (s.containsEdge(v, r.nextInt(n)) ? 1 : 0);
+    }
+
+    private void write(ConcurrentGraph<Integer> g, SplittableRandom r) {
+        g.removeEdge(r.nextInt(n), r.nextInt(n));
+        g.addEdge(r.nextInt(n), r.nextInt(n), 1 + r.nextInt(100));
+    }
+
+    private int read(Graph<Integer> g, SplittableRandom r) {
+        Integer v = r.nextInt(n);
+        return g.getAdjacent(v).size() + (g.canAddEdge(v, r.nextInt(n)) ? 0 : 1);
+    }
+
+    private void write(Graph<Integer> g, SplittableRandom r) {
+        g.removeEdge(r.nextInt(n), r.nextInt(n));
+        g.addEdge(r.nextInt(n), r.nextInt(n), 1 + r.nextInt(100));
+    }
+
+    @Benchmark
+    @Group("readHeavyConcurrent")
+    @GroupThreads(3)
+    public int readHeavyConcurrentRead(Rnd rnd) {
+        return read(concurrent.snapshot(), rnd.r);
+    }
+
+    @Benchmark
+    @Group("readHeavyConcurrent")
+    @GroupThreads(1)
+    public void readHeavyConcurrentWrite(Rnd rnd) {
+        write(concurrent, rnd.r);
+    }
+
+    @Benchmark
+    @Group("writeHeavyConcurrent")
+    @GroupThreads(1)
+    public int writeHeavyConcurrentRead(Rnd rnd) {
+        return read(concurrent.snapshot(), rnd.r);
+    }
+
+    @Benchmark
+    @Group("writeHeavyConcurrent")
+    @GroupThreads(3)
+    public void writeHeavyConcurrentWrite(Rnd rnd) {
+        write(concurrent, rnd.r);
+    }
+
+    @Benchmark
+    @Group("writers1")
+    @GroupThreads(1)
+    public void writers1(Rnd rnd) {
+        write(concurrent, rnd.r);
+    }
+
+    @Benchmark
+    @Group("writers4")
+    @GroupThreads(4)
+    public void writers4(Rnd rnd) {
+        write(concurrent, rnd.r);
+    }
+
+    @Benchmark
+    @Group("readHeavyLocked")
+    @GroupThreads(3)
+    public int readHeavyLockedRead(Rnd rnd) {
+        lock.readLock().lock();
+        try {
+            return read(locked, rnd.r);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @Group("readHeavyLocked")
+    @GroupThreads(1)
+    public void readHeavyLockedWrite(Rnd rnd) {
+        lock.writeLock().lock();
+        try {
+            write(locked, rnd.r);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @Group("writeHeavyLocked")
+    @GroupThreads(1)
+    public int writeHeavyLockedRead(Rnd rnd) {
+        lock.readLock().lock();
+        try {
+            return read(locked, rnd.r);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @Group("writeHeavyLocked")
+    @GroupThreads(3)
+    public void writeHeavyLockedWrite(Rnd rnd) {
+        lock.writeLock().lock();
+        try {
+            write(locked, rnd.r);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
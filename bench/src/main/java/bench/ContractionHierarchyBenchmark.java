@@ -0,0 +1,61 @@
+package bench;
+
+import algorithms.ContractionHierarchy;
+import algorithms.ShortestPathResult;
+import graph.CsrGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ Запросы по иерархии сжатий на решётке side x side (GraphGenerator.grid) — сравнивать
+ с SearchModeBenchmark на тех же side. Предобработка в @Setup и в замер не входит.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ContractionHierarchyBenchmark {
+
+    @Param({"100", "300"})
+    public int side;
+
+    private ContractionHierarchy<Integer>.Query query;
+    private final ShortestPathResult<Integer> reuse = new ShortestPathResult<>();
+    private int[] sources;
+    private int[] targets;
+    private int next;
+    private long settled;
+    private long queries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int n = side * side;
+        SplittableRandom r = new SplittableRandom(42);
+        CsrGraph<Integer> g = GraphGenerator.grid(side, r);
+        query = ContractionHierarchy.build(g).newQuery();
+        sources = new int[256];
+        targets = new int[256];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = r.nextInt(n);
+            targets[i] = r.nextInt(n);
+        }
+    }
+
+    @Benchmark
+    public long query() {
+        int i = next++ & (sources.length - 1);
+        ShortestPathResult<Integer> res = query.run(sources[i], targets[i], reuse);
+        settled += res.settledCount();
+        queries++;
+        return res.distance();
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        if (queries > 0) System.out.println("\nCH: в среднем извлечено вершин " + settled / queries);
+    }
+}
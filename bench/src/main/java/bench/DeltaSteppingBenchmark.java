@@ -0,0 +1,63 @@
+package bench;
+
+import algorithms.DeltaStepping;
+import algorithms.DijkstraEngine;
+import graph.CsrGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/*
+ Полное дерево кратчайших путей: Дейкстра против DeltaStepping на пуле из threads потоков;
+ delta = 0 — автоподбор (DeltaStepping.autoDelta).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class DeltaSteppingBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int n;
+
+    @Param({"SPARSE", "POWER_LAW"})
+    public GraphGenerator.Shape shape;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"0", "10", "100"})
+    public long delta;
+
+    private CsrGraph<Integer> csr;
+    private ForkJoinPool pool;
+    private DeltaStepping engine;
+    private DijkstraEngine<Integer> dijkstra;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csr = GraphGenerator.generate(shape, n, 42).buildBatched().freeze();
+        pool = new ForkJoinPool(threads);
+        engine = new DeltaStepping(pool);
+        dijkstra = new DijkstraEngine<>(csr);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object deltaStepping() {
+        return engine.run(csr, 0, delta, null);
+    }
+
+    // точка отсчёта; от threads и delta не зависит
+    @Benchmark
+    public Object dijkstra() {
+        return dijkstra.tree(0, null);
+    }
+}
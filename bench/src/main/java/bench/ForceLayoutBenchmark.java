@@ -0,0 +1,52 @@
+package bench;
+
+import algorithms.ForceLayout;
+import graph.CsrGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/*
+ Силовая раскладка (Барнс–Хат): ITERATIONS итераций с холодного старта на пуле из threads потоков.
+ Время включает создание раскладки (массивы позиций, обратный CSR уже в снимке).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class ForceLayoutBenchmark {
+    static final int ITERATIONS = 10;
+
+    @Param({"10000", "100000"})
+    public int n;
+
+    @Param({"SPARSE", "POWER_LAW"})
+    public GraphGenerator.Shape shape;
+
+    @Param({"1", "4", "8"})
+    public int threads;
+
+    private CsrGraph<Integer> csr;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csr = GraphGenerator.generate(shape, n, 42).buildBatched().freeze(true);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double iterations() {
+        ForceLayout layout = new ForceLayout(csr, false, ForceLayout.DEFAULT_SPACING, pool);
+        for (int i = 0; i < ITERATIONS; i++) layout.step(0);
+        return layout.x(0);
+    }
+}
@@ -0,0 +1,132 @@
+package bench;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.IntGraph;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+ Генератор тестовых графов для бенчмарков (детерминированный, по seed).
+ Рёбра сначала генерируются в массивы from/to/weight, затем загружаются в Graph.
+ */
+public final class GraphGenerator {
+
+    // форма графа
+    public enum Shape {
+        SPARSE,  // случайный ориентированный граф, средняя степень 4
+        DENSE,   // случайный ориентированный граф, средняя степень min(n - 1, 32)
+        DAG,     // ациклический: рёбра только из меньшего номера в больший, степень 4
+        POWER_LAW  // концы рёбер смещены к малым номерам (тяжёлый хвост степеней), в среднем 4 ребра на вершину
+    }
+
+    public final int n;
+    public final int[] from;
+    public final int[] to;
+    public final int[] weight;
+
+    private GraphGenerator(int n, int[] from, int[] to, int[] weight) {
+        this.n = n;
+        this.from = from;
+        this.to = to;
+        this.weight = weight;
+    }
+
+    public static GraphGenerator generate(Shape shape, int n, long seed) {
+        SplittableRandom r = new SplittableRandom(seed);
+        int degree = shape == Shape.DENSE ? Math.min(n - 1, 32) : Math.min(n - 1, 4);
+        int m = n * degree;
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] weight = new int[m];
+        int k = 0;
+        for (int v = 0; v < n; v++) {
+            for (int j = 0; j < degree; j++) {
+                int u;
+                int src = v;
+                if (shape == Shape.DAG) {
+                    if (v == n - 1) break;
+                    u = v + 1 + r.nextInt(Math.min(n - v - 1, 1 << 16));
+                } else if (shape == Shape.POWER_LAW) {
+                    src = skewed(r, n);
+                    u = skewed(r, n);
+                } else {
+                    u = r.nextInt(n);
+                }
+                from[k] = src;
+                to[k] = u;
+                weight[k++] = 1 + r.nextInt(100);
+            }
+        }
+        return new GraphGenerator(n, Arrays.copyOf(from, k),
+                Arrays.copyOf(to, k), Arrays.copyOf(weight, k));
+    }
+
+    // номер вершины с плотностью ~ x^(-2/3): немногие вершины получают большую часть рёбер
+    private static int skewed(SplittableRandom r, int n) {
+        double x = r.nextDouble();
+        return (int) (n * x * x * x);
+    }
+
+    public int edgeCount() {
+        return from.length;
+    }
+
+    public Graph<Integer> build() {
+        Graph<Integer> g = new Graph<>(true);
+        for (int v = 0; v < n; v++) g.addVertex(v);
+        for (int i = 0; i < from.length; i++) g.addEdge(from[i], to[i], weight[i]);
+        return g;
+    }
+
+    public IntGraph buildInt() {
+        IntGraph g = new IntGraph(true);
+        for (int v = 0; v < n; v++) g.addVertex(v);
+        for (int i = 0; i < from.length; i++) g.addEdge(from[i], to[i], weight[i]);
+        return g;
+    }
+
+    // то же через пакетные Graph.addVertices / addEdges
+    public Graph<Integer> buildBatched() {
+        Graph<Integer> g = new Graph<>(true);
+        Integer[] values = new Integer[n];
+        for (int v = 0; v < n; v++) values[v] = v;
+        g.addVertices(values);
+        Integer[] f = new Integer[from.length];
+        Integer[] t = new Integer[to.length];
+        for (int i = 0; i < from.length; i++) {
+            f[i] = values[from[i]];
+            t[i] = values[to[i]];
+        }
+        g.addEdges(f, t, weight);
+        return g;
+    }
+
+    /*
+     Геометрическая решётка side x side сразу в CSR, с координатами (шаг 10):
+     соседи по 4 направлениям, вес ребра = длина (10) + случайная добавка 0..4.
+     */
+    public static CsrGraph<Integer> grid(int side, SplittableRandom r) {
+        int n = side * side;
+        Integer[] values = new Integer[n];
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        int[] offsets = new int[n + 1];
+        int[] to = new int[4 * n];
+        int[] w = new int[4 * n];
+        int m = 0;
+        for (int v = 0; v < n; v++) {
+            int x = v % side, y = v / side;
+            values[v] = v;
+            xs[v] = x * 10;
+            ys[v] = y * 10;
+            if (x + 1 < side) { to[m] = v + 1; w[m++] = 10 + r.nextInt(5); }
+            if (x > 0) { to[m] = v - 1; w[m++] = 10 + r.nextInt(5); }
+            if (y + 1 < side) { to[m] = v + side; w[m++] = 10 + r.nextInt(5); }
+            if (y > 0) { to[m] = v - side; w[m++] = 10 + r.nextInt(5); }
+            offsets[v + 1] = m;
+        }
+        return CsrGraph.of(true, values, offsets, Arrays.copyOf(to, m), Arrays.copyOf(w, m)).withCoordinates(xs, ys);
+    }
+}
@@ -0,0 +1,113 @@
+package bench;
+
+import graph.Graph;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ Построение и изменение Graph: addVertex, addEdge, canAddEdge, removeVertex.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class GraphMutationBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int n;
+
+    @Param({"SPARSE", "DENSE", "DAG"})
+    public GraphGenerator.Shape shape;
+
+    private GraphGenerator gen;
+    private Graph<Integer> graph;
+    private int[] probeFrom;
+    private int[] probeTo;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gen = GraphGenerator.generate(shape, n, 42);
+        graph = gen.build();
+        SplittableRandom r = new SplittableRandom(7);
+        probeFrom = new int[1024];
+        probeTo = new int[1024];
+        for (int i = 0; i < probeFrom.length; i++) {
+            probeFrom[i] = r.nextInt(n);
+            probeTo[i] = r.nextInt(n);
+        }
+    }
+
+    @Benchmark
+    public Graph<Integer> addVertex() {
+        Graph<Integer> g = new Graph<>(true);
+        for (int v = 0; v < n; v++) g.addVertex(v);
+        return g;
+    }
+
+    // полная загрузка графа: вершины + все рёбра через addEdge
+    @Benchmark
+    public Graph<Integer> addEdge() {
+        return gen.build();
+    }
+
+    @Benchmark
+    public Graph<Integer> addEdgesBatched() {
+        return gen.buildBatched();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public void canAddEdge(Blackhole bh) {
+        for (int i = 0; i < probeFrom.length; i++) bh.consume(graph.canAddEdge(probeFrom[i], probeTo[i]));
+    }
+
+    /*
+     Удаление 1% вершин (или 1% рёбер) из заранее построенного графа.
+     Граф пересобирается перед каждым вызовом, поэтому режим — однократный замер.
+     */
+    @State(Scope.Thread)
+    public static class Removal {
+        Graph<Integer> graph;
+        int[] victims;
+        int[] edgeFrom, edgeTo;
+
+        @Setup(Level.Invocation)
+        public void build(GraphMutationBenchmark b) {
+            graph = b.gen.build();
+            SplittableRandom r = new SplittableRandom(11);
+            victims = new int[Math.max(1, b.n / 100)];
+            for (int i = 0; i < victims.length; i++) victims[i] = r.nextInt(b.n);
+            int m = b.gen.edgeCount();
+            edgeFrom = new int[Math.max(1, m / 100)];
+            edgeTo = new int[edgeFrom.length];
+            for (int i = 0; i < edgeFrom.length; i++) {
+                int e = r.nextInt(m);
+                edgeFrom[i] = b.gen.from[e];
+                edgeTo[i] = b.gen.to[e];
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2, batchSize = 1)
+    @Measurement(iterations = 5, batchSize = 1)
+    public Graph<Integer> removeVertex(Removal s) {
+        for (int v : s.victims) s.graph.removeVertex(v);
+        return s.graph;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2, batchSize = 1)
+    @Measurement(iterations = 5, batchSize = 1)
+    public Graph<Integer> removeEdge(Removal s) {
+        for (int i = 0; i < s.edgeFrom.length; i++) s.graph.removeEdge(s.edgeFrom[i], s.edgeTo[i]);
+        return s.graph;
+    }
+}
@@ -0,0 +1,80 @@
+package bench;
+
+import algorithms.GraphAlgorithms;
+import graph.Graph;
+import graph.IntGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ IntGraph против Graph<Integer> на одних и тех же рёбрах: построение через addEdge,
+ проход по смежности всех вершин и BFS через снимок (снимок пересоздаётся — граф менялся).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class IntGraphBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int n;
+
+    @Param({"SPARSE", "POWER_LAW"})
+    public GraphGenerator.Shape shape;
+
+    private GraphGenerator gen;
+    private Graph<Integer> graph;
+    private IntGraph intGraph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gen = GraphGenerator.generate(shape, n, 42);
+        graph = gen.build();
+        intGraph = gen.buildInt();
+    }
+
+    @Benchmark
+    public Graph<Integer> buildGraph() {
+        return gen.build();
+    }
+
+    @Benchmark
+    public IntGraph buildIntGraph() {
+        return gen.buildInt();
+    }
+
+    @Benchmark
+    public long scanGraph() {
+        long sum = 0;
+        for (int v = 0; v < n; v++) {
+            ds.List<Integer> adj = graph.getAdjacent(v);
+            for (int i = 0; i < adj.size(); i++) sum += adj.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long scanIntGraph() {
+        long sum = 0;
+        for (int v = 0; v < n; v++)
+            for (int i = 0, d = intGraph.degree(v); i < d; i++) sum += intGraph.target(v, i);
+        return sum;
+    }
+
+    @Benchmark
+    public int bfsGraph() {
+        graph.addVertex(-1);
+        graph.removeVertex(-1);
+        return GraphAlgorithms.bfs(graph.freeze(), 0).size();
+    }
+
+    @Benchmark
+    public int bfsIntGraph() {
+        intGraph.addVertex(n);
+        intGraph.removeVertex(n);
+        return GraphAlgorithms.bfs(intGraph, 0).size();
+    }
+}
@@ -0,0 +1,80 @@
+package bench;
+
+import algorithms.GraphAlgorithms;
+import algorithms.ViewAlgorithms;
+import graph.CsrGraph;
+import graph.MappedGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/*
+ Граф в файле, отображённом в память, против CSR в куче: открытие файла
+ и обход/Дейкстра через GraphView (ViewAlgorithms) по обоим представлениям.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class MappedGraphBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int n;
+
+    private Path file;
+    private CsrGraph<Integer> csr;
+    private MappedGraph mapped;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        csr = GraphGenerator.generate(GraphGenerator.Shape.SPARSE, n, 42).buildBatched().freeze();
+        file = Files.createTempFile("graph", ".bin");
+        MappedGraph.write(csr, file);
+        mapped = MappedGraph.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        mapped.close();
+        Files.deleteIfExists(file);
+    }
+
+    // "запуск сервиса": открытие готового файла
+    @Benchmark
+    public int open() throws IOException {
+        try (MappedGraph g = MappedGraph.open(file)) {
+            return g.vertexCount();
+        }
+    }
+
+    @Benchmark
+    public Object mappedBfs() {
+        return ViewAlgorithms.bfsOrder(mapped, 0);
+    }
+
+    @Benchmark
+    public Object csrViewBfs() {
+        return ViewAlgorithms.bfsOrder(csr, 0);
+    }
+
+    // точка отсчёта: BFS прямо по массивам CSR
+    @Benchmark
+    public Object csrBfs() {
+        return GraphAlgorithms.bfs(csr, 0);
+    }
+
+    @Benchmark
+    public Object mappedDijkstra() {
+        return ViewAlgorithms.shortestDistances(mapped, 0);
+    }
+
+    @Benchmark
+    public Object csrViewDijkstra() {
+        return ViewAlgorithms.shortestDistances(csr, 0);
+    }
+}
@@ -0,0 +1,59 @@
+package bench;
+
+import algorithms.ParallelScc;
+import algorithms.SccEngine;
+import graph.CsrGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/*
+ Компоненты сильной связности: последовательный Тарьян против ParallelScc
+ на пуле из threads потоков (масштабирование по ядрам).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class ParallelSccBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int n;
+
+    @Param({"POWER_LAW", "SPARSE"})
+    public GraphGenerator.Shape shape;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private CsrGraph<Integer> csr;
+    private ForkJoinPool pool;
+    private ParallelScc engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csr = GraphGenerator.generate(shape, n, 42).buildBatched().freeze();
+        csr.reverseOffsets();  // обратный CSR строится один раз, вне замера
+        pool = new ForkJoinPool(threads);
+        engine = new ParallelScc(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object parallel() {
+        return engine.run(csr);
+    }
+
+    // точка отсчёта; от threads не зависит
+    @Benchmark
+    public Object sequential() {
+        return SccEngine.run(csr);
+    }
+}
@@ -0,0 +1,66 @@
+package bench;
+
+import algorithms.DijkstraEngine;
+import algorithms.SearchMode;
+import algorithms.ShortestPathResult;
+import graph.CsrGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ Режимы поиска кратчайшего пути на геометрической решётке side x side (GraphGenerator.grid).
+ В settled — среднее число извлечённых из кучи вершин (выводится в @TearDown).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class SearchModeBenchmark {
+
+    @Param({"100", "300", "1000"})
+    public int side;
+
+    @Param({"DIJKSTRA", "A_STAR", "BIDIRECTIONAL"})
+    public SearchMode mode;
+
+    private DijkstraEngine<Integer> engine;
+    private final ShortestPathResult<Integer> reuse = new ShortestPathResult<>();
+    private int[] sources;
+    private int[] targets;
+    private int query;
+    private long settled;
+    private long queries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int n = side * side;
+        SplittableRandom r = new SplittableRandom(42);
+        CsrGraph<Integer> g = GraphGenerator.grid(side, r);
+        g.reverseOffsets();
+        engine = new DijkstraEngine<>(g);
+        sources = new int[256];
+        targets = new int[256];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = r.nextInt(n);
+            targets[i] = r.nextInt(n);
+        }
+    }
+
+    @Benchmark
+    public long query() {
+        int i = query++ & (sources.length - 1);
+        ShortestPathResult<Integer> res = engine.query(sources[i], targets[i], reuse, mode, null);
+        settled += res.settledCount();
+        queries++;
+        return res.distance();
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        if (queries > 0) System.out.println("\n" + mode + ": в среднем извлечено вершин " + settled / queries);
+    }
+}
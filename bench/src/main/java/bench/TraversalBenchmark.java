@@ -0,0 +1,71 @@
+package bench;
+
+import algorithms.GraphAlgorithms;
+import graph.CsrGraph;
+import graph.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ Обходы: Graph.dfs/bfs (по объектной структуре) и DFS/BFS по CSR-снимку.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class TraversalBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int n;
+
+    @Param({"SPARSE", "DENSE", "DAG"})
+    public GraphGenerator.Shape shape;
+
+    private Graph<Integer> graph;
+    private CsrGraph<Integer> csr;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerator.generate(shape, n, 42).build();
+        csr = graph.freeze();
+    }
+
+    @Benchmark
+    public Object graphDfs() {
+        return graph.dfs(0);
+    }
+
+    @Benchmark
+    public Object graphBfs() {
+        return graph.bfs(0);
+    }
+
+    @Benchmark
+    public Object csrDfs() {
+        return GraphAlgorithms.dfs(csr, 0);
+    }
+
+    @Benchmark
+    public Object csrBfs() {
+        return GraphAlgorithms.bfs(csr, 0);
+    }
+
+    // стоимость снятия CSR-снимка; ребро снимается и возвращается, чтобы версия графа
+    // изменилась и снимок строился заново, а не брался из кэша Graph
+    @Benchmark
+    public Object freeze() {
+        Integer to = graph.getVertices().get(0).edges.get(0).to;
+        graph.removeEdge(0, to);
+        graph.addEdge(0, to, 1);
+        return graph.freeze();
+    }
+
+    // повторный снимок без изменений графа (возвращается закэшированный)
+    @Benchmark
+    public Object freezeUnchanged() {
+        return graph.freeze();
+    }
+}
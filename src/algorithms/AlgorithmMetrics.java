@@ -0,0 +1,218 @@
+package algorithms;
+
+import jdk.jfr.EventType;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ Сбор метрик запусков алгоритмов.
+ Алгоритм в начале берёт Probe (start), считает работу в локальных переменных
+ и в конце передаёт счётчики в Probe.finish. Если сбор выключен и событие JFR
+ не записывается, start возвращает null, ничего не создавая: запуск стоит проверки
+ флага и признака включённости типа события.
+
+ Результаты: RunStats последнего запуска в текущем потоке (lastRun), событие JFR
+ AlgorithmRunEvent, накопленные гистограммы по алгоритмам в MXBean (OBJECT_NAME).
+ Включение: enable(true), -Dgraph.metrics=true или атрибут Enabled через JMX.
+ */
+public final class AlgorithmMetrics implements AlgorithmMetricsMXBean {
+    public static final String OBJECT_NAME = "graph:type=AlgorithmMetrics";
+    static final int BUCKETS = 32;
+
+    private static final AlgorithmMetrics INSTANCE = new AlgorithmMetrics();
+    private static final EventType EVENT_TYPE = EventType.getEventType(AlgorithmRunEvent.class);
+
+    private static volatile boolean enabled = Boolean.getBoolean("graph.metrics");
+    private static boolean registered;
+
+    private static final ThreadLocal<RunStats> lastOnThread = new ThreadLocal<>();
+    private static volatile RunStats last;
+    private static final AtomicLong runs = new AtomicLong();
+    private static final Map<String, Cumulative> byAlgorithm = new ConcurrentHashMap<>();
+
+    private AlgorithmMetrics() {
+    }
+
+    public static AlgorithmMetrics instance() {
+        return INSTANCE;
+    }
+
+    // включение сбора; при первом включении MXBean регистрируется в платформенном MBeanServer
+    public static void enable(boolean on) {
+        enabled = on;
+        if (on) register();
+    }
+
+    public static synchronized void register() {
+        if (registered) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (JMException ex) {
+            throw new IllegalStateException("не удалось зарегистрировать " + OBJECT_NAME, ex);
+        }
+        registered = true;
+    }
+
+    // последний запуск, завершившийся в текущем потоке, или null
+    public static RunStats lastRun() {
+        return lastOnThread.get();
+    }
+
+    public static void clearLastRun() {
+        lastOnThread.remove();
+    }
+
+    /*
+     Начало запуска: null, если метрики не нужны (сбор выключен и JFR не пишет событие).
+     Вызывается в потоке, который затем вызовет finish.
+     */
+    public static Probe start(String algorithm) {
+        boolean jfr = EVENT_TYPE.isEnabled();
+        if (!enabled && !jfr) return null;
+        AlgorithmRunEvent event = null;
+        if (jfr) {
+            event = new AlgorithmRunEvent();
+            event.begin();
+        }
+        return new Probe(algorithm, event, enabled);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    @Override
+    public long getRunCount() {
+        return runs.get();
+    }
+
+    @Override
+    public RunStats getLastRun() {
+        return last;
+    }
+
+    @Override
+    public List<RunHistogram> getHistograms() {
+        List<RunHistogram> res = new ArrayList<>();
+        for (Cumulative c : byAlgorithm.values()) res.add(c.snapshot());
+        res.sort((a, b) -> a.getAlgorithm().compareTo(b.getAlgorithm()));
+        return res;
+    }
+
+    @Override
+    public void reset() {
+        byAlgorithm.clear();
+        runs.set(0);
+        last = null;
+    }
+
+    private static void record(RunStats s) {
+        lastOnThread.set(s);
+        last = s;
+        runs.incrementAndGet();
+        byAlgorithm.computeIfAbsent(s.getAlgorithm(), Cumulative::new).add(s);
+    }
+
+    static int bucket(long value) {
+        if (value <= 1) return 0;
+        return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(value));
+    }
+
+    // один запуск: время и память от start до finish
+    public static final class Probe {
+        private final String algorithm;
+        private final AlgorithmRunEvent event;
+        private final boolean collect;
+        private final long started;
+        private final long allocatedBefore;
+
+        private Probe(String algorithm, AlgorithmRunEvent event, boolean collect) {
+            this.algorithm = algorithm;
+            this.event = event;
+            this.collect = collect;
+            this.allocatedBefore = Allocation.current();
+            this.started = System.nanoTime();
+        }
+
+        public void finish(long vertices, long edgesScanned, long edgesRelaxed, long heapPushes,
+                           long decreaseKeys, long peakFrontier) {
+            long wall = System.nanoTime() - started;
+            long allocated = allocatedBefore < 0 ? -1 : Allocation.current() - allocatedBefore;
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.algorithm = algorithm;
+                    event.vertices = vertices;
+                    event.edgesScanned = edgesScanned;
+                    event.edgesRelaxed = edgesRelaxed;
+                    event.heapPushes = heapPushes;
+                    event.decreaseKeys = decreaseKeys;
+                    event.peakFrontier = peakFrontier;
+                    event.allocatedBytes = allocated;
+                    event.commit();
+                }
+            }
+            if (collect) {
+                record(new RunStats(algorithm, vertices, edgesScanned, edgesRelaxed, heapPushes,
+                        decreaseKeys, peakFrontier, wall, allocated));
+            }
+        }
+    }
+
+    // счётчик выделенной потоком памяти (HotSpot), инициализируется при первом запуске с метриками
+    private static final class Allocation {
+        private static final com.sun.management.ThreadMXBean BEAN = lookup();
+
+        private static com.sun.management.ThreadMXBean lookup() {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean b && b.isThreadAllocatedMemorySupported()
+                    && b.isThreadAllocatedMemoryEnabled()) return b;
+            return null;
+        }
+
+        static long current() {
+            return BEAN == null ? -1 : BEAN.getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    // накопленные значения одного алгоритма
+    private static final class Cumulative {
+        private final String algorithm;
+        private long runs, wallNanos, vertices, edgesScanned;
+        private final long[] wallBuckets = new long[BUCKETS];
+        private final long[] vertexBuckets = new long[BUCKETS];
+
+        Cumulative(String algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        synchronized void add(RunStats s) {
+            runs++;
+            wallNanos += s.getWallNanos();
+            vertices += Math.max(0, s.getVertices());
+            edgesScanned += Math.max(0, s.getEdgesScanned());
+            wallBuckets[bucket(s.getWallNanos() / 1000)]++;
+            vertexBuckets[bucket(s.getVertices())]++;
+        }
+
+        synchronized RunHistogram snapshot() {
+            return new RunHistogram(algorithm, runs, wallNanos, vertices, edgesScanned,
+                    wallBuckets.clone(), vertexBuckets.clone());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package algorithms;
+
+import java.util.List;
+
+/*
+ JMX-интерфейс AlgorithmMetrics (ObjectName AlgorithmMetrics.OBJECT_NAME):
+ включение сбора, последний запуск и накопленные гистограммы по алгоритмам.
+ */
+public interface AlgorithmMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getRunCount();
+
+    // последний завершённый запуск в любом потоке (null, если запусков не было)
+    RunStats getLastRun();
+
+    List<RunHistogram> getHistograms();
+
+    void reset();
+}
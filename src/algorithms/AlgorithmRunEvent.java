@@ -0,0 +1,46 @@
+package algorithms;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ Событие JFR на каждый запуск алгоритма: длительность — от begin до end события,
+ поля — счётчики RunStats. Включается настройками записи (graph.AlgorithmRun), например
+ jcmd <pid> JFR.start settings=profile; без записи пишется только AlgorithmMetrics.
+ */
+@Name("graph.AlgorithmRun")
+@Label("Algorithm Run")
+@Category({"Graph", "Algorithms"})
+@Description("Один запуск алгоритма на графе")
+@StackTrace(false)
+final class AlgorithmRunEvent extends Event {
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Vertices")
+    long vertices;
+
+    @Label("Edges Scanned")
+    long edgesScanned;
+
+    @Label("Edges Relaxed")
+    long edgesRelaxed;
+
+    @Label("Heap Pushes")
+    long heapPushes;
+
+    @Label("Decrease Keys")
+    long decreaseKeys;
+
+    @Label("Peak Frontier")
+    long peakFrontier;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
@@ -0,0 +1,77 @@
+package algorithms;
+
+import graph.CsrGraph;
+
+/*
+ Результат обхода в ширину (ParallelBfs): расстояния в рёбрах, родители в дереве BFS
+ и порядок посещения. Вершины в order() идут уровнями: сначала все на расстоянии 0, потом 1 и т.д.
+ */
+public class BfsResult<V> {
+    public static final int UNREACHED = -1;
+
+    private final CsrGraph<V> graph;
+    private final int source;
+    private final int[] dist;
+    private final int[] parent;
+    private final int[] order;
+    private final int visited;
+    private final int levels;
+
+    BfsResult(CsrGraph<V> graph, int source, int[] dist, int[] parent, int[] order, int visited, int levels) {
+        this.graph = graph;
+        this.source = source;
+        this.dist = dist;
+        this.parent = parent;
+        this.order = order;
+        this.visited = visited;
+        this.levels = levels;
+    }
+
+    public CsrGraph<V> graph() {
+        return graph;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    // число рёбер до v или UNREACHED
+    public int distance(int v) {
+        return dist[v];
+    }
+
+    // родитель v в дереве BFS (-1 для источника и недостижимых вершин)
+    public int parent(int v) {
+        return parent[v];
+    }
+
+    public int[] distances() {
+        return dist;
+    }
+
+    public int[] parents() {
+        return parent;
+    }
+
+    // число посещённых вершин
+    public int size() {
+        return visited;
+    }
+
+    // число уровней (эксцентриситет источника + 1)
+    public int levels() {
+        return levels;
+    }
+
+    public int vertex(int i) {
+        return order[i];
+    }
+
+    public V value(int i) {
+        return graph.value(order[i]);
+    }
+
+    int[] rawOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,33 @@
+package algorithms;
+
+import java.util.concurrent.RecursiveAction;
+
+/*
+ Разбиение диапазона кусков [from, to) на подзадачи fork/join делением пополам;
+ каждый кусок обрабатывается body.run(номер куска).
+ */
+@SuppressWarnings("serial")
+final class ChunkTask extends RecursiveAction {
+    interface Body {
+        void run(int chunk);
+    }
+
+    private final int from, to;
+    private final Body body;
+
+    ChunkTask(int from, int to, Body body) {
+        this.from = from;
+        this.to = to;
+        this.body = body;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= 1) {
+            if (from < to) body.run(from);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        invokeAll(new ChunkTask(from, mid, body), new ChunkTask(mid, to, body));
+    }
+}
@@ -0,0 +1,682 @@
+package algorithms;
+
+import ds.IndexedDaryHeap;
+import ds.IntArrayList;
+import graph.CsrGraph;
+import graph.Graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/*
+ Иерархия сжатий (contraction hierarchies) для быстрых запросов source -> target
+ на статическом взвешенном графе.
+ Предобработка: вершины по очереди "сжимаются" в порядке приоритета
+ (разность рёбер "добавленные шорткаты - удалённые рёбра", число уже сжатых соседей
+ и глубина в иерархии);
+ при сжатии v для пары u -> v -> x добавляется шорткат u -> x, если локальный поиск
+ свидетеля (без v) не нашёл путь не длиннее. Номер сжатия — ранг вершины.
+ Итоговые рёбра делятся на восходящий CSR (v -> более высокий ранг) и нисходящий,
+ хранимый в обратном виде (для v — входящие рёбра из вершин с более высоким рангом).
+ Запрос — встречные поиски только "вверх" из source и из target; шорткаты
+ распаковываются через промежуточную вершину mid до рёбер исходного графа.
+ Иерархию можно сохранить в файл (save) и загрузить (load) вместе с исходным графом.
+ */
+public final class ContractionHierarchy<V> {
+    private static final int MAGIC = 0x47434831;  // "GCH1"
+    private static final int FORMAT_VERSION = 1;
+    // предел извлечённых вершин в поиске свидетеля (при оценке приоритета — меньше)
+    static final int WITNESS_LIMIT = 500;
+    static final int ESTIMATE_LIMIT = 10;
+
+    private final CsrGraph<V> graph;
+    private final int[] rank;
+    private final int[] upOffsets, upTargets, upWeights, upMids;
+    private final int[] downOffsets, downSources, downWeights, downMids;
+    private Query shared;
+
+    private ContractionHierarchy(CsrGraph<V> graph, int[] rank,
+                                 int[] upOffsets, int[] upTargets, int[] upWeights, int[] upMids,
+                                 int[] downOffsets, int[] downSources, int[] downWeights, int[] downMids) {
+        this.graph = graph;
+        this.rank = rank;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upMids = upMids;
+        this.downOffsets = downOffsets;
+        this.downSources = downSources;
+        this.downWeights = downWeights;
+        this.downMids = downMids;
+    }
+
+    public static <V> ContractionHierarchy<V> build(Graph<V> g) {
+        return build(g.freeze(), RunMonitor.NONE);
+    }
+
+    public static <V> ContractionHierarchy<V> build(CsrGraph<V> g) {
+        return build(g, RunMonitor.NONE);
+    }
+
+    public static <V> ContractionHierarchy<V> build(CsrGraph<V> g, RunMonitor monitor) {
+        return new Builder(g, RunMonitor.orNone(monitor)).run(g);
+    }
+
+    public CsrGraph<V> graph() {
+        return graph;
+    }
+
+    public int rank(int v) {
+        return rank[v];
+    }
+
+    // число шорткатов (рёбер иерархии сверх рёбер исходного графа)
+    public int shortcutCount() {
+        int count = 0;
+        for (int mid : upMids) if (mid >= 0) count++;
+        for (int mid : downMids) if (mid >= 0) count++;
+        return count;
+    }
+
+    // отдельный объект запросов на поток: массивы поиска переиспользуются между запросами
+    public Query newQuery() {
+        return new Query();
+    }
+
+    // запрос через общий объект (синхронизирован)
+    public synchronized ShortestPathResult<V> query(int source, int target) {
+        if (shared == null) shared = new Query();
+        return shared.run(source, target, null);
+    }
+
+    public ShortestPathResult<V> query(V source, V target) {
+        return query(graph.indexOf(source), graph.indexOf(target));
+    }
+
+    /*
+     Встречный поиск вверх. Каждая сторона извлекает вершины, пока её минимум меньше best;
+     ответ — минимум dF(v) + dB(v) по вершинам, достигнутым обеими сторонами.
+     */
+    public final class Query {
+        private final IndexedDaryHeap fwHeap, bwHeap;
+        private final long[] fwDist, bwDist;
+        private final int[] fwEdge, bwEdge;  // ребро, по которому вершина достигнута (индекс в up/down CSR)
+        private final int[] fwSeen, bwSeen;
+        private int epoch;
+        private final IntArrayList path = new IntArrayList();
+        private final IntArrayList edges = new IntArrayList();
+        private final IntArrayList stack = new IntArrayList();
+        private long pushes, decreases;
+
+        private Query() {
+            int n = graph.vertexCount();
+            fwHeap = new IndexedDaryHeap(n);
+            bwHeap = new IndexedDaryHeap(n);
+            fwDist = new long[n];
+            bwDist = new long[n];
+            fwEdge = new int[n];
+            bwEdge = new int[n];
+            fwSeen = new int[n];
+            bwSeen = new int[n];
+        }
+
+        public long distance(int source, int target) {
+            return run(source, target, null).distance();
+        }
+
+        /*
+         Результат в формате ShortestPathResult: путь распакован до вершин исходного графа,
+         settledCount — суммарное число извлечённых вершин обоих поисков.
+         */
+        public ShortestPathResult<V> run(int source, int target, ShortestPathResult<V> reuse) {
+            ShortestPathResult<V> r = reuse != null ? reuse : new ShortestPathResult<>();
+            r.prepare(graph, source, target);
+            int n = graph.vertexCount();
+            if (source < 0 || source >= n || target < 0 || target >= n) return r;
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(fwSeen, 0);
+                Arrays.fill(bwSeen, 0);
+                epoch = 1;
+            }
+
+            AlgorithmMetrics.Probe probe = AlgorithmMetrics.start("ch query");
+            pushes = decreases = 0;
+            long scanned = 0;
+            int peak = 2;
+            fwHeap.clear();
+            bwHeap.clear();
+            reach(fwHeap, fwDist, fwEdge, fwSeen, source, 0, -1);
+            reach(bwHeap, bwDist, bwEdge, bwSeen, target, 0, -1);
+            long best = ShortestPathResult.UNREACHABLE;
+            int meet = -1;
+            int settled = 0;
+
+            while (true) {
+                boolean fw = !fwHeap.isEmpty() && fwHeap.minKey() < best;
+                boolean bw = !bwHeap.isEmpty() && bwHeap.minKey() < best;
+                if (!fw && !bw) break;
+                // продвигаем сторону с меньшим минимумом
+                if (fw && (!bw || fwHeap.minKey() <= bwHeap.minKey())) {
+                    int v = fwHeap.pollMin();
+                    settled++;
+                    if (bwSeen[v] == epoch && fwDist[v] + bwDist[v] < best) {
+                        best = fwDist[v] + bwDist[v];
+                        meet = v;
+                    }
+                    scanned += upOffsets[v + 1] - upOffsets[v];
+                    for (int e = upOffsets[v]; e < upOffsets[v + 1]; e++)
+                        relax(fwHeap, fwDist, fwEdge, fwSeen, upTargets[e], fwDist[v] + upWeights[e], e);
+                } else {
+                    int v = bwHeap.pollMin();
+                    settled++;
+                    if (fwSeen[v] == epoch && fwDist[v] + bwDist[v] < best) {
+                        best = fwDist[v] + bwDist[v];
+                        meet = v;
+                    }
+                    scanned += downOffsets[v + 1] - downOffsets[v];
+                    for (int e = downOffsets[v]; e < downOffsets[v + 1]; e++)
+                        relax(bwHeap, bwDist, bwEdge, bwSeen, downSources[e], bwDist[v] + downWeights[e], e);
+                }
+                if (fwHeap.size() + bwHeap.size() > peak) peak = fwHeap.size() + bwHeap.size();
+            }
+            r.settledCount = settled;
+            if (probe != null) probe.finish(settled, scanned, pushes - 2 + decreases, pushes, decreases, peak);
+            if (meet >= 0) writePath(r, source, meet);
+            return r;
+        }
+
+        private void reach(IndexedDaryHeap heap, long[] dist, int[] edge, int[] seen, int v, long d, int e) {
+            seen[v] = epoch;
+            dist[v] = d;
+            edge[v] = e;
+            heap.insert(v, d);
+            pushes++;
+        }
+
+        private void relax(IndexedDaryHeap heap, long[] dist, int[] edge, int[] seen, int v, long d, int e) {
+            if (seen[v] != epoch) {
+                reach(heap, dist, edge, seen, v, d, e);
+            } else if (d < dist[v] && heap.contains(v)) {
+                dist[v] = d;
+                edge[v] = e;
+                heap.decreaseKey(v, d);
+                decreases++;
+            }
+        }
+
+        // путь source ~> meet ~> target: сначала рёбра иерархии, затем распаковка шорткатов
+        private void writePath(ShortestPathResult<V> r, int source, int meet) {
+            path.clear();
+            // верхняя половина — от meet назад к source, в обратном порядке
+            edges.clear();
+            for (int v = meet; fwEdge[v] != -1; ) {
+                int e = fwEdge[v];
+                edges.add(e);
+                v = sourceOfUp(e);
+            }
+            path.add(source);
+            for (int i = edges.size() - 1; i >= 0; i--) {
+                int e = edges.get(i);
+                unpack(sourceOfUp(e), upTargets[e], upMids[e]);
+            }
+            for (int v = meet; bwEdge[v] != -1; ) {
+                int e = bwEdge[v];
+                int next = targetOfDown(e);
+                unpack(v, next, downMids[e]);
+                v = next;
+            }
+
+            int[] pv = path.rawArray();
+            r.dist[pv[0]] = 0;
+            r.prev[pv[0]] = -1;
+            r.reached[pv[0]] = r.epoch;
+            r.settled[pv[0]] = r.epoch;
+            for (int i = 1; i < path.size(); i++) {
+                int a = pv[i - 1], b = pv[i];
+                if (r.reached[b] == r.epoch) continue;  // повтор через цикл нулевого веса
+                r.dist[b] = r.dist[a] + originalWeight(a, b);
+                r.prev[b] = a;
+                r.reached[b] = r.epoch;
+                r.settled[b] = r.epoch;
+            }
+        }
+
+        // дописывает в path вершины ребра from -> to после from (шорткаты раскрываются рекурсивно через стек)
+        private void unpack(int from, int to, int mid) {
+            stack.clear();
+            stack.add(from);
+            stack.add(to);
+            stack.add(mid);
+            while (stack.size() > 0) {
+                int m = stack.removeLast(), b = stack.removeLast(), a = stack.removeLast();
+                if (m < 0) {
+                    path.add(b);
+                    continue;
+                }
+                // сначала a -> m, затем m -> b: кладём в обратном порядке
+                stack.add(m);
+                stack.add(b);
+                stack.add(upMids[findUp(m, b)]);
+                stack.add(a);
+                stack.add(m);
+                stack.add(downMids[findDown(m, a)]);
+            }
+        }
+    }
+
+    // источник ребра e восходящего CSR (поиск отрезка двоичным поиском по upOffsets)
+    private int sourceOfUp(int e) {
+        return owner(upOffsets, e);
+    }
+
+    // ребро e нисходящего CSR лежит у вершины с меньшим рангом: downSources[e] -> owner
+    private int targetOfDown(int e) {
+        return owner(downOffsets, e);
+    }
+
+    private static int owner(int[] offsets, int e) {
+        int lo = 0, hi = offsets.length - 2;
+        while (lo < hi) {
+            int m = (lo + hi + 1) >>> 1;
+            if (offsets[m] <= e) lo = m;
+            else hi = m - 1;
+        }
+        return lo;
+    }
+
+    // ребро v -> w с rank[v] < rank[w]
+    private int findUp(int v, int w) {
+        for (int e = upOffsets[v]; e < upOffsets[v + 1]; e++) if (upTargets[e] == w) return e;
+        throw new IllegalStateException("нет ребра иерархии " + v + " -> " + w);
+    }
+
+    // ребро u -> v с rank[u] > rank[v] (хранится у v)
+    private int findDown(int v, int u) {
+        for (int e = downOffsets[v]; e < downOffsets[v + 1]; e++) if (downSources[e] == u) return e;
+        throw new IllegalStateException("нет ребра иерархии " + u + " -> " + v);
+    }
+
+    private long originalWeight(int a, int b) {
+        return rank[a] < rank[b] ? upWeights[findUp(a, b)] : downWeights[findDown(b, a)];
+    }
+
+    /*
+     Сохранение: заголовок, исходный граф (имена вершин через toString, CSR, координаты)
+     и иерархия (ранги, восходящий и нисходящий CSR с mid). Двоичный формат, big-endian.
+     */
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            int n = graph.vertexCount();
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeBoolean(graph.isDirected());
+            out.writeInt(n);
+            for (int v = 0; v < n; v++) out.writeUTF(String.valueOf(graph.value(v)));
+            writeInts(out, graph.offsets());
+            writeInts(out, graph.targets());
+            writeInts(out, graph.weights());
+            out.writeBoolean(graph.hasCoordinates());
+            if (graph.hasCoordinates()) {
+                for (int v = 0; v < n; v++) out.writeInt(graph.x(v));
+                for (int v = 0; v < n; v++) out.writeInt(graph.y(v));
+            }
+            writeInts(out, rank);
+            writeInts(out, upOffsets);
+            writeInts(out, upTargets);
+            writeInts(out, upWeights);
+            writeInts(out, upMids);
+            writeInts(out, downOffsets);
+            writeInts(out, downSources);
+            writeInts(out, downWeights);
+            writeInts(out, downMids);
+        }
+    }
+
+    public static ContractionHierarchy<String> load(Path file) throws IOException {
+        return load(file, Function.identity());
+    }
+
+    // загрузка; parse восстанавливает значение вершины из сохранённого имени
+    @SuppressWarnings("unchecked")
+    public static <V> ContractionHierarchy<V> load(Path file, Function<String, V> parse) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) throw new IOException(file + ": не файл иерархии сжатий");
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) throw new IOException(file + ": неподдерживаемая версия формата " + version);
+            boolean directed = in.readBoolean();
+            int n = in.readInt();
+            V[] values = (V[]) new Object[n];
+            for (int v = 0; v < n; v++) values[v] = parse.apply(in.readUTF());
+            int[] offsets = readInts(in);
+            int[] targets = readInts(in);
+            int[] weights = readInts(in);
+            CsrGraph<V> g = CsrGraph.of(directed, values, offsets, targets, weights);
+            if (in.readBoolean()) {
+                int[] xs = new int[n], ys = new int[n];
+                for (int v = 0; v < n; v++) xs[v] = in.readInt();
+                for (int v = 0; v < n; v++) ys[v] = in.readInt();
+                g = g.withCoordinates(xs, ys);
+            }
+            int[] rank = readInts(in);
+            if (rank.length != n) throw new IOException(file + ": повреждён файл иерархии");
+            int[] upOffsets = readInts(in), upTargets = readInts(in), upWeights = readInts(in), upMids = readInts(in);
+            int[] downOffsets = readInts(in), downSources = readInts(in), downWeights = readInts(in), downMids = readInts(in);
+            if (!validHierarchy(rank, upOffsets, upTargets, upWeights, upMids)
+                    || !validHierarchy(rank, downOffsets, downSources, downWeights, downMids))
+                throw new IOException(file + ": повреждён файл иерархии");
+            return new ContractionHierarchy<>(g, rank, upOffsets, upTargets, upWeights, upMids,
+                    downOffsets, downSources, downWeights, downMids);
+        } catch (EOFException ex) {
+            throw new IOException(file + ": файл иерархии обрывается", ex);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException(file + ": повреждён файл иерархии: " + ex.getMessage(), ex);
+        }
+    }
+
+    /*
+     Проверка загруженного CSR иерархии (восходящего или нисходящего): n + 1 неубывающее
+     смещение от 0 до числа рёбер, массивы рёбер одной длины, каждое ребро ведёт
+     к вершине с более высоким рангом, mid — вершина графа или -1.
+     */
+    private static boolean validHierarchy(int[] rank, int[] offsets, int[] ends, int[] weights, int[] mids) {
+        int n = rank.length;
+        if (offsets.length != n + 1 || offsets[0] != 0 || offsets[n] != ends.length) return false;
+        if (weights.length != ends.length || mids.length != ends.length) return false;
+        for (int v = 0; v < n; v++) {
+            if (offsets[v] > offsets[v + 1]) return false;
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int u = ends[e];
+                if (u < 0 || u >= n || rank[u] <= rank[v] || mids[e] < -1 || mids[e] >= n) return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] a) throws IOException {
+        out.writeInt(a.length);
+        for (int x : a) out.writeInt(x);
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) throw new IOException("отрицательная длина массива");
+        int[] a = new int[len];
+        for (int i = 0; i < len; i++) a[i] = in.readInt();
+        return a;
+    }
+
+    /*
+     Предобработка на изменяемых списках смежности (только ещё не сжатые вершины).
+     В момент сжатия v все её оставшиеся соседи получат ранг выше, поэтому
+     исходящие рёбра v сразу уходят в восходящий CSR, входящие — в нисходящий.
+     */
+    private static final class Builder {
+        private final int n;
+        private final RunMonitor monitor;
+        private final Adjacency[] out, in;
+        private final int[] contractedNeighbors;
+        private final int[] level;          // глубина в иерархии: 1 + максимум по сжатым соседям
+        private final int[] touched;        // отметка соседей, которым уже пересчитан приоритет
+
+        // поиск свидетеля
+        private final IndexedDaryHeap witnessHeap;
+        private final long[] witnessDist;
+        private final int[] witnessSeen;
+        private int witnessEpoch;
+        private final int[] targetMark;     // выходящие соседи сжимаемой вершины
+        private int targetEpoch;
+
+        // пары шорткатов u -> x с весом, найденные для текущей вершины
+        private final IntArrayList scFrom = new IntArrayList(), scTo = new IntArrayList();
+        private final IntArrayList scWeight = new IntArrayList();
+
+        Builder(CsrGraph<?> g, RunMonitor monitor) {
+            n = g.vertexCount();
+            this.monitor = monitor;
+            out = new Adjacency[n];
+            in = new Adjacency[n];
+            for (int v = 0; v < n; v++) {
+                out[v] = new Adjacency();
+                in[v] = new Adjacency();
+            }
+            int[] offsets = g.offsets(), targets = g.targets(), weights = g.weights();
+            for (int v = 0; v < n; v++) {
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int t = targets[e];
+                    if (t == v) continue;  // петли не участвуют в кратчайших путях
+                    addEdge(v, t, weights[e], -1);
+                }
+            }
+            contractedNeighbors = new int[n];
+            level = new int[n];
+            touched = new int[n];
+            witnessHeap = new IndexedDaryHeap(n);
+            witnessDist = new long[n];
+            witnessSeen = new int[n];
+            targetMark = new int[n];
+        }
+
+        <V> ContractionHierarchy<V> run(CsrGraph<V> g) {
+            IndexedDaryHeap order = new IndexedDaryHeap(n);
+            for (int v = 0; v < n; v++) order.insert(v, priority(v));
+
+            int[] rank = new int[n];
+            IntArrayList[] up = new IntArrayList[4];    // target, weight, mid, owner
+            IntArrayList[] down = new IntArrayList[4];  // source, weight, mid, owner
+            for (int i = 0; i < 4; i++) {
+                up[i] = new IntArrayList();
+                down[i] = new IntArrayList();
+            }
+
+            int next = 0;
+            while (!order.isEmpty()) {
+                int v = order.pollMin();
+                // ленивое обновление: приоритет мог вырасти после сжатия соседей
+                long p = priority(v);
+                if (!order.isEmpty() && p > order.minKey()) {
+                    order.insert(v, p);
+                    continue;
+                }
+                rank[v] = next++;
+                if ((next & RunMonitor.CHECK_MASK) == 0) monitor.checkpoint(next);
+                contract(v, up, down);
+                detach(v);
+
+                // соседям пересчитываем приоритет (уменьшение сразу, рост — лениво при извлечении)
+                Adjacency o = out[v], i = in[v];
+                for (int k = 0; k < o.size; k++) touch(order, v, o.to[k]);
+                for (int k = 0; k < i.size; k++) touch(order, v, i.to[k]);
+            }
+
+            int[][] upCsr = toCsr(up);
+            int[][] downCsr = toCsr(down);
+            return new ContractionHierarchy<>(g, rank, upCsr[0], upCsr[1], upCsr[2], upCsr[3],
+                    downCsr[0], downCsr[1], downCsr[2], downCsr[3]);
+        }
+
+        private void touch(IndexedDaryHeap order, int v, int u) {
+            // в неориентированном графе сосед есть и среди входящих, и среди исходящих
+            if (touched[u] == v + 1) return;
+            touched[u] = v + 1;
+            contractedNeighbors[u]++;
+            level[u] = Math.max(level[u], level[v] + 1);
+            long p = priority(u);
+            if (p < order.key(u)) order.decreaseKey(u, p);
+        }
+
+        // приоритет = 2 * (шорткаты - удаляемые рёбра) + сжатые соседи + глубина (чем меньше, тем раньше)
+        private long priority(int v) {
+            int shortcuts = findShortcuts(v, ESTIMATE_LIMIT);
+            return 2L * (shortcuts - out[v].size - in[v].size) + contractedNeighbors[v] + level[v];
+        }
+
+        private void contract(int v, IntArrayList[] up, IntArrayList[] down) {
+            Adjacency o = out[v], i = in[v];
+            for (int k = 0; k < o.size; k++) {
+                up[0].add(o.to[k]);
+                up[1].add(o.weight[k]);
+                up[2].add(o.mid[k]);
+                up[3].add(v);
+            }
+            for (int k = 0; k < i.size; k++) {
+                down[0].add(i.to[k]);
+                down[1].add(i.weight[k]);
+                down[2].add(i.mid[k]);
+                down[3].add(v);
+            }
+            findShortcuts(v, WITNESS_LIMIT);
+            for (int k = 0; k < scFrom.size(); k++) addEdge(scFrom.get(k), scTo.get(k), scWeight.get(k), v);
+        }
+
+        // убрать v из списков соседей (свои списки v остаются для пересчёта приоритетов)
+        private void detach(int v) {
+            Adjacency o = out[v], i = in[v];
+            for (int k = 0; k < o.size; k++) in[o.to[k]].remove(v);
+            for (int k = 0; k < i.size; k++) out[i.to[k]].remove(v);
+        }
+
+        /*
+         Для каждого входящего соседа u — ограниченный Дейкстра без v до выходящих соседей x;
+         если свидетель не найден (или длиннее u -> v -> x), нужна пара-шорткат.
+         Возвращает число шорткатов, сами пары — в scFrom/scTo/scWeight.
+         */
+        private int findShortcuts(int v, int limit) {
+            scFrom.clear();
+            scTo.clear();
+            scWeight.clear();
+            Adjacency o = out[v], i = in[v];
+            if (o.size == 0 || i.size == 0) return 0;
+            if (++targetEpoch == Integer.MAX_VALUE) {
+                Arrays.fill(targetMark, 0);
+                targetEpoch = 1;
+            }
+            long maxOut = 0;
+            for (int k = 0; k < o.size; k++) {
+                maxOut = Math.max(maxOut, o.weight[k]);
+                targetMark[o.to[k]] = targetEpoch;
+            }
+
+            for (int a = 0; a < i.size; a++) {
+                int u = i.to[a];
+                long viaIn = i.weight[a];
+                witnessSearch(u, v, viaIn + maxOut, o.size, limit);
+                for (int b = 0; b < o.size; b++) {
+                    int x = o.to[b];
+                    if (x == u) continue;
+                    long via = viaIn + o.weight[b];
+                    if (witnessSeen[x] == witnessEpoch && witnessDist[x] <= via) continue;
+                    scFrom.add(u);
+                    scTo.add(x);
+                    scWeight.add((int) Math.min(Integer.MAX_VALUE, via));
+                }
+            }
+            return scFrom.size();
+        }
+
+        // поиск заканчивается, когда извлечены все targets выходящих соседей
+        private void witnessSearch(int source, int skip, long bound, int targets, int limit) {
+            if (++witnessEpoch == Integer.MAX_VALUE) {
+                Arrays.fill(witnessSeen, 0);
+                witnessEpoch = 1;
+            }
+            witnessHeap.clear();
+            witnessSeen[source] = witnessEpoch;
+            witnessDist[source] = 0;
+            witnessHeap.insert(source, 0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled++ < limit) {
+                if (witnessHeap.minKey() > bound) break;
+                int v = witnessHeap.pollMin();
+                if (targetMark[v] == targetEpoch && --targets == 0) break;
+                Adjacency o = out[v];
+                for (int k = 0; k < o.size; k++) {
+                    int t = o.to[k];
+                    if (t == skip) continue;
+                    long d = witnessDist[v] + o.weight[k];
+                    if (witnessSeen[t] != witnessEpoch) {
+                        witnessSeen[t] = witnessEpoch;
+                        witnessDist[t] = d;
+                        witnessHeap.insert(t, d);
+                    } else if (d < witnessDist[t] && witnessHeap.contains(t)) {
+                        witnessDist[t] = d;
+                        witnessHeap.decreaseKey(t, d);
+                    }
+                }
+            }
+        }
+
+        // ребро a -> b; из параллельных остаётся самое лёгкое
+        private void addEdge(int a, int b, int weight, int mid) {
+            int k = out[a].indexOf(b);
+            if (k >= 0) {
+                if (weight >= out[a].weight[k]) return;
+                out[a].weight[k] = weight;
+                out[a].mid[k] = mid;
+                int j = in[b].indexOf(a);
+                in[b].weight[j] = weight;
+                in[b].mid[j] = mid;
+                return;
+            }
+            out[a].add(b, weight, mid);
+            in[b].add(a, weight, mid);
+        }
+
+        // списки (значение, вес, mid, владелец) -> offsets + массивы, сортировка подсчётом по владельцу
+        private int[][] toCsr(IntArrayList[] lists) {
+            int m = lists[0].size();
+            int[] offsets = new int[n + 1];
+            for (int k = 0; k < m; k++) offsets[lists[3].get(k) + 1]++;
+            for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+            int[] fill = Arrays.copyOf(offsets, n);
+            int[] to = new int[m], weight = new int[m], mid = new int[m];
+            for (int k = 0; k < m; k++) {
+                int p = fill[lists[3].get(k)]++;
+                to[p] = lists[0].get(k);
+                weight[p] = lists[1].get(k);
+                mid[p] = lists[2].get(k);
+            }
+            return new int[][]{offsets, to, weight, mid};
+        }
+    }
+
+    // список смежности вершины при предобработке: соседи, веса, mid шорткатов (-1 — исходное ребро)
+    private static final class Adjacency {
+        int[] to = new int[4];
+        int[] weight = new int[4];
+        int[] mid = new int[4];
+        int size;
+
+        void add(int t, int w, int m) {
+            if (size == to.length) {
+                to = Arrays.copyOf(to, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+                mid = Arrays.copyOf(mid, size * 2);
+            }
+            to[size] = t;
+            weight[size] = w;
+            mid[size++] = m;
+        }
+
+        int indexOf(int t) {
+            for (int k = 0; k < size; k++) if (to[k] == t) return k;
+            return -1;
+        }
+
+        void remove(int t) {
+            int k = indexOf(t);
+            if (k < 0) return;
+            size--;
+            to[k] = to[size];
+            weight[k] = weight[size];
+            mid[k] = mid[size];
+        }
+    }
+}
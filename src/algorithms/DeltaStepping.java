@@ -0,0 +1,330 @@
+package algorithms;
+
+import ds.IntArrayList;
+import graph.CsrGraph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ Параллельный delta-stepping (Meyer, Sanders): полное дерево кратчайших путей из source.
+ Вершины раскладываются по "корзинам" ширины delta по предварительному расстоянию.
+ Корзина обрабатывается фазами: из всех её вершин параллельно релаксируются лёгкие рёбра
+ (w <= delta), которые могут вернуть вершины в ту же корзину; когда корзина опустела,
+ один раз релаксируются тяжёлые рёбра всех вершин, побывавших в ней.
+ Гонок нет без атомиков: вершины поделены на P диапазонов-владельцев, подзадачи фазы
+ пишут запросы (вершина, расстояние, откуда) в буферы по владельцу, затем каждый владелец
+ применяет запросы к своим вершинам (и своим спискам корзин) в фиксированном порядке.
+ Корзины циклические: предварительные расстояния не дальше maxWeight / delta + 1 корзин
+ от текущей. Расстояния совпадают с Дейкстрой (веса целые неотрицательные), prev — одно
+ из кратчайших деревьев.
+ */
+public class DeltaStepping {
+    static final int MIN_PARALLEL_VERTICES = 1 << 14;
+    // вершин фронта на подзадачу генерации запросов
+    static final int CHUNK = 1024;
+    // владельцев на поток пула
+    static final int PARTS_PER_THREAD = 4;
+    // предел числа циклических корзин; при меньшем delta оно увеличивается
+    static final int MAX_BUCKETS = 1 << 16;
+    // шаг счётчиков владельцев: 8 long = 64 байта, по строке кэша на владельца
+    static final int PAD = 8;
+
+    private static final DeltaStepping SHARED = new DeltaStepping(ForkJoinPool.commonPool());
+
+    private final ForkJoinPool pool;
+
+    public DeltaStepping(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // экземпляр на общем пуле fork/join
+    public static DeltaStepping shared() {
+        return SHARED;
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    public <V> ShortestPathResult<V> run(CsrGraph<V> g, int source) {
+        return run(g, source, 0, RunMonitor.NONE);
+    }
+
+    /*
+     delta <= 0 — подобрать по графу (autoDelta). Результат — дерево без цели (target = -1),
+     как у DijkstraEngine.tree: все достижимые вершины isSettled, settledCount — их число.
+     */
+    public <V> ShortestPathResult<V> run(CsrGraph<V> g, int source, long delta, RunMonitor monitor) {
+        ShortestPathResult<V> r = new ShortestPathResult<>();
+        r.prepare(g, source, -1);
+        if (source < 0 || source >= g.vertexCount()) return r;
+        if (delta <= 0) delta = autoDelta(g);
+        AlgorithmMetrics.Probe probe = AlgorithmMetrics.start("delta-stepping");
+        Run run = new Run(g, r, delta, RunMonitor.orNone(monitor), probe != null);
+        run.solve(source);
+        for (int v = 0; v < g.vertexCount(); v++) if (r.reached[v] == r.epoch) r.settled[v] = r.epoch;
+        r.settledCount = run.settledCount;
+        if (probe != null) {
+            long improved = 0, inserted = 0;
+            for (int p = 0; p < run.parts; p++) {
+                improved += run.improved[p * PAD];
+                inserted += run.inserted[p * PAD];
+            }
+            // вставки — в списки корзин (кучи нет, decrease-key соответствует переносу в другую корзину)
+            probe.finish(run.settledCount, run.scanned, improved, inserted, -1, run.peakFrontier);
+        }
+        return r;
+    }
+
+    /*
+     Ширина корзины maxWeight / средняя степень (оценка Meyer–Sanders для случайных весов):
+     лёгкое ребро в среднем одно на вершину, число повторных релаксаций мало.
+     */
+    public static long autoDelta(CsrGraph<?> g) {
+        int n = g.vertexCount();
+        int[] weights = g.weights();
+        if (n == 0 || weights.length == 0) return 1;
+        long maxWeight = 0;
+        for (int w : weights) maxWeight = Math.max(maxWeight, w);
+        long degree = Math.max(1, (weights.length + n - 1) / n);
+        return Math.max(1, maxWeight / degree);
+    }
+
+    // запросы релаксации одного владельца из одной подзадачи
+    private static final class Requests {
+        int[] to = new int[16];
+        int[] from = new int[16];
+        long[] dist = new long[16];
+        int size;
+
+        void add(int v, int u, long d) {
+            if (size == to.length) {
+                to = Arrays.copyOf(to, size * 2);
+                from = Arrays.copyOf(from, size * 2);
+                dist = Arrays.copyOf(dist, size * 2);
+            }
+            to[size] = v;
+            from[size] = u;
+            dist[size++] = d;
+        }
+    }
+
+    private final class Run {
+        final int n;
+        final int[] offsets, targets, weights;
+        final long delta;
+        final int buckets;          // число циклических корзин
+        final int parts, block;     // владельцы: вершина v принадлежит v / block
+        final boolean parallel;
+        final RunMonitor monitor;
+        // счётчики для AlgorithmMetrics: по владельцам с шагом PAD (без ложного разделения строк кэша)
+        final boolean counting;
+        final long[] improved, inserted;
+        long scanned;
+        int peakFrontier;
+
+        final long[] dist;
+        final int[] prev;
+        final int[] reached;
+        final int epoch;
+        final long[] bucketOf;      // номер корзины, в списке которой вершина актуальна; -1 — нет
+        final int[] inPhase;        // отметка "вершина уже обработана в текущей корзине"
+        int phase;
+
+        final IntArrayList[][] lists;   // [владелец][корзина mod buckets], создаются по требованию
+        final IntArrayList[] drained;   // вершины текущей фазы по владельцам
+        final IntArrayList[] done;      // все вершины текущей корзины по владельцам (для тяжёлых рёбер)
+        Requests[][] requests = new Requests[0][];
+        int[] frontier = new int[CHUNK];
+        int frontierSize;
+        int settledCount;
+
+        Run(CsrGraph<?> g, ShortestPathResult<?> r, long delta, RunMonitor monitor, boolean counting) {
+            n = g.vertexCount();
+            offsets = g.offsets();
+            targets = g.targets();
+            weights = g.weights();
+            long maxWeight = 0;
+            for (int w : weights) maxWeight = Math.max(maxWeight, w);
+            // delta не меньше, чем нужно для MAX_BUCKETS циклических корзин
+            delta = Math.max(delta, (maxWeight + MAX_BUCKETS - 3) / (MAX_BUCKETS - 2));
+            this.delta = delta;
+            buckets = (int) (maxWeight / delta) + 2;
+            parallel = n >= MIN_PARALLEL_VERTICES && pool.getParallelism() > 1;
+            parts = parallel ? pool.getParallelism() * PARTS_PER_THREAD : 1;
+            block = (n + parts - 1) / parts;
+            this.monitor = monitor;
+            this.counting = counting;
+            improved = counting ? new long[parts * PAD] : null;
+            inserted = counting ? new long[parts * PAD] : null;
+
+            dist = r.dist;
+            prev = r.prev;
+            reached = r.reached;
+            epoch = r.epoch;
+            bucketOf = new long[n];
+            Arrays.fill(bucketOf, -1);
+            inPhase = new int[n];
+            lists = new IntArrayList[parts][buckets];
+            drained = new IntArrayList[parts];
+            done = new IntArrayList[parts];
+            for (int p = 0; p < parts; p++) {
+                drained[p] = new IntArrayList();
+                done[p] = new IntArrayList();
+            }
+        }
+
+        void solve(int source) {
+            relax(0, source, -1, 0);
+            long current = 0;
+            while (true) {
+                phase++;
+                int slot = (int) (current % buckets);
+                // лёгкие рёбра, пока корзина не опустеет
+                while (drain(current, slot)) relaxEdges(true);
+                // тяжёлые рёбра всех вершин корзины
+                frontierSize = 0;
+                for (IntArrayList s : done) {
+                    append(s);
+                    settledCount += s.size();
+                    s.clear();
+                }
+                if (frontierSize > 0) relaxEdges(false);
+                monitor.checkpoint(settledCount);
+
+                long next = nextBucket(current);
+                if (next < 0) break;
+                current = next;
+            }
+        }
+
+        // ближайшая непустая корзина после current или -1
+        private long nextBucket(long current) {
+            for (int k = 1; k < buckets; k++) {
+                int slot = (int) ((current + k) % buckets);
+                for (int p = 0; p < parts; p++) {
+                    IntArrayList list = lists[p][slot];
+                    if (list != null && !list.isEmpty()) return current + k;
+                }
+            }
+            return -1;
+        }
+
+        /*
+         Забрать актуальные вершины корзины current в frontier. Устаревшие записи (вершина
+         с тех пор переехала в другую корзину или уже забрана) отбрасываются.
+         */
+        private boolean drain(long current, int slot) {
+            forEach(parts, p -> {
+                IntArrayList list = lists[p][slot];
+                IntArrayList out = drained[p];
+                out.clear();
+                if (list == null) return;
+                for (int i = 0; i < list.size(); i++) {
+                    int v = list.get(i);
+                    if (bucketOf[v] != current) continue;
+                    bucketOf[v] = -1;
+                    out.add(v);
+                    if (inPhase[v] != phase) {
+                        inPhase[v] = phase;
+                        done[p].add(v);
+                    }
+                }
+                list.clear();
+            });
+            frontierSize = 0;
+            for (IntArrayList d : drained) append(d);
+            return frontierSize > 0;
+        }
+
+        private void append(IntArrayList list) {
+            int size = list.size();
+            if (frontierSize + size > frontier.length)
+                frontier = Arrays.copyOf(frontier, Math.max(frontierSize + size, frontier.length * 2));
+            System.arraycopy(list.rawArray(), 0, frontier, frontierSize, size);
+            frontierSize += size;
+        }
+
+        // релаксация лёгких (light) или тяжёлых рёбер фронта: генерация запросов, затем применение владельцами
+        private void relaxEdges(boolean light) {
+            if (counting) {
+                if (frontierSize > peakFrontier) peakFrontier = frontierSize;
+                for (int i = 0; i < frontierSize; i++) scanned += offsets[frontier[i] + 1] - offsets[frontier[i]];
+            }
+            if (!parallel) {
+                for (int i = 0; i < frontierSize; i++) {
+                    int v = frontier[i];
+                    long dv = dist[v];
+                    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                        if ((weights[e] <= delta) != light) continue;
+                        relax(0, targets[e], v, dv + weights[e]);
+                    }
+                }
+                return;
+            }
+
+            int chunks = (frontierSize + CHUNK - 1) / CHUNK;
+            ensureRequests(chunks);
+            Requests[][] req = requests;
+            forEach(chunks, c -> {
+                Requests[] out = req[c];
+                for (Requests q : out) q.size = 0;
+                int end = Math.min(frontierSize, (c + 1) * CHUNK);
+                for (int i = c * CHUNK; i < end; i++) {
+                    int v = frontier[i];
+                    long dv = dist[v];
+                    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                        if ((weights[e] <= delta) != light) continue;
+                        int t = targets[e];
+                        long d = dv + weights[e];
+                        // во время генерации dist только читается
+                        if (reached[t] == epoch && dist[t] <= d) continue;
+                        out[t / block].add(t, v, d);
+                    }
+                }
+            });
+            forEach(parts, p -> {
+                for (int c = 0; c < chunks; c++) {
+                    Requests q = req[c][p];
+                    for (int k = 0; k < q.size; k++) relax(p, q.to[k], q.from[k], q.dist[k]);
+                }
+            });
+        }
+
+        // вызывается только владельцем p вершины v
+        private void relax(int p, int v, int from, long d) {
+            if (reached[v] == epoch && d >= dist[v]) return;
+            reached[v] = epoch;
+            dist[v] = d;
+            prev[v] = from;
+            if (counting) improved[p * PAD]++;
+            long b = d / delta;
+            if (bucketOf[v] == b) return;  // уже в списке этой корзины
+            bucketOf[v] = b;
+            if (counting) inserted[p * PAD]++;
+            int slot = (int) (b % buckets);
+            IntArrayList list = lists[p][slot];
+            if (list == null) list = lists[p][slot] = new IntArrayList();
+            list.add(v);
+        }
+
+        private void ensureRequests(int chunks) {
+            if (requests.length >= chunks) return;
+            int old = requests.length;
+            requests = Arrays.copyOf(requests, Math.max(chunks, old * 2));
+            for (int c = old; c < requests.length; c++) {
+                requests[c] = new Requests[parts];
+                for (int p = 0; p < parts; p++) requests[c][p] = new Requests();
+            }
+        }
+
+        private void forEach(int count, ChunkTask.Body body) {
+            if (!parallel || count == 1) {
+                for (int i = 0; i < count; i++) body.run(i);
+            } else {
+                pool.invoke(new ChunkTask(0, count, body));
+            }
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package algorithms;
+
+import ds.IndexedDaryHeap;
+import graph.CsrGraph;
+
+import java.util.Arrays;
+
+/*
+ Алгоритм Дейкстры на CSR-снимке с индексированной 4-арной кучей (decrease-key).
+ Сложность O((V + E) log V). Поиск останавливается, как только цель извлечена из кучи.
+ Движок привязан к одному снимку и переиспользует кучу между запросами.
+ Режимы (SearchMode): обычный, A* с эвристикой и двунаправленный; во всех
+ ShortestPathResult.settledCount() — число извлечённых из куч вершин.
+ */
+public class DijkstraEngine<V> {
+    private final CsrGraph<V> graph;
+    private final IndexedDaryHeap heap;
+    private Heuristic heuristic;
+
+    // состояние обратного поиска (двунаправленный режим), создаётся при первом запросе
+    private IndexedDaryHeap backHeap;
+    private long[] backDist;
+    private int[] backNext;    // следующая вершина на пути к цели
+    private int[] backReached;
+    private int[] backSettled;
+    private int backEpoch;
+
+    public DijkstraEngine(CsrGraph<V> graph) {
+        this.graph = graph;
+        this.heap = new IndexedDaryHeap(graph.vertexCount());
+    }
+
+    // эвристика для A*; по умолчанию — евклидова по координатам снимка (Heuristic.euclidean)
+    public void setHeuristic(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    public Heuristic heuristic() {
+        if (heuristic == null) heuristic = Heuristic.euclidean(graph);
+        return heuristic;
+    }
+
+    public CsrGraph<V> graph() {
+        return graph;
+    }
+
+    public ShortestPathResult<V> query(V source, V target) {
+        return query(graph.indexOf(source), graph.indexOf(target), new ShortestPathResult<>());
+    }
+
+    // полное дерево кратчайших путей из source
+    public ShortestPathResult<V> tree(int source, ShortestPathResult<V> reuse) {
+        return query(source, -1, reuse);
+    }
+
+    /*
+     Запрос source -> target по id вершин; target = -1 — без раннего останова.
+     Результат записывается в reuse (он же возвращается).
+     */
+    public ShortestPathResult<V> query(int source, int target, ShortestPathResult<V> reuse) {
+        return query(source, target, reuse, RunMonitor.NONE);
+    }
+
+    public ShortestPathResult<V> query(int source, int target, ShortestPathResult<V> reuse, RunMonitor monitor) {
+        return query(source, target, reuse, SearchMode.DIJKSTRA, monitor);
+    }
+
+    /*
+     Запрос в заданном режиме. A* и двунаправленный поиск требуют цель (target >= 0),
+     без цели выполняется обычный Дейкстра (полное дерево).
+     */
+    public ShortestPathResult<V> query(int source, int target, ShortestPathResult<V> reuse,
+                                       SearchMode mode, RunMonitor monitor) {
+        if (target >= 0 && target < graph.vertexCount() && source >= 0 && source < graph.vertexCount()) {
+            if (mode == SearchMode.A_STAR) return aStar(source, target, reuse, RunMonitor.orNone(monitor));
+            if (mode == SearchMode.BIDIRECTIONAL) return bidirectional(source, target, reuse, RunMonitor.orNone(monitor));
+        }
+        return dijkstra(source, target, reuse, RunMonitor.orNone(monitor));
+    }
+
+    private ShortestPathResult<V> dijkstra(int source, int target, ShortestPathResult<V> reuse, RunMonitor monitor) {
+        ShortestPathResult<V> r = reuse != null ? reuse : new ShortestPathResult<>();
+        r.prepare(graph, source, target);
+        if (source < 0 || source >= graph.vertexCount()) return r;
+
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
+        long[] dist = r.dist;
+        int[] prev = r.prev;
+        int[] reached = r.reached;
+        int[] settled = r.settled;
+        int epoch = r.epoch;
+
+        AlgorithmMetrics.Probe probe = AlgorithmMetrics.start("dijkstra");
+        long scanned = 0, pushes = 1, decreases = 0;
+        int peak = 1;
+        heap.clear();
+        dist[source] = 0;
+        prev[source] = -1;
+        reached[source] = epoch;
+        heap.insert(source, 0);
+
+        while (!heap.isEmpty()) {
+            int v = heap.pollMin();
+            settled[v] = epoch;
+            if ((++r.settledCount & RunMonitor.CHECK_MASK) == 0) monitor.checkpoint(r.settledCount);
+            if (v == target) break;
+
+            long dv = dist[v];
+            scanned += offsets[v + 1] - offsets[v];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int to = targets[e];
+                if (settled[to] == epoch) continue;
+                long nd = dv + weights[e];
+                if (reached[to] != epoch) {
+                    reached[to] = epoch;
+                    dist[to] = nd;
+                    prev[to] = v;
+                    heap.insert(to, nd);
+                    pushes++;
+                    if (heap.size() > peak) peak = heap.size();
+                } else if (nd < dist[to]) {
+                    dist[to] = nd;
+                    prev[to] = v;
+                    heap.decreaseKey(to, nd);
+                    decreases++;
+                }
+            }
+        }
+        if (probe != null) probe.finish(r.settledCount, scanned, pushes - 1 + decreases, pushes, decreases, peak);
+        return r;
+    }
+
+    /*
+     A*: ключ кучи — dist + h(v). При согласованной эвристике это Дейкстра по приведённым
+     весам w(u, v) - h(u) + h(v) >= 0, поэтому извлечённая вершина окончательна.
+     */
+    private ShortestPathResult<V> aStar(int source, int target, ShortestPathResult<V> r, RunMonitor monitor) {
+        r = r != null ? r : new ShortestPathResult<>();
+        r.prepare(graph, source, target);
+        Heuristic h = heuristic();
+
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
+        long[] dist = r.dist;
+        int[] prev = r.prev;
+        int[] reached = r.reached;
+        int[] settled = r.settled;
+        int epoch = r.epoch;
+
+        AlgorithmMetrics.Probe probe = AlgorithmMetrics.start("a*");
+        long scanned = 0, pushes = 1, decreases = 0;
+        int peak = 1;
+        heap.clear();
+        dist[source] = 0;
+        prev[source] = -1;
+        reached[source] = epoch;
+        heap.insert(source, h.estimate(source, target));
+
+        while (!heap.isEmpty()) {
+            int v = heap.pollMin();
+            settled[v] = epoch;
+            if ((++r.settledCount & RunMonitor.CHECK_MASK) == 0) monitor.checkpoint(r.settledCount);
+            if (v == target) break;
+
+            long dv = dist[v];
+            scanned += offsets[v + 1] - offsets[v];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int to = targets[e];
+                if (settled[to] == epoch) continue;
+                long nd = dv + weights[e];
+                if (reached[to] != epoch) {
+                    reached[to] = epoch;
+                    dist[to] = nd;
+                    prev[to] = v;
+                    heap.insert(to, nd + h.estimate(to, target));
+                    pushes++;
+                    if (heap.size() > peak) peak = heap.size();
+                } else if (nd < dist[to]) {
+                    dist[to] = nd;
+                    prev[to] = v;
+                    heap.decreaseKey(to, nd + h.estimate(to, target));
+                    decreases++;
+                }
+            }
+        }
+        if (probe != null) probe.finish(r.settledCount, scanned, pushes - 1 + decreases, pushes, decreases, peak);
+        return r;
+    }
+
+    /*
+     Двунаправленный Дейкстра: прямой поиск из source по исходящим рёбрам и обратный из target
+     по входящим, на каждом шаге продвигается поиск с меньшим минимумом в куче.
+     best — длина лучшего найденного пути через ребро, соединяющее два поиска.
+     Останов, когда minF + minB >= best: любой ещё не найденный путь не короче
+     (каждая его вершина ещё не извлечена хотя бы одним из поисков).
+     В конце обратная половина пути переносится в r, чтобы path() и distance() работали как обычно.
+     */
+    private ShortestPathResult<V> bidirectional(int source, int target, ShortestPathResult<V> r, RunMonitor monitor) {
+        r = r != null ? r : new ShortestPathResult<>();
+        r.prepare(graph, source, target);
+        prepareBackward();
+
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
+        int[] inOffsets = graph.isDirected() ? graph.reverseOffsets() : offsets;
+        int[] inSources = graph.isDirected() ? graph.reverseSources() : targets;
+        int[] inWeights = graph.isDirected() ? graph.reverseWeights() : weights;
+
+        long[] dist = r.dist;
+        int[] prev = r.prev;
+        int[] reached = r.reached;
+        int[] settled = r.settled;
+        int epoch = r.epoch;
+        long[] bDist = backDist;
+        int[] bNext = backNext;
+        int[] bReached = backReached;
+        int[] bSettled = backSettled;
+        int bEpoch = backEpoch;
+
+        AlgorithmMetrics.Probe probe = AlgorithmMetrics.start("bidirectional dijkstra");
+        long scanned = 0, pushes = 2, decreases = 0;
+        int peak = 2;
+        heap.clear();
+        backHeap.clear();
+        dist[source] = 0;
+        prev[source] = -1;
+        reached[source] = epoch;
+        heap.insert(source, 0);
+        bDist[target] = 0;
+        bNext[target] = -1;
+        bReached[target] = bEpoch;
+        backHeap.insert(target, 0);
+
+        long best = source == target ? 0 : ShortestPathResult.UNREACHABLE;
+        int meet = source == target ? source : -1;
+
+        while (!heap.isEmpty() && !backHeap.isEmpty()) {
+            if (heap.minKey() + backHeap.minKey() >= best) break;
+            if ((++r.settledCount & RunMonitor.CHECK_MASK) == 0) monitor.checkpoint(r.settledCount);
+
+            if (heap.minKey() <= backHeap.minKey()) {
+                int v = heap.pollMin();
+                settled[v] = epoch;
+                long dv = dist[v];
+                scanned += offsets[v + 1] - offsets[v];
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int to = targets[e];
+                    long nd = dv + weights[e];
+                    if (settled[to] != epoch) {
+                        if (reached[to] != epoch) {
+                            reached[to] = epoch;
+                            dist[to] = nd;
+                            prev[to] = v;
+                            heap.insert(to, nd);
+                            pushes++;
+                            if (heap.size() + backHeap.size() > peak) peak = heap.size() + backHeap.size();
+                        } else if (nd < dist[to]) {
+                            dist[to] = nd;
+                            prev[to] = v;
+                            heap.decreaseKey(to, nd);
+                            decreases++;
+                        }
+                    }
+                    if (bReached[to] == bEpoch && nd + bDist[to] < best) {
+                        best = nd + bDist[to];
+                        meet = to;
+                    }
+                }
+            } else {
+                int v = backHeap.pollMin();
+                bSettled[v] = bEpoch;
+                long dv = bDist[v];
+                scanned += inOffsets[v + 1] - inOffsets[v];
+                for (int e = inOffsets[v]; e < inOffsets[v + 1]; e++) {
+                    int from = inSources[e];
+                    long nd = dv + inWeights[e];
+                    if (bSettled[from] != bEpoch) {
+                        if (bReached[from] != bEpoch) {
+                            bReached[from] = bEpoch;
+                            bDist[from] = nd;
+                            bNext[from] = v;
+                            backHeap.insert(from, nd);
+                            pushes++;
+                            if (heap.size() + backHeap.size() > peak) peak = heap.size() + backHeap.size();
+                        } else if (nd < bDist[from]) {
+                            bDist[from] = nd;
+                            bNext[from] = v;
+                            backHeap.decreaseKey(from, nd);
+                            decreases++;
+                        }
+                    }
+                    if (reached[from] == epoch && nd + dist[from] < best) {
+                        best = nd + dist[from];
+                        meet = from;
+                    }
+                }
+            }
+        }
+        if (probe != null) probe.finish(r.settledCount, scanned, pushes - 2 + decreases, pushes, decreases, peak);
+        if (meet < 0) return r;
+
+        /*
+         Склейка: meet достигнута обоими поисками, dist[meet] + bDist[meet] == best.
+         Идём от meet к цели по bNext и дописываем prev/dist; вершины обратной половины
+         отмечаются как settled (их расстояния от источника по найденному пути точны).
+         */
+        settled[meet] = epoch;
+        for (int v = meet; bNext[v] != -1; ) {
+            int next = bNext[v];
+            dist[next] = dist[v] + (bDist[v] - bDist[next]);
+            prev[next] = v;
+            reached[next] = epoch;
+            settled[next] = epoch;
+            v = next;
+        }
+        return r;
+    }
+
+    private void prepareBackward() {
+        int n = graph.vertexCount();
+        if (backHeap == null) {
+            backHeap = new IndexedDaryHeap(n);
+            backDist = new long[n];
+            backNext = new int[n];
+            backReached = new int[n];
+            backSettled = new int[n];
+        }
+        if (++backEpoch == Integer.MAX_VALUE) {
+            Arrays.fill(backReached, 0);
+            Arrays.fill(backSettled, 0);
+            backEpoch = 1;
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package algorithms;
+
+import graph.CsrGraph;
+import graph.Graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ Силовая раскладка (модель пружин и зарядов, Fruchterman–Reingold / Yifan Hu):
+ соседи притягиваются с силой d² / k, все вершины отталкиваются с силой
+ REPULSION * k² / d, слабая гравитация к центру не даёт компонентам разлетаться.
+ За итерацию вершина сдвигается вдоль силы на длину шага (температуру); шаг
+ адаптивный: падает, когда суммарная энергия растёт, и медленно растёт после серии
+ улучшений. Раскладка сошлась, когда шаг меньше k / 20 (около пикселя-двух).
+
+ Отталкивание считается приближением Барнса–Хата: на каждой итерации строится
+ квадродерево по текущим позициям, и далёкая ячейка (размер / расстояние < THETA)
+ действует как одна точка в своём центре масс — O(V log V) вместо O(V²).
+ Дерево строится последовательно, силы и перемещения считаются кусками по CHUNK
+ вершин в пуле fork/join; результат не зависит от числа потоков.
+
+ Раскладка работает по CSR-снимку и держит позиции у себя. step(бюджет) выполняет
+ итерации, пока не истечёт бюджет кадра, — между вызовами позиции можно забрать
+ (positions) и показать, так вид анимирует сходимость. Тёплый старт берёт
+ координаты снимка и начинает с низкой температуры; холодный — раскладывает вершины
+ по спирали подсолнуха. Экземпляр не потокобезопасен: step и чтение позиций
+ вызываются по очереди.
+ */
+public class ForceLayout {
+    static final int MIN_PARALLEL_VERTICES = 4096;
+    static final int CHUNK = 1024;
+    static final double THETA = 0.8;
+    static final double COOLING = 0.9;
+    static final double REPULSION = 0.2;
+    static final double GRAVITY = 0.05;
+    // масштаб раскладки k по умолчанию, в пикселях (рёбра выходят в 1.5–3 раза длиннее)
+    public static final double DEFAULT_SPACING = 40;
+
+    private final ForkJoinPool pool;
+    private final int n;
+    private final int[] offsets, targets;
+    // входящие рёбра ориентированного графа (у неориентированного соседи уже в обе стороны)
+    private final int[] revOffsets, revSources;
+    private final double[] x, y, fx, fy;
+    private final double k, k2, minTemperature;
+    private final double centerX, centerY;
+    private final QuadTree tree;
+    private double temperature;
+    private double energy = Double.POSITIVE_INFINITY;
+    private int progress;
+    private int iterations;
+
+    // исходный граф для apply (если раскладка создана через of)
+    private Graph<?> source;
+    private long sourceVersion;
+
+    public ForceLayout(CsrGraph<?> g, boolean warmStart) {
+        this(g, warmStart, DEFAULT_SPACING, ForkJoinPool.commonPool());
+    }
+
+    public ForceLayout(CsrGraph<?> g, boolean warmStart, double spacing, ForkJoinPool pool) {
+        if (!(spacing > 0)) throw new IllegalArgumentException("spacing должен быть положительным: " + spacing);
+        this.pool = pool;
+        this.n = g.vertexCount();
+        this.offsets = g.offsets();
+        this.targets = g.targets();
+        this.revOffsets = g.isDirected() ? g.reverseOffsets() : null;
+        this.revSources = g.isDirected() ? g.reverseSources() : null;
+        this.x = new double[n];
+        this.y = new double[n];
+        this.fx = new double[n];
+        this.fy = new double[n];
+        this.k = spacing;
+        this.k2 = REPULSION * spacing * spacing;
+        this.minTemperature = spacing / 20;
+        this.tree = new QuadTree(Math.max(16, 2 * n));
+
+        boolean warm = warmStart && g.hasCoordinates() && n > 0;
+        double sx = 0, sy = 0;
+        if (warm) {
+            for (int v = 0; v < n; v++) {
+                x[v] = g.x(v);
+                y[v] = g.y(v);
+                sx += x[v];
+                sy += y[v];
+            }
+            centerX = sx / n;
+            centerY = sy / n;
+            temperature = spacing;
+        } else {
+            centerX = 0;
+            centerY = 0;
+            // спираль подсолнуха: равномерная плотность, ни одной совпадающей пары
+            double golden = Math.PI * (3 - Math.sqrt(5));
+            for (int v = 0; v < n; v++) {
+                double r = spacing * Math.sqrt(v + 0.5);
+                x[v] = r * Math.cos(v * golden);
+                y[v] = r * Math.sin(v * golden);
+            }
+            temperature = Math.max(2 * spacing, spacing * Math.sqrt(n) / 10);
+        }
+    }
+
+    /*
+     Раскладка графа на общем пуле. apply() переносит позиции в Vertex.x/y,
+     если граф с тех пор не менялся.
+     */
+    public static ForceLayout of(Graph<?> graph, boolean warmStart) {
+        return of(graph, warmStart, ForkJoinPool.commonPool());
+    }
+
+    public static ForceLayout of(Graph<?> graph, boolean warmStart, ForkJoinPool pool) {
+        long version = graph.version();
+        ForceLayout layout = new ForceLayout(graph.freeze(true), warmStart, DEFAULT_SPACING, pool);
+        layout.source = graph;
+        layout.sourceVersion = version;
+        return layout;
+    }
+
+    public int vertexCount() {
+        return n;
+    }
+
+    public int iterations() {
+        return iterations;
+    }
+
+    public double temperature() {
+        return temperature;
+    }
+
+    public boolean isConverged() {
+        return n == 0 || temperature < minTemperature;
+    }
+
+    /*
+     Итерации, пока не истечёт бюджет (наносекунды) или раскладка не сойдётся.
+     Выполняется хотя бы одна итерация, если раскладка ещё не сошлась.
+     Возвращает число выполненных итераций.
+     */
+    public int step(long budgetNanos) {
+        if (isConverged()) return 0;
+        AlgorithmMetrics.Probe probe = AlgorithmMetrics.start("force layout");
+        long deadline = System.nanoTime() + budgetNanos;
+        int done = 0;
+        do {
+            iterate();
+            done++;
+        } while (!isConverged() && System.nanoTime() < deadline);
+        if (probe != null) {
+            long edges = (long) offsets[n] * (revOffsets == null ? 1 : 2);
+            probe.finish((long) n * done, edges * done, -1, -1, -1, -1);
+        }
+        return done;
+    }
+
+    // до сходимости, но не больше maxIterations итераций
+    public int run(int maxIterations) {
+        int done = 0;
+        while (done < maxIterations && !isConverged()) done += step(0);
+        return done;
+    }
+
+    public double x(int v) {
+        return x[v];
+    }
+
+    public double y(int v) {
+        return y[v];
+    }
+
+    // текущие позиции, округлённые до пикселей, в порядке вершин снимка
+    public void positions(int[] xs, int[] ys) {
+        for (int v = 0; v < n; v++) {
+            xs[v] = (int) Math.round(x[v]);
+            ys[v] = (int) Math.round(y[v]);
+        }
+    }
+
+    /*
+     Перенос позиций в Vertex.x/y исходного графа (см. of). Вызывается в потоке,
+     владеющем графом; false — граф изменился после построения раскладки.
+     */
+    public boolean apply() {
+        if (source == null) throw new IllegalStateException("раскладка построена не по Graph");
+        if (source.version() != sourceVersion) return false;
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        positions(xs, ys);
+        source.applyLayout(xs, ys);
+        return true;
+    }
+
+    private void iterate() {
+        tree.build();
+        boolean parallel = n >= MIN_PARALLEL_VERTICES && pool.getParallelism() > 1;
+        double e = 0;
+        if (parallel) {
+            int chunks = (n + CHUNK - 1) / CHUNK;
+            double[] partial = new double[chunks];
+            pool.invoke(new ChunkTask(0, chunks, c -> forces(c * CHUNK, Math.min(n, (c + 1) * CHUNK))));
+            pool.invoke(new ChunkTask(0, chunks, c -> partial[c] = move(c * CHUNK, Math.min(n, (c + 1) * CHUNK))));
+            for (double p : partial) e += p;
+        } else {
+            forces(0, n);
+            // энергия суммируется по тем же кускам, что и в параллельной ветви: охлаждение не зависит от пула
+            for (int from = 0; from < n; from += CHUNK) e += move(from, Math.min(n, from + CHUNK));
+        }
+        // адаптивное охлаждение (Yifan Hu): пять улучшений подряд — шаг растёт, ухудшение — шаг падает
+        if (e < energy) {
+            if (++progress >= 5) {
+                progress = 0;
+                temperature /= COOLING;
+            }
+        } else {
+            progress = 0;
+            temperature *= COOLING;
+        }
+        energy = e;
+        iterations++;
+    }
+
+    private void forces(int from, int to) {
+        int[] stack = new int[4 * QuadTree.MAX_DEPTH + 8];
+        double[] rep = new double[2];
+        for (int v = from; v < to; v++) {
+            double px = x[v], py = y[v];
+            double ax = 0, ay = 0;
+            // притяжение соседей: d² / k вдоль ребра
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = targets[i];
+                double dx = x[u] - px, dy = y[u] - py;
+                double d = Math.sqrt(dx * dx + dy * dy);
+                ax += dx * d / k;
+                ay += dy * d / k;
+            }
+            if (revOffsets != null) {
+                for (int i = revOffsets[v]; i < revOffsets[v + 1]; i++) {
+                    int u = revSources[i];
+                    double dx = x[u] - px, dy = y[u] - py;
+                    double d = Math.sqrt(dx * dx + dy * dy);
+                    ax += dx * d / k;
+                    ay += dy * d / k;
+                }
+            }
+            ax -= GRAVITY * (px - centerX);
+            ay -= GRAVITY * (py - centerY);
+            tree.repulsion(v, px, py, stack, rep);
+            fx[v] = ax + rep[0];
+            fy[v] = ay + rep[1];
+        }
+    }
+
+    // шаг длиной в температуру вдоль силы; возвращает энергию куска (сумму квадратов сил)
+    private double move(int from, int to) {
+        double t = temperature;
+        double e = 0;
+        for (int v = from; v < to; v++) {
+            double dx = fx[v], dy = fy[v];
+            double len2 = dx * dx + dy * dy;
+            if (len2 == 0 || !Double.isFinite(len2)) continue;
+            double s = t / Math.sqrt(len2);
+            x[v] += dx * s;
+            y[v] += dy * s;
+            e += len2;
+        }
+        return e;
+    }
+
+    /*
+     Квадродерево на массивах: у узла центр ячейки (ox, oy) и полуразмер half,
+     масса (число вершин) и сумма координат; у внутреннего узла first — индекс первого
+     из четырёх подряд идущих детей, у листа first = -1 и body — его вершина.
+     На глубине MAX_DEPTH совпадающие точки копятся в одном листе.
+     */
+    private final class QuadTree {
+        static final int MAX_DEPTH = 24;
+
+        private double[] ox, oy, half, mass, sx, sy;
+        private int[] first, body;
+        private int size;
+
+        QuadTree(int capacity) {
+            allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            ox = new double[capacity];
+            oy = new double[capacity];
+            half = new double[capacity];
+            mass = new double[capacity];
+            sx = new double[capacity];
+            sy = new double[capacity];
+            first = new int[capacity];
+            body = new int[capacity];
+        }
+
+        void build() {
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int v = 0; v < n; v++) {
+                minX = Math.min(minX, x[v]);
+                maxX = Math.max(maxX, x[v]);
+                minY = Math.min(minY, y[v]);
+                maxY = Math.max(maxY, y[v]);
+            }
+            size = 0;
+            node((minX + maxX) / 2, (minY + maxY) / 2, Math.max(maxX - minX, maxY - minY) / 2 + 1);
+            for (int v = 0; v < n; v++) insert(v, x[v], y[v]);
+        }
+
+        private int node(double cx, double cy, double h) {
+            if (size == first.length) grow();
+            int i = size++;
+            ox[i] = cx;
+            oy[i] = cy;
+            half[i] = h;
+            mass[i] = 0;
+            sx[i] = 0;
+            sy[i] = 0;
+            first[i] = -1;
+            body[i] = -1;
+            return i;
+        }
+
+        private void grow() {
+            int c = first.length * 2;
+            ox = Arrays.copyOf(ox, c);
+            oy = Arrays.copyOf(oy, c);
+            half = Arrays.copyOf(half, c);
+            mass = Arrays.copyOf(mass, c);
+            sx = Arrays.copyOf(sx, c);
+            sy = Arrays.copyOf(sy, c);
+            first = Arrays.copyOf(first, c);
+            body = Arrays.copyOf(body, c);
+        }
+
+        private int quadrant(int node, double px, double py) {
+            return (px >= ox[node] ? 1 : 0) | (py >= oy[node] ? 2 : 0);
+        }
+
+        private void insert(int v, double px, double py) {
+            int node = 0;
+            for (int depth = 0; ; depth++) {
+                mass[node]++;
+                sx[node] += px;
+                sy[node] += py;
+                if (first[node] >= 0) {
+                    node = first[node] + quadrant(node, px, py);
+                    continue;
+                }
+                if (mass[node] == 1) {
+                    body[node] = v;
+                    return;
+                }
+                if (depth >= MAX_DEPTH) return;
+                // лист занят: делим ячейку и опускаем прежнюю вершину на уровень ниже
+                int b = body[node];
+                body[node] = -1;
+                double h = half[node] / 2;
+                int c = node(ox[node] - h, oy[node] - h, h);
+                node(ox[node] + h, oy[node] - h, h);
+                node(ox[node] - h, oy[node] + h, h);
+                node(ox[node] + h, oy[node] + h, h);
+                first[node] = c;
+                int q = c + quadrant(node, x[b], y[b]);
+                mass[q] = 1;
+                sx[q] = x[b];
+                sy[q] = y[b];
+                body[q] = b;
+                node = c + quadrant(node, px, py);
+            }
+        }
+
+        /*
+         Сила отталкивания вершины v в точке (px, py) в out[0], out[1]; stack и out —
+         свои у каждого куска. Ячейка, содержащая саму точку, всегда раскрывается,
+         поэтому вершина не отталкивает саму себя.
+         */
+        void repulsion(int v, double px, double py, int[] stack, double[] out) {
+            double ax = 0, ay = 0;
+            int sp = 0;
+            stack[sp++] = 0;
+            while (sp > 0) {
+                int node = stack[--sp];
+                double m = mass[node];
+                if (m == 0) continue;
+                int c = first[node];
+                double h = half[node];
+                boolean inside = Math.abs(px - ox[node]) <= h && Math.abs(py - oy[node]) <= h;
+                if (c >= 0) {
+                    double dx = px - sx[node] / m, dy = py - sy[node] / m;
+                    double d2 = dx * dx + dy * dy;
+                    if (inside || 4 * h * h >= THETA * THETA * d2) {
+                        stack[sp++] = c;
+                        stack[sp++] = c + 1;
+                        stack[sp++] = c + 2;
+                        stack[sp++] = c + 3;
+                        continue;
+                    }
+                    double f = k2 * m / d2;
+                    ax += dx * f;
+                    ay += dy * f;
+                    continue;
+                }
+                double mx = sx[node], my = sy[node];
+                if (body[node] == v || (m > 1 && inside)) {
+                    // лист со своей вершиной: остальные точки листа без неё
+                    m -= 1;
+                    if (m == 0) continue;
+                    mx -= px;
+                    my -= py;
+                }
+                double dx = px - mx / m, dy = py - my / m;
+                double d2 = dx * dx + dy * dy;
+                if (d2 < 1e-6) {
+                    // совпадающие точки: расталкиваем в направлении, зависящем от номера вершины
+                    double a = v * 2.399963229728653;
+                    ax += Math.cos(a) * k * m;
+                    ay += Math.sin(a) * k * m;
+                    continue;
+                }
+                double f = k2 * m / d2;
+                ax += dx * f;
+                ay += dy * f;
+            }
+            out[0] = ax;
+            out[1] = ay;
+        }
+    }
+}
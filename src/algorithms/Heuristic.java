@@ -0,0 +1,31 @@
+package algorithms;
+
+import graph.CsrGraph;
+
+/*
+ Нижняя оценка расстояния от вершины v до цели target для A*.
+ Оценка должна быть допустимой (не больше настоящего расстояния) и согласованной
+ (h(u) <= w(u, v) + h(v) для каждого ребра), иначе A* может вернуть не кратчайший путь.
+ */
+public interface Heuristic {
+    long estimate(int v, int target);
+
+    // нулевая оценка: A* вырождается в обычный Дейкстру
+    Heuristic ZERO = (v, target) -> 0;
+
+    /*
+     Евклидово расстояние по координатам снимка, умноженное на scale = min(w / длина ребра)
+     по всем рёбрам. С таким множителем оценка согласована при любых весах, а если веса
+     пропорциональны длинам, она совпадает с "прямой" до цели.
+     Снимок без координат — ZERO. Множитель считается один раз на снимок
+     (CsrGraph.minWeightPerLength), поэтому создание эвристики — O(1).
+     */
+    static Heuristic euclidean(CsrGraph<?> g) {
+        if (!g.hasCoordinates() || g.edgeCount() == 0) return ZERO;
+        double scale = g.minWeightPerLength();
+        if (!(scale > 0) || scale == Double.POSITIVE_INFINITY) return ZERO;
+        // запас на погрешность double; округление вниз сохраняет согласованность для целых весов
+        double k = scale * (1 - 1e-9);
+        return (v, target) -> (long) (k * Math.hypot(g.x(v) - g.x(target), g.y(v) - g.y(target)));
+    }
+}
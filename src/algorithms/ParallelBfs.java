@@ -0,0 +1,220 @@
+package algorithms;
+
+import ds.AtomicBitSet;
+import ds.BitSet;
+import ds.IntArrayList;
+import graph.CsrGraph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ Поуровневый параллельный BFS с переключением направления (direction-optimizing, Beamer et al.).
+ - top-down: фронт делится на куски, каждый кусок обходит исходящие рёбра своих вершин
+   и захватывает новых соседей атомарной установкой бита в visited;
+ - bottom-up: когда фронт "тяжёлый" (рёбер фронта больше, чем mu / ALPHA), каждая
+   непосещённая вершина сама ищет родителя среди входящих соседей во фронте;
+   обратно в top-down — когда фронт снова мал (меньше n / BETA вершин).
+ Графы меньше MIN_PARALLEL_VERTICES и маленькие фронты обходятся последовательно,
+ в этом случае порядок посещения совпадает с классическим BFS на очереди.
+ */
+public class ParallelBfs {
+    static final int MIN_PARALLEL_VERTICES = 1 << 14;
+    // вершин фронта на одну подзадачу top-down / вершин графа на подзадачу bottom-up (кратно 64)
+    static final int TOP_DOWN_CHUNK = 1024;
+    static final int BOTTOM_UP_CHUNK = 4096;
+    static final int ALPHA = 14;
+    static final int BETA = 24;
+
+    private static final ParallelBfs SHARED = new ParallelBfs(ForkJoinPool.commonPool());
+
+    private final ForkJoinPool pool;
+
+    public ParallelBfs(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // экземпляр на общем пуле fork/join
+    public static ParallelBfs shared() {
+        return SHARED;
+    }
+
+    public <V> BfsResult<V> run(CsrGraph<V> g, int source) {
+        return run(g, source, RunMonitor.NONE);
+    }
+
+    public <V> BfsResult<V> run(CsrGraph<V> g, int source, RunMonitor monitor) {
+        monitor = RunMonitor.orNone(monitor);
+        int n = g.vertexCount();
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, BfsResult.UNREACHED);
+        Arrays.fill(parent, -1);
+        int[] order = new int[n];
+        if (source < 0 || source >= n) return new BfsResult<>(g, source, dist, parent, order, 0, 0);
+
+        AlgorithmMetrics.Probe probe = AlgorithmMetrics.start("bfs");
+        boolean parallel = n >= MIN_PARALLEL_VERTICES && pool.getParallelism() > 1;
+        Level s = new Level(g, dist, parent, order, parallel);
+        s.visited.trySet(source);
+        dist[source] = 0;
+        order[0] = source;
+        s.hi = 1;
+        s.frontierEdges = g.degree(source);
+        s.unexploredEdges = g.edgeCount() - g.degree(source);
+
+        boolean bottomUp = false;
+        int level = 0;
+        long scanned = 0;
+        int peak = 0;
+        while (s.lo < s.hi) {
+            int frontier = s.hi - s.lo;
+            if (frontier > peak) peak = frontier;
+            if (parallel) {
+                if (!bottomUp && s.frontierEdges > s.unexploredEdges / ALPHA) bottomUp = true;
+                else if (bottomUp && frontier < n / BETA) bottomUp = false;
+            }
+
+            // top-down просматривает все рёбра фронта, bottom-up считает проверенные рёбра сам
+            if (bottomUp) {
+                scanned += s.bottomUp(pool, level);
+            } else {
+                scanned += s.frontierEdges;
+                if (parallel && frontier > TOP_DOWN_CHUNK) s.topDown(pool, level);
+                else s.topDownSequential(level, monitor);
+            }
+            level++;
+            monitor.checkpoint(s.hi);
+        }
+        if (probe != null) probe.finish(s.hi, scanned, s.hi - 1, -1, -1, peak);
+        return new BfsResult<>(g, source, dist, parent, order, s.hi, level);
+    }
+
+    // состояние обхода: order[lo, hi) — текущий фронт, следующий дописывается после hi
+    private static final class Level {
+        final int n;
+        final int[] offsets;
+        final int[] targets;
+        final int[] inOffsets;
+        final int[] inSources;
+        final int[] dist;
+        final int[] parent;
+        final int[] order;
+        final AtomicBitSet visited;
+        BitSet frontierBits;
+        int lo, hi;
+        long frontierEdges;    // сумма исходящих степеней фронта
+        long unexploredEdges;  // сумма степеней ещё не посещённых вершин
+
+        Level(CsrGraph<?> g, int[] dist, int[] parent, int[] order, boolean bottomUpAllowed) {
+            n = g.vertexCount();
+            offsets = g.offsets();
+            targets = g.targets();
+            // входящие рёбра нужны только bottom-up; у неориентированного графа они совпадают с исходящими
+            boolean reverse = bottomUpAllowed && g.isDirected();
+            inOffsets = reverse ? g.reverseOffsets() : offsets;
+            inSources = reverse ? g.reverseSources() : targets;
+            this.dist = dist;
+            this.parent = parent;
+            this.order = order;
+            visited = new AtomicBitSet(n);
+        }
+
+        void topDownSequential(int level, RunMonitor monitor) {
+            int tail = hi;
+            long edges = 0;
+            for (int i = lo; i < hi; i++) {
+                int v = order[i];
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int u = targets[e];
+                    if (!visited.trySet(u)) continue;
+                    dist[u] = level + 1;
+                    parent[u] = v;
+                    order[tail++] = u;
+                    edges += offsets[u + 1] - offsets[u];
+                    if ((tail & RunMonitor.CHECK_MASK) == 0) monitor.checkpoint(tail);
+                }
+            }
+            advance(tail, edges);
+        }
+
+        void topDown(ForkJoinPool pool, int level) {
+            int chunks = (hi - lo + TOP_DOWN_CHUNK - 1) / TOP_DOWN_CHUNK;
+            IntArrayList[] found = new IntArrayList[chunks];
+            pool.invoke(new ChunkTask(0, chunks, c -> {
+                IntArrayList local = new IntArrayList();
+                int end = Math.min(hi, lo + (c + 1) * TOP_DOWN_CHUNK);
+                for (int i = lo + c * TOP_DOWN_CHUNK; i < end; i++) {
+                    int v = order[i];
+                    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                        int u = targets[e];
+                        if (!visited.trySet(u)) continue;
+                        dist[u] = level + 1;
+                        parent[u] = v;
+                        local.add(u);
+                    }
+                }
+                found[c] = local;
+            }));
+            concat(found);
+        }
+
+        // возвращает число проверенных входящих рёбер
+        long bottomUp(ForkJoinPool pool, int level) {
+            if (frontierBits == null) frontierBits = new BitSet(n);
+            else frontierBits.clearAll();
+            for (int i = lo; i < hi; i++) frontierBits.set(order[i]);
+            BitSet front = frontierBits;
+            int chunks = (n + BOTTOM_UP_CHUNK - 1) / BOTTOM_UP_CHUNK;
+            IntArrayList[] found = new IntArrayList[chunks];
+            long[] checked = new long[chunks];
+            pool.invoke(new ChunkTask(0, chunks, c -> {
+                IntArrayList local = new IntArrayList();
+                long edges = 0;
+                int end = Math.min(n, (c + 1) * BOTTOM_UP_CHUNK);
+                for (int v = c * BOTTOM_UP_CHUNK; v < end; v++) {
+                    if (visited.get(v)) continue;
+                    int e = inOffsets[v];
+                    for (; e < inOffsets[v + 1]; e++) {
+                        int p = inSources[e];
+                        if (!front.get(p)) continue;
+                        // куски выровнены по 64 вершинам, слово visited принадлежит одной подзадаче
+                        visited.set(v);
+                        dist[v] = level + 1;
+                        parent[v] = p;
+                        local.add(v);
+                        e++;
+                        break;
+                    }
+                    edges += e - inOffsets[v];
+                }
+                found[c] = local;
+                checked[c] = edges;
+            }));
+            concat(found);
+            long total = 0;
+            for (long x : checked) total += x;
+            return total;
+        }
+
+        // склейка найденных вершин в порядке кусков (детерминированно для данного разбиения)
+        private void concat(IntArrayList[] found) {
+            int tail = hi;
+            long edges = 0;
+            for (IntArrayList part : found) {
+                int[] raw = part.rawArray();
+                System.arraycopy(raw, 0, order, tail, part.size());
+                for (int i = 0; i < part.size(); i++) edges += offsets[raw[i] + 1] - offsets[raw[i]];
+                tail += part.size();
+            }
+            advance(tail, edges);
+        }
+
+        private void advance(int tail, long edges) {
+            lo = hi;
+            hi = tail;
+            frontierEdges = edges;
+            unexploredEdges -= edges;
+        }
+    }
+}
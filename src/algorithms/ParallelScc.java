@@ -0,0 +1,428 @@
+package algorithms;
+
+import ds.IntArrayList;
+import graph.CsrGraph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/*
+ Параллельный поиск компонент сильной связности (forward-backward с обрезкой).
+ 1) trim: вершины без входящих или без исходящих рёбер внутри графа — отдельные
+    компоненты; несколько раундов, каждый раунд параллельно по кускам вершин;
+ 2) forward-backward: для части графа (все вершины одного "цвета") из опорной вершины
+    считаются прямая и обратная достижимость, их пересечение — компонента опорной вершины,
+    а три оставшиеся части (только fw, только bw, остальное) независимы и обрабатываются
+    параллельно как отдельные задачи fork/join;
+ 3) части меньше SEQUENTIAL_THRESHOLD досчитываются итеративным Тарьяном.
+ Разбиение на компоненты совпадает с SccEngine, нумерация — топологическая (см. SccResult.fromComponentMap).
+ */
+public class ParallelScc {
+    static final int SEQUENTIAL_THRESHOLD = 4096;
+    static final int TRIM_ROUNDS = 3;
+    // вершин на подзадачу при обрезке и при расширении большого фронта
+    static final int CHUNK = 1024;
+
+    private static final int DONE = -1;
+
+    private static final ParallelScc SHARED = new ParallelScc(ForkJoinPool.commonPool());
+
+    private final ForkJoinPool pool;
+
+    public ParallelScc(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // экземпляр на общем пуле fork/join
+    public static ParallelScc shared() {
+        return SHARED;
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    public <V> SccResult<V> run(CsrGraph<V> g) {
+        return run(g, RunMonitor.NONE);
+    }
+
+    public <V> SccResult<V> run(CsrGraph<V> g, RunMonitor monitor) {
+        AlgorithmMetrics.Probe probe = AlgorithmMetrics.start("parallel scc");
+        Shared s = new Shared(g, RunMonitor.orNone(monitor));
+        int n = s.n;
+        s.trim(pool);
+
+        IntArrayList rest = new IntArrayList();
+        for (int v = 0; v < n; v++) if (s.color[v] == 0) rest.add(v);
+        if (rest.size() > 0) pool.invoke(new Split(s, 0, rest.toArray()));
+        // рёбра просматриваются многократно в разных частях и не считаются; фронт — вершины после обрезки
+        if (probe != null) probe.finish(n, -1, -1, -1, -1, rest.size());
+        return SccResult.fromComponentMap(g, s.comp, s.components.get());
+    }
+
+    // общее состояние запуска; каждая вершина в любой момент принадлежит одной задаче
+    private static final class Shared {
+        final int n;
+        final int[] offsets, targets;
+        final int[] inOffsets, inSources;
+        final RunMonitor monitor;
+        // номер части, в которой лежит вершина; DONE — компонента уже найдена
+        final int[] color;
+        final int[] comp;
+        // отметки достижимости хранят номер части, поэтому их не нужно очищать
+        final AtomicIntegerArray fw, bw;
+        final int[] local;  // локальный номер вершины в Тарьяне своей части
+        final AtomicInteger components = new AtomicInteger();
+        final AtomicInteger parts = new AtomicInteger(1);
+        final AtomicInteger assigned = new AtomicInteger();
+
+        Shared(CsrGraph<?> g, RunMonitor monitor) {
+            n = g.vertexCount();
+            offsets = g.offsets();
+            targets = g.targets();
+            inOffsets = g.isDirected() ? g.reverseOffsets() : offsets;
+            inSources = g.isDirected() ? g.reverseSources() : targets;
+            this.monitor = monitor;
+            color = new int[n];
+            comp = new int[n];
+            fw = new AtomicIntegerArray(n);
+            bw = new AtomicIntegerArray(n);
+            local = new int[n];
+            // отметка -1 не совпадает ни с одним номером части
+            for (int v = 0; v < n; v++) {
+                fw.setPlain(v, -1);
+                bw.setPlain(v, -1);
+            }
+        }
+
+        // вершина с нулевой входящей или исходящей степенью внутри части 0 — тривиальная компонента
+        void trim(ForkJoinPool pool) {
+            int chunks = (n + CHUNK - 1) / CHUNK;
+            for (int round = 0; round < TRIM_ROUNDS; round++) {
+                IntArrayList[] found = new IntArrayList[chunks];
+                pool.invoke(new ChunkTask(0, chunks, c -> {
+                    IntArrayList trivial = new IntArrayList();
+                    int end = Math.min(n, (c + 1) * CHUNK);
+                    for (int v = c * CHUNK; v < end; v++)
+                        if (color[v] == 0 && (!hasLive(offsets, targets, v) || !hasLive(inOffsets, inSources, v)))
+                            trivial.add(v);
+                    found[c] = trivial;
+                }));
+                int total = 0;
+                for (IntArrayList trivial : found) {
+                    for (int i = 0; i < trivial.size(); i++) single(trivial.get(i));
+                    total += trivial.size();
+                }
+                monitor.checkpoint(assigned.get());
+                if (total == 0) break;
+            }
+        }
+
+        private boolean hasLive(int[] offs, int[] adj, int v) {
+            for (int e = offs[v]; e < offs[v + 1]; e++) {
+                int u = adj[e];
+                if (u != v && color[u] == 0) return true;
+            }
+            return false;
+        }
+
+        private void single(int v) {
+            color[v] = DONE;
+            comp[v] = components.getAndIncrement();
+            assigned.incrementAndGet();
+        }
+    }
+
+    /*
+     Задача для одной части: вершины verts, у всех color == part.
+     Соседи из других частей пропускаются: их цвет никогда не бывает равен part.
+     */
+    @SuppressWarnings("serial")
+    private static final class Split extends RecursiveAction {
+        private final Shared s;
+        private final int part;
+        private final int[] verts;
+
+        Split(Shared s, int part, int[] verts) {
+            this.s = s;
+            this.part = part;
+            this.verts = verts;
+        }
+
+        @Override
+        protected void compute() {
+            int part = this.part;
+            int[] verts = this.verts;
+            while (true) {
+                // часть 0 уже обрезана параллельно, остальные — до неподвижной точки
+                if (part != 0) verts = trim(part, verts);
+                if (verts.length == 0) return;
+                if (verts.length <= SEQUENTIAL_THRESHOLD) {
+                    tarjan(part, verts);
+                    return;
+                }
+                int pivot = pivot(verts);
+                invokeAll(new Reach(s, part, pivot, s.offsets, s.targets, s.fw),
+                        new Reach(s, part, pivot, s.inOffsets, s.inSources, s.bw));
+
+                // новые номера частей выдаются заново, поэтому старые отметки fw/bw с ними не совпадут
+                int fwPart = s.parts.getAndIncrement();
+                int bwPart = s.parts.getAndIncrement();
+                int restPart = s.parts.getAndIncrement();
+                IntArrayList fwOnly = new IntArrayList(), bwOnly = new IntArrayList(), rest = new IntArrayList();
+                int id = s.components.getAndIncrement();
+                int found = 0;
+                for (int v : verts) {
+                    boolean f = s.fw.getPlain(v) == part, b = s.bw.getPlain(v) == part;
+                    if (f && b) {
+                        s.color[v] = DONE;
+                        s.comp[v] = id;
+                        found++;
+                    } else if (f) {
+                        s.color[v] = fwPart;
+                        fwOnly.add(v);
+                    } else if (b) {
+                        s.color[v] = bwPart;
+                        bwOnly.add(v);
+                    } else {
+                        s.color[v] = restPart;
+                        rest.add(v);
+                    }
+                }
+                s.monitor.checkpoint(s.assigned.addAndGet(found));
+
+                IntArrayList[] lists = {fwOnly, bwOnly, rest};
+                int[] ids = {fwPart, bwPart, restPart};
+                Split[] tasks = new Split[3];
+                int k = 0;
+                for (int i = 0; i < 3; i++)
+                    if (lists[i].size() > 0) tasks[k++] = new Split(s, ids[i], lists[i].toArray());
+                if (k == 0) return;
+                if (k == 1) {
+                    // единственную часть досчитываем в этом же цикле, без роста стека
+                    part = tasks[0].part;
+                    verts = tasks[0].verts;
+                    continue;
+                }
+                if (k == 2) invokeAll(tasks[0], tasks[1]);
+                else invokeAll(tasks[0], tasks[1], tasks[2]);
+                return;
+            }
+        }
+
+        /*
+         Обрезка до неподвижной точки: вершины без входящих или исходящих рёбер внутри части
+         снимаются как отдельные компоненты, их соседям уменьшаются степени (как в алгоритме Кана).
+         Возвращает оставшиеся вершины.
+         */
+        private int[] trim(int part, int[] verts) {
+            int m = verts.length;
+            int[] color = s.color, local = s.local;
+            for (int i = 0; i < m; i++) local[verts[i]] = i;
+            int[] out = new int[m], in = new int[m];
+            for (int i = 0; i < m; i++) {
+                out[i] = liveDegree(part, s.offsets, s.targets, verts[i]);
+                in[i] = liveDegree(part, s.inOffsets, s.inSources, verts[i]);
+            }
+            int[] queue = new int[m];
+            boolean[] queued = new boolean[m];
+            int head = 0, tail = 0;
+            for (int i = 0; i < m; i++)
+                if (out[i] == 0 || in[i] == 0) {
+                    queue[tail++] = i;
+                    queued[i] = true;
+                }
+            if (tail == 0) return verts;
+
+            while (head < tail) {
+                int v = verts[queue[head++]];
+                color[v] = DONE;
+                s.comp[v] = s.components.getAndIncrement();
+                for (int e = s.offsets[v]; e < s.offsets[v + 1]; e++) {
+                    int u = s.targets[e];
+                    if (color[u] != part) continue;
+                    int lu = local[u];
+                    if (--in[lu] == 0 && !queued[lu]) {
+                        queue[tail++] = lu;
+                        queued[lu] = true;
+                    }
+                }
+                for (int e = s.inOffsets[v]; e < s.inOffsets[v + 1]; e++) {
+                    int u = s.inSources[e];
+                    if (color[u] != part) continue;
+                    int lu = local[u];
+                    if (--out[lu] == 0 && !queued[lu]) {
+                        queue[tail++] = lu;
+                        queued[lu] = true;
+                    }
+                }
+            }
+            s.monitor.checkpoint(s.assigned.addAndGet(tail));
+
+            int[] left = new int[m - tail];
+            int k = 0;
+            for (int i = 0; i < m; i++) if (!queued[i]) left[k++] = verts[i];
+            return left;
+        }
+
+        private int liveDegree(int part, int[] offs, int[] adj, int v) {
+            int d = 0;
+            for (int e = offs[v]; e < offs[v + 1]; e++) {
+                int u = adj[e];
+                if (u != v && s.color[u] == part) d++;
+            }
+            return d;
+        }
+
+        // опорная вершина — с наибольшим произведением степеней (скорее всего в большой компоненте)
+        private int pivot(int[] verts) {
+            int best = verts[0];
+            long bestScore = -1;
+            for (int v : verts) {
+                long score = (long) (s.offsets[v + 1] - s.offsets[v]) * (s.inOffsets[v + 1] - s.inOffsets[v]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = v;
+                }
+            }
+            return best;
+        }
+
+        // итеративный Тарьян по вершинам части (как в SccEngine, но с локальными номерами)
+        private void tarjan(int part, int[] verts) {
+            int m = verts.length;
+            int[] offsets = s.offsets, targets = s.targets, color = s.color, local = s.local;
+            for (int i = 0; i < m; i++) local[verts[i]] = i;
+            int[] index = new int[m];
+            int[] low = new int[m];
+            boolean[] onStack = new boolean[m];
+            int[] callStack = new int[m];
+            int[] cursor = new int[m];
+            int[] sccStack = new int[m];
+            int sccTop = 0, counter = 1;  // index == 0 — не посещена
+
+            for (int si = 0; si < m; si++) {
+                if (index[si] != 0) continue;
+                int top = 0;
+                callStack[0] = si;
+                cursor[0] = offsets[verts[si]];
+                index[si] = low[si] = counter++;
+                sccStack[sccTop++] = si;
+                onStack[si] = true;
+
+                while (top >= 0) {
+                    int v = callStack[top];
+                    int gv = verts[v];
+                    if (cursor[top] < offsets[gv + 1]) {
+                        int gu = targets[cursor[top]++];
+                        if (color[gu] != part) continue;
+                        int u = local[gu];
+                        if (index[u] == 0) {
+                            index[u] = low[u] = counter++;
+                            sccStack[sccTop++] = u;
+                            onStack[u] = true;
+                            callStack[++top] = u;
+                            cursor[top] = offsets[gu];
+                        } else if (onStack[u] && index[u] < low[v]) {
+                            low[v] = index[u];
+                        }
+                        continue;
+                    }
+
+                    if (low[v] == index[v]) {
+                        int id = s.components.getAndIncrement();
+                        int u;
+                        do {
+                            u = sccStack[--sccTop];
+                            onStack[u] = false;
+                            s.comp[verts[u]] = id;
+                        } while (u != v);
+                    }
+                    top--;
+                    if (top >= 0) {
+                        int p = callStack[top];
+                        if (low[v] < low[p]) low[p] = low[v];
+                    }
+                }
+            }
+            for (int v : verts) color[v] = DONE;
+            s.monitor.checkpoint(s.assigned.addAndGet(m));
+        }
+    }
+
+    /*
+     Достижимость из pivot внутри части по заданному направлению рёбер.
+     Вершина отмечается номером части (mark[v] = part); фронт больше CHUNK расширяется
+     параллельно, захват вершины — compareAndSet.
+     */
+    @SuppressWarnings("serial")
+    private static final class Reach extends RecursiveAction {
+        private final Shared s;
+        private final int part, pivot;
+        private final int[] offs, adj;
+        private final AtomicIntegerArray mark;
+
+        Reach(Shared s, int part, int pivot, int[] offs, int[] adj, AtomicIntegerArray mark) {
+            this.s = s;
+            this.part = part;
+            this.pivot = pivot;
+            this.offs = offs;
+            this.adj = adj;
+            this.mark = mark;
+        }
+
+        @Override
+        protected void compute() {
+            int[] color = s.color;
+            IntArrayList frontier = new IntArrayList();
+            frontier.add(pivot);
+            mark.set(pivot, part);
+            boolean parallel = getPool().getParallelism() > 1;
+            while (frontier.size() > 0) {
+                IntArrayList next;
+                if (parallel && frontier.size() > CHUNK) {
+                    next = expandParallel(frontier);
+                } else {
+                    next = new IntArrayList();
+                    for (int i = 0; i < frontier.size(); i++) {
+                        int v = frontier.get(i);
+                        for (int e = offs[v]; e < offs[v + 1]; e++) {
+                            int u = adj[e];
+                            if (color[u] != part || mark.getPlain(u) == part) continue;
+                            mark.setPlain(u, part);
+                            next.add(u);
+                        }
+                    }
+                }
+                frontier = next;
+                if (s.monitor.isCancelled()) s.monitor.checkpoint(s.assigned.get());
+            }
+        }
+
+        private IntArrayList expandParallel(IntArrayList frontier) {
+            int[] front = frontier.rawArray();
+            int size = frontier.size();
+            int chunks = (size + CHUNK - 1) / CHUNK;
+            IntArrayList[] found = new IntArrayList[chunks];
+            int[] color = s.color;
+            new ChunkTask(0, chunks, c -> {
+                IntArrayList out = new IntArrayList();
+                int end = Math.min(size, (c + 1) * CHUNK);
+                for (int i = c * CHUNK; i < end; i++) {
+                    int v = front[i];
+                    for (int e = offs[v]; e < offs[v + 1]; e++) {
+                        int u = adj[e];
+                        if (color[u] != part || mark.get(u) == part) continue;
+                        if (mark.getAndSet(u, part) != part) out.add(u);
+                    }
+                }
+                found[c] = out;
+            }).invoke();
+            IntArrayList next = new IntArrayList();
+            for (IntArrayList list : found) next.addAll(list.rawArray(), 0, list.size());
+            return next;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package algorithms;
+
+/*
+ Накопленная статистика одного алгоритма (снимок для JMX).
+ Гистограммы логарифмические: корзина i — запуски со значением в [2^i, 2^(i+1)),
+ в корзине 0 — ещё и значение 0. Время — в микросекундах, размер — в вершинах.
+ */
+public final class RunHistogram {
+    private final String algorithm;
+    private final long runs;
+    private final long totalWallNanos;
+    private final long totalVertices;
+    private final long totalEdgesScanned;
+    private final long[] wallMicrosBuckets;
+    private final long[] vertexBuckets;
+
+    RunHistogram(String algorithm, long runs, long totalWallNanos, long totalVertices, long totalEdgesScanned,
+                 long[] wallMicrosBuckets, long[] vertexBuckets) {
+        this.algorithm = algorithm;
+        this.runs = runs;
+        this.totalWallNanos = totalWallNanos;
+        this.totalVertices = totalVertices;
+        this.totalEdgesScanned = totalEdgesScanned;
+        this.wallMicrosBuckets = wallMicrosBuckets;
+        this.vertexBuckets = vertexBuckets;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public long getTotalWallNanos() {
+        return totalWallNanos;
+    }
+
+    public long getTotalVertices() {
+        return totalVertices;
+    }
+
+    public long getTotalEdgesScanned() {
+        return totalEdgesScanned;
+    }
+
+    public long[] getWallMicrosBuckets() {
+        return wallMicrosBuckets.clone();
+    }
+
+    public long[] getVertexBuckets() {
+        return vertexBuckets.clone();
+    }
+}
@@ -0,0 +1,45 @@
+package algorithms;
+
+import java.util.concurrent.CancellationException;
+
+/*
+ Управление запуском алгоритма из другого потока: отмена и счётчик прогресса.
+ Алгоритм периодически (раз в CHECK_MASK + 1 единиц работы) вызывает checkpoint,
+ который публикует число обработанных вершин и бросает CancellationException после cancel().
+ */
+public class RunMonitor {
+    // маска для проверки "раз в 1024 шага": (work & CHECK_MASK) == 0
+    public static final int CHECK_MASK = 1023;
+
+    // монитор по умолчанию: отмена невозможна
+    public static final RunMonitor NONE = new RunMonitor() {
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private volatile boolean cancelled;
+    private volatile long progress;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // число обработанных (посещённых/зафиксированных) вершин на момент последней проверки
+    public long progress() {
+        return progress;
+    }
+
+    public void checkpoint(long done) {
+        progress = done;
+        if (cancelled) throw new CancellationException("алгоритм прерван");
+    }
+
+    static RunMonitor orNone(RunMonitor m) {
+        return m != null ? m : NONE;
+    }
+}
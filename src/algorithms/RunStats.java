@@ -0,0 +1,89 @@
+package algorithms;
+
+/*
+ Метрики одного запуска алгоритма (см. AlgorithmMetrics).
+ Счётчик, который алгоритм не ведёт, равен -1 (например, просмотренные рёбра у параллельных SCC).
+ vertices — посещённые (обходы) или извлечённые из кучи (поиски путей) вершины;
+ edgesRelaxed — рёбра, улучшившие расстояние или открывшие новую вершину;
+ peakFrontier — наибольший размер кучи, очереди, фронта или стека за запуск.
+ allocatedBytes — память, выделенная вызывающим потоком (без потоков пула), -1 — недоступно.
+ */
+public final class RunStats {
+    private final String algorithm;
+    private final long vertices;
+    private final long edgesScanned;
+    private final long edgesRelaxed;
+    private final long heapPushes;
+    private final long decreaseKeys;
+    private final long peakFrontier;
+    private final long wallNanos;
+    private final long allocatedBytes;
+
+    RunStats(String algorithm, long vertices, long edgesScanned, long edgesRelaxed, long heapPushes,
+             long decreaseKeys, long peakFrontier, long wallNanos, long allocatedBytes) {
+        this.algorithm = algorithm;
+        this.vertices = vertices;
+        this.edgesScanned = edgesScanned;
+        this.edgesRelaxed = edgesRelaxed;
+        this.heapPushes = heapPushes;
+        this.decreaseKeys = decreaseKeys;
+        this.peakFrontier = peakFrontier;
+        this.wallNanos = wallNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    // геттеры в стиле JavaBeans: по ним MXBean строит CompositeData
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public long getVertices() {
+        return vertices;
+    }
+
+    public long getEdgesScanned() {
+        return edgesScanned;
+    }
+
+    public long getEdgesRelaxed() {
+        return edgesRelaxed;
+    }
+
+    public long getHeapPushes() {
+        return heapPushes;
+    }
+
+    public long getDecreaseKeys() {
+        return decreaseKeys;
+    }
+
+    public long getPeakFrontier() {
+        return peakFrontier;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(algorithm).append(": ");
+        sb.append(String.format("%.3f мс", wallNanos / 1e6));
+        append(sb, "вершин", vertices);
+        append(sb, "рёбер просмотрено", edgesScanned);
+        append(sb, "релаксаций", edgesRelaxed);
+        append(sb, "вставок в кучу", heapPushes);
+        append(sb, "decrease-key", decreaseKeys);
+        append(sb, "пик фронта", peakFrontier);
+        if (allocatedBytes >= 0) sb.append(", выделено ").append(allocatedBytes / 1024).append(" КБ");
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, String name, long value) {
+        if (value >= 0) sb.append(", ").append(name).append(' ').append(value);
+    }
+}
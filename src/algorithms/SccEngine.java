@@ -0,0 +1,107 @@
+package algorithms;
+
+import ds.BitSet;
+import graph.CsrGraph;
+
+import java.util.Arrays;
+
+/*
+ Поиск компонент сильной связности итеративным алгоритмом Тарьяна за O(V + E).
+ Работает только по прямому CSR (обратные рёбра не нужны), без рекурсии,
+ поэтому не переполняет стек на длинных цепочках.
+ */
+public class SccEngine {
+
+    public static <V> SccResult<V> run(CsrGraph<V> g) {
+        return run(g, RunMonitor.NONE);
+    }
+
+    public static <V> SccResult<V> run(CsrGraph<V> g, RunMonitor monitor) {
+        monitor = RunMonitor.orNone(monitor);
+        int n = g.vertexCount();
+        int[] offsets = g.offsets();
+        int[] targets = g.targets();
+
+        int[] index = new int[n];     // порядковый номер входа, -1 — не посещена
+        int[] low = new int[n];
+        BitSet onStack = new BitSet(n);
+        int[] callStack = new int[n];
+        int[] cursor = new int[n];
+        int[] sccStack = new int[n];
+        int sccTop = 0;
+
+        // компоненты в порядке нахождения (обратный топологический)
+        int[] members = new int[n];
+        int[] ends = new int[n + 1];
+        int count = 0;
+        int filled = 0;
+        int counter = 0;
+
+        AlgorithmMetrics.Probe probe = AlgorithmMetrics.start("scc");
+        int peak = 0;
+        Arrays.fill(index, -1);
+        for (int s = 0; s < n; s++) {
+            if (index[s] != -1) continue;
+            int top = 0;
+            callStack[0] = s;
+            cursor[0] = offsets[s];
+            index[s] = low[s] = counter++;
+            sccStack[sccTop++] = s;
+            onStack.set(s);
+
+            while (top >= 0) {
+                int v = callStack[top];
+                if (cursor[top] < offsets[v + 1]) {
+                    int u = targets[cursor[top]++];
+                    if (index[u] == -1) {
+                        if ((counter & RunMonitor.CHECK_MASK) == 0) monitor.checkpoint(counter);
+                        index[u] = low[u] = counter++;
+                        sccStack[sccTop++] = u;
+                        onStack.set(u);
+                        callStack[++top] = u;
+                        cursor[top] = offsets[u];
+                        if (top > peak) peak = top;
+                    } else if (onStack.get(u) && index[u] < low[v]) {
+                        low[v] = index[u];
+                    }
+                    continue;
+                }
+
+                // все рёбра v обработаны
+                if (low[v] == index[v]) {
+                    int u;
+                    do {
+                        u = sccStack[--sccTop];
+                        onStack.clear(u);
+                        members[filled++] = u;
+                    } while (u != v);
+                    ends[++count] = filled;
+                }
+                top--;
+                if (top >= 0) {
+                    int p = callStack[top];
+                    if (low[v] < low[p]) low[p] = low[v];
+                }
+            }
+        }
+
+        // каждое ребро просмотрено один раз
+        if (probe != null) probe.finish(n, offsets[n], -1, -1, -1, n == 0 ? 0 : peak + 1);
+
+        // перенумеровываем компоненты в топологическом порядке конденсации
+        int[] componentOf = new int[n];
+        int[] compOffsets = new int[count + 1];
+        int[] ordered = new int[n];
+        int pos = 0;
+        for (int c = 0; c < count; c++) {
+            int t = count - 1 - c;
+            for (int i = ends[t]; i < ends[t + 1]; i++) {
+                int v = members[i];
+                componentOf[v] = c;
+                ordered[pos++] = v;
+            }
+            compOffsets[c + 1] = pos;
+        }
+        return new SccResult<>(g, count, componentOf, compOffsets, ordered);
+    }
+}
@@ -0,0 +1,193 @@
+package algorithms;
+
+import graph.CsrGraph;
+
+import java.util.Arrays;
+
+/*
+ Компоненты сильной связности CSR-снимка.
+ Компоненты пронумерованы в топологическом порядке графа конденсации:
+ каждое ребро конденсации ведёт из компоненты с меньшим номером в компоненту с большим.
+ Вершины компоненты c лежат в members() на отрезке [offsets()[c], offsets()[c + 1]).
+ */
+public class SccResult<V> {
+    private final CsrGraph<V> graph;
+    private final int count;
+    private final int[] componentOf;
+    private final int[] offsets;
+    private final int[] members;
+    private CsrGraph<Integer> condensation;
+
+    SccResult(CsrGraph<V> graph, int count, int[] componentOf, int[] offsets, int[] members) {
+        this.graph = graph;
+        this.count = count;
+        this.componentOf = componentOf;
+        this.offsets = offsets;
+        this.members = members;
+    }
+
+    /*
+     Сборка результата по произвольной нумерации компонент (raw[v] в [0, count)).
+     Компоненты перенумеровываются в топологическом порядке конденсации (Кан, O(V + E)):
+     очередь — массив, стартовые компоненты идут в порядке наименьшей вершины, поэтому
+     результат не зависит от исходной нумерации. raw переписывается.
+     */
+    static <V> SccResult<V> fromComponentMap(CsrGraph<V> g, int[] raw, int count) {
+        int n = g.vertexCount();
+        int[] offsets = g.offsets();
+        int[] targets = g.targets();
+
+        // канонические номера: по первой (наименьшей) вершине компоненты
+        int[] canon = new int[count];
+        Arrays.fill(canon, -1);
+        int seen = 0;
+        for (int v = 0; v < n; v++) {
+            if (canon[raw[v]] == -1) canon[raw[v]] = seen++;
+            raw[v] = canon[raw[v]];
+        }
+
+        // входящие степени компонент (параллельные рёбра считаются по отдельности)
+        int[] inDeg = new int[count];
+        for (int v = 0; v < n; v++)
+            for (int e = offsets[v]; e < offsets[v + 1]; e++)
+                if (raw[targets[e]] != raw[v]) inDeg[raw[targets[e]]]++;
+
+        // вершины по компонентам (подсчётом)
+        int[] start = new int[count + 1];
+        for (int v = 0; v < n; v++) start[raw[v] + 1]++;
+        for (int c = 0; c < count; c++) start[c + 1] += start[c];
+        int[] byComp = new int[n];
+        int[] fill = Arrays.copyOf(start, count);
+        for (int v = 0; v < n; v++) byComp[fill[raw[v]]++] = v;
+
+        // Кан по конденсации; ready одновременно очередь и топологический порядок
+        int[] ready = new int[count];
+        int tail = 0;
+        for (int c = 0; c < count; c++) if (inDeg[c] == 0) ready[tail++] = c;
+        int[] topo = new int[count];   // канонический номер -> топологический
+        int[] members = new int[n];
+        int[] compOffsets = new int[count + 1];
+        int next = 0, pos = 0;
+        while (next < tail) {
+            int c = ready[next];
+            topo[c] = next;
+            for (int i = start[c]; i < start[c + 1]; i++) {
+                int v = byComp[i];
+                members[pos++] = v;
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int d = raw[targets[e]];
+                    if (d != c && --inDeg[d] == 0) ready[tail++] = d;
+                }
+            }
+            compOffsets[++next] = pos;
+        }
+
+        int[] componentOf = new int[n];
+        for (int v = 0; v < n; v++) componentOf[v] = topo[raw[v]];
+        return new SccResult<>(g, count, componentOf, compOffsets, members);
+    }
+
+    // true, если разбиение вершин на компоненты совпадает (нумерация компонент может отличаться)
+    public boolean sameComponents(SccResult<?> other) {
+        if (other.count != count || other.componentOf.length != componentOf.length) return false;
+        int[] map = new int[count];
+        Arrays.fill(map, -1);
+        for (int v = 0; v < componentOf.length; v++) {
+            int a = componentOf[v], b = other.componentOf[v];
+            if (map[a] == -1) map[a] = b;
+            else if (map[a] != b) return false;
+        }
+        return true;  // при равном числе компонент отображение a -> b — биекция
+    }
+
+    public CsrGraph<V> graph() {
+        return graph;
+    }
+
+    public int componentCount() {
+        return count;
+    }
+
+    // номер компоненты вершины v
+    public int componentOf(int v) {
+        return componentOf[v];
+    }
+
+    public int[] componentMap() {
+        return componentOf;
+    }
+
+    public int[] offsets() {
+        return offsets;
+    }
+
+    public int[] members() {
+        return members;
+    }
+
+    public int componentSize(int c) {
+        return offsets[c + 1] - offsets[c];
+    }
+
+    public int[] component(int c) {
+        int[] res = new int[componentSize(c)];
+        System.arraycopy(members, offsets[c], res, 0, res.length);
+        return res;
+    }
+
+    public int[][] components() {
+        int[][] res = new int[count][];
+        for (int c = 0; c < count; c++) res[c] = component(c);
+        return res;
+    }
+
+    /*
+     Граф конденсации (DAG): вершина — номер компоненты, параллельные рёбра
+     между компонентами склеены, вес — минимальный среди них.
+     */
+    public synchronized CsrGraph<Integer> condensation() {
+        if (condensation == null) condensation = buildCondensation();
+        return condensation;
+    }
+
+    private CsrGraph<Integer> buildCondensation() {
+        int[] gOffsets = graph.offsets();
+        int[] gTargets = graph.targets();
+        int[] gWeights = graph.weights();
+
+        // lastSeen[d] == c  -> ребро c->d уже добавлено, slot[d] — его позиция
+        int[] lastSeen = new int[count];
+        int[] slot = new int[count];
+        Arrays.fill(lastSeen, -1);
+
+        int[] cOffsets = new int[count + 1];
+        int[] cTargets = new int[Math.min(graph.edgeCount(), 16)];
+        int[] cWeights = new int[cTargets.length];
+        int m = 0;
+        for (int c = 0; c < count; c++) {
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                int v = members[i];
+                for (int e = gOffsets[v]; e < gOffsets[v + 1]; e++) {
+                    int d = componentOf[gTargets[e]];
+                    if (d == c) continue;
+                    if (lastSeen[d] == c) {
+                        if (gWeights[e] < cWeights[slot[d]]) cWeights[slot[d]] = gWeights[e];
+                        continue;
+                    }
+                    if (m == cTargets.length) {
+                        cTargets = Arrays.copyOf(cTargets, Math.max(16, m * 2));
+                        cWeights = Arrays.copyOf(cWeights, Math.max(16, m * 2));
+                    }
+                    lastSeen[d] = c;
+                    slot[d] = m;
+                    cTargets[m] = d;
+                    cWeights[m++] = gWeights[e];
+                }
+            }
+            cOffsets[c + 1] = m;
+        }
+
+        // значение вершины — номер компоненты, как у снимка IntGraph: без Integer[] и индекса значений
+        return CsrGraph.ofIds(true, cOffsets, Arrays.copyOf(cTargets, m), Arrays.copyOf(cWeights, m));
+    }
+}
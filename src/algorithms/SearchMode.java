@@ -0,0 +1,8 @@
+package algorithms;
+
+/*режим поиска кратчайшего пути в DijkstraEngine*/
+public enum SearchMode {
+    DIJKSTRA,       // от источника во все стороны, останов на цели
+    A_STAR,         // Дейкстра по приведённым весам: ключ = расстояние + Heuristic.estimate
+    BIDIRECTIONAL   // встречные поиски из источника и цели (по обратным рёбрам)
+}
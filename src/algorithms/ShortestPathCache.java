@@ -0,0 +1,171 @@
+package algorithms;
+
+import graph.CsrGraph;
+import graph.Graph;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/*
+ Кэш деревьев кратчайших путей по источнику для повторяющихся запросов Дейкстры.
+ Ключ — id источника в снимке; кэш привязан к структуре графа и сбрасывается, только
+ когда приходит снимок с другими вершинами или рёбрами (CsrGraph.sameStructure: другая
+ версия Graph). Новый снимок после перемещения вершин кэш не сбрасывает.
+ Вытеснение — LRU, с ограничением и по числу деревьев, и по оценке занимаемой памяти
+ (дерево на n вершин ~ 20n байт).
+
+ Под блокировкой только поиск и вставка в таблицу; дерево при промахе считается вне её
+ и публикуется через CompletableFuture, поэтому запросы к другим источникам не ждут
+ чужого расчёта, а одновременные запросы к тому же источнику ждут один общий расчёт.
+ Возвращаемые деревья только для чтения.
+ */
+public class ShortestPathCache<V> {
+    // dist (long) + prev, reached, settled (int) на вершину
+    private static final int BYTES_PER_VERTEX = 20;
+    public static final long DEFAULT_MAX_BYTES = 256L << 20;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<Integer, CompletableFuture<ShortestPathResult<V>>> trees =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    private CsrGraph<V> snapshot;
+
+    private long hits, misses, evictions, invalidations;
+
+    public ShortestPathCache(int maxEntries) {
+        this(maxEntries, DEFAULT_MAX_BYTES);
+    }
+
+    public ShortestPathCache(int maxEntries, long maxBytes) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries < 1");
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    // дерево кратчайших путей из source для текущего состояния графа
+    public ShortestPathResult<V> tree(Graph<V> graph, V source) {
+        CsrGraph<V> g = graph.freeze();
+        return tree(g, g.indexOf(source), RunMonitor.NONE);
+    }
+
+    public ShortestPathResult<V> tree(CsrGraph<V> g, int source) {
+        return tree(g, source, RunMonitor.NONE);
+    }
+
+    /*
+     Дерево из кэша или новое (полный проход Дейкстры без раннего останова).
+     При отмене через monitor в кэш ничего не попадает; ждавшие этот расчёт
+     запросы считают дерево сами.
+     */
+    public ShortestPathResult<V> tree(CsrGraph<V> g, int source, RunMonitor monitor) {
+        if (source < 0 || source >= g.vertexCount()) return new DijkstraEngine<>(g).query(source, -1, null, monitor);
+        while (true) {
+            CompletableFuture<ShortestPathResult<V>> f;
+            boolean owner = false;
+            synchronized (this) {
+                if (snapshot == null || !snapshot.sameStructure(g)) {
+                    if (snapshot != null) invalidations++;
+                    trees.clear();
+                    snapshot = g;
+                }
+                f = trees.get(source);
+                if (f != null) {
+                    hits++;
+                } else {
+                    misses++;
+                    f = new CompletableFuture<>();
+                    trees.put(source, f);
+                    evict(g.vertexCount());
+                    owner = true;
+                }
+            }
+            if (owner) return compute(g, source, monitor, f);
+            try {
+                return f.join();
+            } catch (CancellationException | CompletionException ex) {
+                // расчёт владельца отменён — считаем сами
+                if (monitor != null && monitor.isCancelled()) throw new CancellationException();
+            }
+        }
+    }
+
+    private ShortestPathResult<V> compute(CsrGraph<V> g, int source, RunMonitor monitor,
+                                          CompletableFuture<ShortestPathResult<V>> f) {
+        ShortestPathResult<V> r;
+        try {
+            // своя куча на расчёт: другие потоки могут считать деревья одновременно
+            r = new DijkstraEngine<>(g).query(source, -1, null, monitor);
+        } catch (RuntimeException | Error ex) {
+            synchronized (this) {
+                trees.remove(source, f);
+            }
+            f.completeExceptionally(ex);
+            throw ex;
+        }
+        f.complete(r);
+        return r;
+    }
+
+    public long distance(CsrGraph<V> g, int source, int target) {
+        return tree(g, source).distanceTo(target);
+    }
+
+    public int[] path(CsrGraph<V> g, int source, int target) {
+        return tree(g, source).pathTo(target);
+    }
+
+    private void evict(int n) {
+        long perTree = (long) n * BYTES_PER_VERTEX;
+        long budget = Math.max(1, maxBytes / Math.max(1, perTree));
+        long limit = Math.min(maxEntries, budget);
+        Iterator<Map.Entry<Integer, CompletableFuture<ShortestPathResult<V>>>> it = trees.entrySet().iterator();
+        while (trees.size() > limit) {
+            // в порядке доступа первым идёт самое давно использованное дерево (ждущие его держат свою ссылку)
+            it.next();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        trees.clear();
+        snapshot = null;
+    }
+
+    public synchronized int size() {
+        return trees.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    // сколько раз кэш сбрасывался из-за изменения структуры графа
+    public synchronized long invalidations() {
+        return invalidations;
+    }
+
+    public synchronized double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "деревьев " + trees.size() + ", попаданий " + hits + ", промахов " + misses
+                + ", вытеснено " + evictions + ", сбросов " + invalidations;
+    }
+}
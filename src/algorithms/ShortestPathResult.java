@@ -0,0 +1,127 @@
+package algorithms;
+
+import graph.CsrGraph;
+
+import java.util.Arrays;
+
+/*
+ Результат запроса кратчайшего пути (DijkstraEngine).
+ Объект переиспользуется между запросами: массивы dist/prev не очищаются,
+ а помечаются номером запроса (epoch), поэтому сброс стоит O(1).
+
+ Расстояния точны для вершин, где isSettled(v) == true; при раннем
+ останове по цели остальные вершины могут иметь лишь оценку сверху.
+ */
+public class ShortestPathResult<V> {
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    CsrGraph<V> graph;
+    long[] dist;
+    int[] prev;
+    int[] reached;  // reached[v] == epoch  -> dist/prev валидны
+    int[] settled;  // settled[v] == epoch  -> расстояние окончательное
+    int epoch;
+
+    int source = -1;
+    int target = -1;
+    int settledCount;
+
+    // восстановленный путь source -> target (в порядке от источника)
+    private int[] path = new int[0];
+    private int pathLength = -1;
+
+    void prepare(CsrGraph<V> g, int source, int target) {
+        int n = g.vertexCount();
+        if (dist == null || dist.length < n) {
+            dist = new long[n];
+            prev = new int[n];
+            reached = new int[n];
+            settled = new int[n];
+            epoch = 0;
+        }
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            epoch = 1;
+        }
+        this.graph = g;
+        this.source = source;
+        this.target = target;
+        this.settledCount = 0;
+        this.pathLength = -1;
+    }
+
+    public CsrGraph<V> graph() {
+        return graph;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    public int target() {
+        return target;
+    }
+
+    // число вершин, извлечённых из кучи (объём поиска)
+    public int settledCount() {
+        return settledCount;
+    }
+
+    public boolean isReached(int v) {
+        return reached[v] == epoch;
+    }
+
+    public boolean isSettled(int v) {
+        return settled[v] == epoch;
+    }
+
+    public long distanceTo(int v) {
+        return isReached(v) ? dist[v] : UNREACHABLE;
+    }
+
+    // предшественник v в дереве кратчайших путей или -1
+    public int predecessor(int v) {
+        return isReached(v) ? prev[v] : -1;
+    }
+
+    public boolean hasPath() {
+        return target >= 0 && isSettled(target);
+    }
+
+    public long distance() {
+        return hasPath() ? dist[target] : UNREACHABLE;
+    }
+
+    // путь до цели как массив id; длина — pathLength()
+    public int[] path() {
+        if (pathLength < 0) buildPath();
+        return path;
+    }
+
+    public int pathLength() {
+        if (pathLength < 0) buildPath();
+        return pathLength;
+    }
+
+    public int[] pathTo(int v) {
+        if (!isReached(v)) return new int[0];
+        int len = 0;
+        for (int at = v; at != -1; at = prev[at]) len++;
+        int[] res = new int[len];
+        for (int at = v, i = len - 1; at != -1; at = prev[at]) res[i--] = at;
+        return res;
+    }
+
+    private void buildPath() {
+        if (!hasPath()) {
+            pathLength = 0;
+            return;
+        }
+        int len = 0;
+        for (int at = target; at != -1; at = prev[at]) len++;
+        if (path.length < len) path = new int[len];
+        for (int at = target, i = len - 1; at != -1; at = prev[at]) path[i--] = at;
+        pathLength = len;
+    }
+}
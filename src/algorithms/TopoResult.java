@@ -0,0 +1,55 @@
+package algorithms;
+
+import graph.CsrGraph;
+
+/*
+ топологический порядок вершин CSR-снимка.
+ Если в графе есть цикл, order содержит только вершины, которые удалось упорядочить
+ (не достижимые из циклов), а cycle — один из циклов: v0 -> v1 -> ... -> v0.
+ */
+public class TopoResult<V> {
+    private static final int[] NO_CYCLE = new int[0];
+
+    private final CsrGraph<V> graph;
+    private final int[] order;
+    private final int[] cycle;
+
+    TopoResult(CsrGraph<V> graph, int[] order) {
+        this(graph, order, NO_CYCLE);
+    }
+
+    TopoResult(CsrGraph<V> graph, int[] order, int[] cycle) {
+        this.graph = graph;
+        this.order = order;
+        this.cycle = cycle;
+    }
+
+    public CsrGraph<V> graph() {
+        return graph;
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    public int vertex(int i) {
+        return order[i];
+    }
+
+    public V value(int i) {
+        return graph.value(order[i]);
+    }
+
+    public int[] order() {
+        return order.clone();
+    }
+
+    public boolean isAcyclic() {
+        return cycle.length == 0;
+    }
+
+    // вершины найденного цикла по порядку рёбер (первая вершина не повторяется); пусто, если цикла нет
+    public int[] cycle() {
+        return cycle.clone();
+    }
+}
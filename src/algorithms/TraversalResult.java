@@ -0,0 +1,40 @@
+package algorithms;
+
+import graph.CsrGraph;
+
+import java.util.Arrays;
+
+/*порядок обхода вершин (DFS/BFS) как массив id CSR-снимка*/
+public class TraversalResult<V> {
+    private final CsrGraph<V> graph;
+    private final int[] order;
+    private final int size;
+
+    TraversalResult(CsrGraph<V> graph, int[] order, int size) {
+        this.graph = graph;
+        this.order = order;
+        this.size = size;
+    }
+
+    public CsrGraph<V> graph() {
+        return graph;
+    }
+
+    // число посещённых вершин
+    public int size() {
+        return size;
+    }
+
+    // id i-й посещённой вершины
+    public int vertex(int i) {
+        return order[i];
+    }
+
+    public V value(int i) {
+        return graph.value(order[i]);
+    }
+
+    public int[] order() {
+        return Arrays.copyOf(order, size);
+    }
+}
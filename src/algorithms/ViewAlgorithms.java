@@ -0,0 +1,148 @@
+package algorithms;
+
+import ds.BitSet;
+import ds.IndexedDaryHeap;
+import graph.GraphView;
+
+import java.util.Arrays;
+
+/*
+ Базовые алгоритмы над GraphView — для графов, которые не лежат в куче целиком
+ (MappedGraph) или не являются CsrGraph. Результаты — массивы по id вершин.
+ Порядок обхода тот же, что у GraphAlgorithms.dfs/bfs и Дейкстры по CsrGraph.
+ */
+public final class ViewAlgorithms {
+    public static final int UNREACHED = -1;
+
+    private ViewAlgorithms() {
+    }
+
+    public static int[] dfsOrder(GraphView g, int s) {
+        return dfsOrder(g, s, RunMonitor.NONE);
+    }
+
+    // вершины в порядке посещения DFS (итеративно, курсор по рёбрам на стеке)
+    public static int[] dfsOrder(GraphView g, int s, RunMonitor monitor) {
+        monitor = RunMonitor.orNone(monitor);
+        int n = g.vertexCount();
+        if (s < 0 || s >= n) return new int[0];
+        AlgorithmMetrics.Probe probe = AlgorithmMetrics.start("view dfs");
+        BitSet visited = new BitSet(n);
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int[] order = new int[n];
+        int count = 0;
+        int top = 0;
+        int peak = 0;
+        long scanned = 0;
+        stack[0] = s;
+        visited.set(s);
+        order[count++] = s;
+        while (top >= 0) {
+            int v = stack[top];
+            if (cursor[top] < g.degree(v)) {
+                int u = g.target(v, cursor[top]++);
+                scanned++;
+                if (visited.add(u)) {
+                    if ((count & RunMonitor.CHECK_MASK) == 0) monitor.checkpoint(count);
+                    order[count++] = u;
+                    stack[++top] = u;
+                    cursor[top] = 0;
+                    if (top > peak) peak = top;
+                }
+            } else {
+                top--;
+            }
+        }
+        if (probe != null) probe.finish(count, scanned, count - 1, -1, -1, peak + 1);
+        return Arrays.copyOf(order, count);
+    }
+
+    public static int[] bfsOrder(GraphView g, int s) {
+        int[] dist = new int[g.vertexCount()];
+        return bfs(g, s, dist, RunMonitor.NONE);
+    }
+
+    // расстояния в рёбрах от s (UNREACHED — недостижима)
+    public static int[] bfsDistances(GraphView g, int s) {
+        int[] dist = new int[g.vertexCount()];
+        bfs(g, s, dist, RunMonitor.NONE);
+        return dist;
+    }
+
+    private static int[] bfs(GraphView g, int s, int[] dist, RunMonitor monitor) {
+        monitor = RunMonitor.orNone(monitor);
+        int n = g.vertexCount();
+        Arrays.fill(dist, UNREACHED);
+        if (s < 0 || s >= n) return new int[0];
+        AlgorithmMetrics.Probe probe = AlgorithmMetrics.start("view bfs");
+        int[] queue = new int[n];
+        int tail = 0;
+        int peak = 1;
+        long scanned = 0;
+        queue[tail++] = s;
+        dist[s] = 0;
+        for (int head = 0; head < tail; head++) {
+            if (tail - head > peak) peak = tail - head;
+            int v = queue[head];
+            int degree = g.degree(v);
+            scanned += degree;
+            for (int i = 0; i < degree; i++) {
+                int u = g.target(v, i);
+                if (dist[u] != UNREACHED) continue;
+                dist[u] = dist[v] + 1;
+                queue[tail++] = u;
+                if ((tail & RunMonitor.CHECK_MASK) == 0) monitor.checkpoint(tail);
+            }
+        }
+        if (probe != null) probe.finish(tail, scanned, tail - 1, -1, -1, peak);
+        return Arrays.copyOf(queue, tail);
+    }
+
+    public static long[] shortestDistances(GraphView g, int s) {
+        return shortestDistances(g, s, null, RunMonitor.NONE);
+    }
+
+    /*
+     Дейкстра: расстояния от s (ShortestPathResult.UNREACHABLE — недостижима).
+     prev (длины n или null) заполняется предшественниками в дереве путей, -1 — нет.
+     */
+    public static long[] shortestDistances(GraphView g, int s, int[] prev, RunMonitor monitor) {
+        monitor = RunMonitor.orNone(monitor);
+        int n = g.vertexCount();
+        long[] dist = new long[n];
+        Arrays.fill(dist, ShortestPathResult.UNREACHABLE);
+        if (prev != null) Arrays.fill(prev, -1);
+        if (s < 0 || s >= n) return dist;
+        AlgorithmMetrics.Probe probe = AlgorithmMetrics.start("view dijkstra");
+        IndexedDaryHeap heap = new IndexedDaryHeap(n);
+        BitSet settled = new BitSet(n);
+        dist[s] = 0;
+        heap.insert(s, 0);
+        int count = 0;
+        long scanned = 0, relaxed = 0;
+        int peak = 1;
+        while (!heap.isEmpty()) {
+            int v = heap.pollMin();
+            settled.set(v);
+            if ((++count & RunMonitor.CHECK_MASK) == 0) monitor.checkpoint(count);
+            long dv = dist[v];
+            int degree = g.degree(v);
+            scanned += degree;
+            for (int i = 0; i < degree; i++) {
+                int u = g.target(v, i);
+                if (settled.get(u)) continue;
+                long nd = dv + g.weight(v, i);
+                if (nd >= dist[u]) continue;
+                dist[u] = nd;
+                if (prev != null) prev[u] = v;
+                heap.offer(u, nd);
+                relaxed++;
+                if (heap.size() > peak) peak = heap.size();
+            }
+        }
+        // offer — вставка или decrease-key, раздельно не считаются
+        if (probe != null) probe.finish(count, scanned, relaxed, -1, -1, peak);
+        return dist;
+    }
+}
@@ -0,0 +1,617 @@
+package app;
+
+import ds.BoxIndex;
+import ds.GridIndex;
+import ds.IntArrayList;
+import graph.CsrGraph;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/*
+ Холст графа: масштаб колесом мыши (вокруг курсора), сдвиг перетаскиванием фона,
+ выбор вершины щелчком, перемещение вершины перетаскиванием.
+
+ Рисуется CSR-снимок графа; координаты вершин копируются в свои массивы и
+ индексируются равномерной сеткой (GridIndex): на экран попадают только вершины
+ из видимого прямоугольника, щелчок ищет ближайшую вершину по соседним ячейкам.
+ Рёбра берутся из индекса их охватывающих прямоугольников (BoxIndex), построенного
+ по координатам на момент снимка или кадра раскладки. У перетащенных после этого вершин
+ прямоугольники рёбер в индексе устарели: такие рёбра индекс пропускает, а перерисовка
+ обходит их напрямую по спискам смежности; когда таких вершин больше MAX_MOVED,
+ индекс перестраивается вместе с полной перерисовкой (иначе агрегированные рёбра
+ в старых и новых участках буфера выбирались бы в разном порядке).
+
+ Уровень детализации выбирается при полной перерисовке по числу видимых вершин и масштабу:
+ - подписи — только вблизи и если вершин на экране не больше MAX_LABELS и им хватает места;
+ - при мелком масштабе или многих вершинах вершины рисуются точками;
+ - если видимых рёбер ожидается больше MAX_DETAILED_EDGES, рёбра агрегируются:
+   из рёбер между одной и той же парой экранных клеток AGGREGATE_CELL рисуется одно,
+   рёбра внутри одной клетки не рисуются.
+
+ Сцена рисуется в буфер; сдвиг, масштаб и новый граф перерисовывают буфер целиком,
+ перемещение или выбор вершины — только затронутый прямоугольник (вершина, её рёбра и
+ подпись), и на экран копируется только он.
+ */
+@SuppressWarnings("serial")
+class GraphCanvas extends JComponent {
+    static final int RADIUS = 6;
+    static final int PICK_RADIUS = 8;
+    static final int MAX_LABELS = 2000;
+    static final int MAX_SHAPES = 20000;
+    static final int MAX_DETAILED_EDGES = 50000;
+    static final int AGGREGATE_CELL = 4;
+    static final int MAX_MOVED = 64;
+    static final double LABEL_SCALE = 0.5;
+    static final double DOT_SCALE = 0.25;
+    // запас справа от вершины под подпись, в пикселях
+    static final int LABEL_MARGIN = 120;
+    static final int LABEL_AREA = 1200;
+
+    private static final Color BACKGROUND = Color.WHITE;
+    private static final Color EDGE = new Color(150, 150, 160);
+    private static final Color VERTEX = new Color(70, 110, 180);
+    private static final Color SELECTED = new Color(230, 120, 30);
+    private static final Color LABEL = Color.DARK_GRAY;
+    private static final BufferedImage VERTEX_SPRITE = sprite(VERTEX, RADIUS);
+    private static final BufferedImage SELECTED_SPRITE = sprite(SELECTED, RADIUS + 2);
+
+    // перемещение вершины мышью (мировые координаты), сообщается по отпусканию кнопки
+    interface MoveListener {
+        void moved(int v, int x, int y);
+    }
+
+    private CsrGraph<String> graph;
+    private int n;
+    private int[] xs = new int[0], ys = new int[0];
+    // экранные координаты вершин; пересчитываются при полной перерисовке
+    private int[] sxs = new int[0], sys = new int[0];
+    private boolean screenValid;
+    private final GridIndex index = new GridIndex();
+    private final IntArrayList visible = new IntArrayList();
+    private final IntArrayList inClip = new IntArrayList();
+    private final LongSet drawnCells = new LongSet();
+
+    // рёбра для отрисовки (неориентированное — один раз, без петель) и их прямоугольники в мире
+    private int[] edgeFrom = new int[0], edgeTo = new int[0];
+    private int[] ex0 = new int[0], ey0 = new int[0], ex1 = new int[0], ey1 = new int[0];
+    private final BoxIndex edgeIndex = new BoxIndex();
+    private boolean edgesValid;
+    // вершины, перемещённые после построения edgeIndex
+    private boolean[] moved = new boolean[0];
+    private final IntArrayList movedList = new IntArrayList();
+    private final IntArrayList edgeHits = new IntArrayList();
+
+    // экран = мир * scale + (tx, ty)
+    private double scale = 1, tx, ty;
+    // подгонять вид под граф при новых позициях, пока пользователь не сдвинул или не масштабировал вид
+    private boolean followLayout = true;
+    // подгонка, отложенная до первой раскладки компонента (пока размер нулевой)
+    private boolean pendingFit;
+
+    private BufferedImage buffer;
+    private boolean bufferValid;
+    private boolean labels, dots, aggregate, arrows;
+
+    private int selected = -1, dragging = -1;
+    private int lastX, lastY;
+    private IntConsumer onSelect = v -> { };
+    private MoveListener onMove = (v, x, y) -> { };
+
+    GraphCanvas() {
+        setOpaque(true);
+        setPreferredSize(new Dimension(900, 350));
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                pressed(e);
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                dragged(e);
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                released();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                zoom(e.getX(), e.getY(), Math.pow(1.15, -e.getPreciseWheelRotation()));
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    void setOnSelect(IntConsumer onSelect) {
+        this.onSelect = onSelect;
+    }
+
+    void setOnMove(MoveListener onMove) {
+        this.onMove = onMove;
+    }
+
+    /*
+     Новый снимок графа (для перетаскивания в ориентированном графе нужен обратный CSR,
+     см. freeze(true)). fit — подогнать вид под граф.
+     */
+    void setGraph(CsrGraph<String> g, boolean fit) {
+        graph = g;
+        n = g.vertexCount();
+        xs = new int[n];
+        ys = new int[n];
+        for (int v = 0; v < n; v++) {
+            xs[v] = g.x(v);
+            ys[v] = g.y(v);
+        }
+        index.build(xs, ys, n);
+        edgesValid = false;
+        selected = -1;
+        dragging = -1;
+        if (fit) {
+            followLayout = true;
+            fitToView();
+        }
+        invalidateBuffer();
+    }
+
+    // новые позиции тех же вершин (кадр раскладки), в порядке снимка
+    void setPositions(int[] newXs, int[] newYs) {
+        if (newXs.length != n) return;
+        System.arraycopy(newXs, 0, xs, 0, n);
+        System.arraycopy(newYs, 0, ys, 0, n);
+        index.build(xs, ys, n);
+        edgesValid = false;
+        if (followLayout) fitToView();
+        invalidateBuffer();
+    }
+
+    void fitToView() {
+        pendingFit = n > 0 && (getWidth() == 0 || getHeight() == 0);
+        if (n == 0 || pendingFit) {
+            scale = 1;
+            tx = ty = 0;
+            return;
+        }
+        int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE, x1 = Integer.MIN_VALUE, y1 = Integer.MIN_VALUE;
+        for (int v = 0; v < n; v++) {
+            x0 = Math.min(x0, xs[v]);
+            x1 = Math.max(x1, xs[v]);
+            y0 = Math.min(y0, ys[v]);
+            y1 = Math.max(y1, ys[v]);
+        }
+        int margin = 2 * RADIUS + 10;
+        double w = Math.max(1, (double) x1 - x0), h = Math.max(1, (double) y1 - y0);
+        scale = Math.min(4, Math.min((getWidth() - 2.0 * margin) / w, (getHeight() - 2.0 * margin) / h));
+        if (!(scale > 0)) scale = 1;
+        tx = getWidth() / 2.0 - (x0 + w / 2) * scale;
+        ty = getHeight() / 2.0 - (y0 + h / 2) * scale;
+    }
+
+    int selected() {
+        return selected;
+    }
+
+    String valueOf(int v) {
+        return graph.value(v);
+    }
+
+    // описание текущего уровня детализации (для строки состояния)
+    String describe() {
+        return "на экране вершин " + visible.size() + ", масштаб " + String.format("%.2f", scale)
+                + (dots ? ", точки" : "") + (aggregate ? ", рёбра агрегированы" : "")
+                + (labels ? "" : ", без подписей");
+    }
+
+    private void invalidateBuffer() {
+        bufferValid = false;
+        screenValid = false;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int w = Math.max(1, getWidth()), h = Math.max(1, getHeight());
+        if (buffer == null || buffer.getWidth() != w || buffer.getHeight() != h) {
+            buffer = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            bufferValid = false;
+            screenValid = false;
+        }
+        if (pendingFit) {
+            fitToView();
+            bufferValid = false;
+            screenValid = false;
+        }
+        if (!bufferValid) {
+            Graphics2D bg = buffer.createGraphics();
+            try {
+                chooseDetail(w, h);
+                render(bg, 0, 0, w, h);
+            } finally {
+                bg.dispose();
+            }
+            bufferValid = true;
+        }
+        g.drawImage(buffer, 0, 0, null);
+    }
+
+    // перерисовка прямоугольника в буфере и вывод только его
+    private void repaintRegion(Rectangle r) {
+        if (movedList.size() > MAX_MOVED) {
+            edgesValid = false;
+            bufferValid = false;
+        }
+        if (buffer == null || !bufferValid) {
+            repaint();
+            return;
+        }
+        r = r.intersection(new Rectangle(0, 0, buffer.getWidth(), buffer.getHeight()));
+        if (r.isEmpty()) return;
+        Graphics2D bg = buffer.createGraphics();
+        try {
+            bg.setClip(r);
+            render(bg, r.x, r.y, r.width, r.height);
+        } finally {
+            bg.dispose();
+        }
+        repaint(r);
+    }
+
+    // уровень детализации по видимой области: выбирается при полной перерисовке
+    private void chooseDetail(int w, int h) {
+        visible.clear();
+        if (graph == null) return;
+        index.query(worldX(0), worldY(0), worldX(w) + 1, worldY(h) + 1, visible);
+        int count = visible.size();
+        dots = count > MAX_SHAPES || scale < DOT_SCALE;
+        // подписи, только если им хватает места: в среднем LABEL_AREA пикселей на вершину
+        labels = !dots && count <= MAX_LABELS && scale >= LABEL_SCALE && (long) count * LABEL_AREA <= (long) w * h;
+        long expectedEdges = n == 0 ? 0 : (long) graph.edgeCount() * count / n;
+        aggregate = expectedEdges > MAX_DETAILED_EDGES;
+        arrows = graph.isDirected() && !aggregate && !dots;
+    }
+
+    private void render(Graphics2D g, int cx, int cy, int cw, int ch) {
+        g.setColor(BACKGROUND);
+        g.fillRect(cx, cy, cw, ch);
+        if (graph == null || n == 0) return;
+        if (!dots && !aggregate) {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        }
+        if (!screenValid) {
+            if (sxs.length != n) {
+                sxs = new int[n];
+                sys = new int[n];
+            }
+            for (int v = 0; v < n; v++) {
+                sxs[v] = screen(xs[v], scale, tx);
+                sys[v] = screen(ys[v], scale, ty);
+            }
+            screenValid = true;
+        }
+        renderEdges(g, cx, cy, cx + cw, cy + ch);
+
+        // вершины из клетки, расширенной на радиус и подпись
+        // (подпись лежит правее и выше вершины, поэтому слева и снизу запас больше)
+        int pad = RADIUS + 3;
+        int left = labels ? LABEL_MARGIN : pad;
+        int below = labels ? pad + 16 : pad;
+        inClip.clear();
+        index.query(worldX(cx - left), worldY(cy - pad), worldX(cx + cw + pad) + 1, worldY(cy + ch + below) + 1, inClip);
+        int[] ids = inClip.rawArray();
+        int count = inClip.size();
+        if (dots) {
+            plotDots(ids, count, cx, cy, cx + cw, cy + ch);
+        } else {
+            // вершина — заранее нарисованный спрайт: копия картинки дешевле сглаженного круга
+            int half = VERTEX_SPRITE.getWidth() / 2;
+            for (int j = 0; j < count; j++) {
+                int v = ids[j];
+                g.drawImage(VERTEX_SPRITE, sxs[v] - half, sys[v] - half, null);
+            }
+        }
+        if (labels) {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            g.setColor(LABEL);
+            for (int j = 0; j < count; j++) {
+                int v = ids[j];
+                g.drawString(String.valueOf(graph.value(v)), sxs[v] + RADIUS + 2, sys[v] - RADIUS);
+            }
+        }
+        if (selected >= 0) {
+            int half = SELECTED_SPRITE.getWidth() / 2;
+            g.drawImage(SELECTED_SPRITE, sxs[selected] - half, sys[selected] - half, null);
+        }
+    }
+
+    // точки 3x3 пикселя прямо в растр буфера, в пределах [x0, x1) x [y0, y1)
+    private void plotDots(int[] ids, int count, int x0, int y0, int x1, int y1) {
+        int[] pixels = ((DataBufferInt) buffer.getRaster().getDataBuffer()).getData();
+        int width = buffer.getWidth();
+        int rgb = VERTEX.getRGB();
+        for (int j = 0; j < count; j++) {
+            int v = ids[j];
+            int px = sxs[v], py = sys[v];
+            for (int y = Math.max(y0, py - 1); y <= py + 1 && y < y1; y++) {
+                int row = y * width;
+                for (int x = Math.max(x0, px - 1); x <= px + 1 && x < x1; x++) pixels[row + x] = rgb;
+            }
+        }
+    }
+
+    private static BufferedImage sprite(Color color, int radius) {
+        int size = 2 * radius + 2;
+        BufferedImage img = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(color);
+        g.fillOval(1, 1, 2 * radius, 2 * radius);
+        g.dispose();
+        return img;
+    }
+
+    /*
+     Рёбра, чей охватывающий прямоугольник пересекает [x0, x1) x [y0, y1): кандидаты из edgeIndex
+     (запрос в мировых координатах с запасом на округление) и рёбра перемещённых вершин.
+     */
+    private void renderEdges(Graphics2D g, int x0, int y0, int x1, int y1) {
+        if (!edgesValid) buildEdgeIndex();
+        int cellsPerRow = getWidth() / AGGREGATE_CELL + 2;
+        if (aggregate) drawnCells.clear();
+        g.setColor(EDGE);
+        edgeHits.clear();
+        edgeIndex.query(worldX(x0 - 1), worldY(y0 - 1), worldX(x1 + 1) + 1, worldY(y1 + 1) + 1, edgeHits);
+        for (int j = 0; j < edgeHits.size(); j++) {
+            int k = edgeHits.get(j);
+            int v = edgeFrom[k], u = edgeTo[k];
+            if (moved[v] || moved[u]) continue;
+            drawEdge(g, v, u, x0, y0, x1, y1, cellsPerRow);
+        }
+        if (movedList.isEmpty()) return;
+
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        boolean directed = graph.isDirected();
+        for (int j = 0; j < movedList.size(); j++) {
+            int v = movedList.get(j);
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = targets[i];
+                // ребро двух перемещённых вершин рисуется из меньшей
+                if (u == v || (!directed && moved[u] && u < v)) continue;
+                drawEdge(g, v, u, x0, y0, x1, y1, cellsPerRow);
+            }
+            if (!directed) continue;
+            int[] rOffsets = graph.reverseOffsets();
+            int[] sources = graph.reverseSources();
+            for (int i = rOffsets[v]; i < rOffsets[v + 1]; i++) {
+                int u = sources[i];
+                // исходящие рёбра перемещённого источника уже нарисованы выше
+                if (u == v || moved[u]) continue;
+                drawEdge(g, u, v, x0, y0, x1, y1, cellsPerRow);
+            }
+        }
+    }
+
+    private void drawEdge(Graphics2D g, int v, int u, int x0, int y0, int x1, int y1, int cellsPerRow) {
+        int ax = sxs[v], ay = sys[v], bx = sxs[u], by = sys[u];
+        if (Math.max(ax, bx) < x0 || Math.min(ax, bx) >= x1
+                || Math.max(ay, by) < y0 || Math.min(ay, by) >= y1) return;
+        if (aggregate) {
+            long a = cellOf(ax, ay, cellsPerRow), b = cellOf(bx, by, cellsPerRow);
+            if (a == b || !drawnCells.add(Math.min(a, b) << 32 | Math.max(a, b))) return;
+        }
+        g.drawLine(ax, ay, bx, by);
+        if (arrows) arrow(g, ax, ay, bx, by);
+    }
+
+    // индекс рёбер по текущим мировым координатам, O(V + E)
+    private void buildEdgeIndex() {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        boolean directed = graph.isDirected();
+        int m = 0;
+        for (int v = 0; v < n; v++)
+            for (int i = offsets[v]; i < offsets[v + 1]; i++)
+                // неориентированное ребро лежит в обоих списках — берём один раз
+                if (targets[i] != v && (directed || targets[i] > v)) m++;
+        if (edgeFrom.length != m) {
+            edgeFrom = new int[m];
+            edgeTo = new int[m];
+            ex0 = new int[m];
+            ey0 = new int[m];
+            ex1 = new int[m];
+            ey1 = new int[m];
+        }
+        int k = 0;
+        for (int v = 0; v < n; v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = targets[i];
+                if (u == v || (!directed && u < v)) continue;
+                edgeFrom[k] = v;
+                edgeTo[k] = u;
+                ex0[k] = Math.min(xs[v], xs[u]);
+                ex1[k] = Math.max(xs[v], xs[u]);
+                ey0[k] = Math.min(ys[v], ys[u]);
+                ey1[k] = Math.max(ys[v], ys[u]);
+                k++;
+            }
+        }
+        edgeIndex.build(ex0, ey0, ex1, ey1, m);
+        if (moved.length != n) moved = new boolean[n];
+        for (int j = 0; j < movedList.size(); j++) moved[movedList.get(j)] = false;
+        movedList.clear();
+        edgesValid = true;
+    }
+
+    private static long cellOf(int x, int y, int cellsPerRow) {
+        // точки за пределами экрана прижимаются к краевым клеткам
+        long cx = Math.max(-1, Math.min(cellsPerRow, Math.floorDiv(x, AGGREGATE_CELL)));
+        long cy = Math.max(-1, Math.min(1 << 20, Math.floorDiv(y, AGGREGATE_CELL)));
+        return (cy + 1) * (cellsPerRow + 2) + cx + 1;
+    }
+
+    private static void arrow(Graphics2D g, int ax, int ay, int bx, int by) {
+        double dx = bx - ax, dy = by - ay;
+        double len = Math.sqrt(dx * dx + dy * dy);
+        if (len < 3 * RADIUS) return;
+        double ux = dx / len, uy = dy / len;
+        double tipX = bx - ux * RADIUS, tipY = by - uy * RADIUS;
+        double size = 8;
+        int[] px = {(int) tipX, (int) (tipX - ux * size - uy * size / 2), (int) (tipX - ux * size + uy * size / 2)};
+        int[] py = {(int) tipY, (int) (tipY - uy * size + ux * size / 2), (int) (tipY - uy * size - ux * size / 2)};
+        g.fillPolygon(px, py, 3);
+    }
+
+    private static int screen(int world, double scale, double t) {
+        double s = world * scale + t;
+        // далёкие точки прижимаются, чтобы не переполнить int при рисовании
+        return (int) Math.max(-1e9, Math.min(1e9, s));
+    }
+
+    private int worldX(int sx) {
+        return (int) Math.floor((sx - tx) / scale);
+    }
+
+    private int worldY(int sy) {
+        return (int) Math.floor((sy - ty) / scale);
+    }
+
+    // экранный прямоугольник вершины v с её рёбрами и подписью
+    private Rectangle footprint(int v) {
+        int x = screen(xs[v], scale, tx), y = screen(ys[v], scale, ty);
+        Rectangle r = new Rectangle(x, y, 1, 1);
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+            int u = targets[i];
+            r.add(screen(xs[u], scale, tx), screen(ys[u], scale, ty));
+        }
+        if (graph.isDirected()) {
+            int[] rOffsets = graph.reverseOffsets();
+            int[] sources = graph.reverseSources();
+            for (int i = rOffsets[v]; i < rOffsets[v + 1]; i++) {
+                int u = sources[i];
+                r.add(screen(xs[u], scale, tx), screen(ys[u], scale, ty));
+            }
+        }
+        int pad = RADIUS + 3;
+        r.grow(pad, pad + 12);
+        r.width += LABEL_MARGIN;
+        return r;
+    }
+
+    private void pressed(MouseEvent e) {
+        lastX = e.getX();
+        lastY = e.getY();
+        if (graph == null) return;
+        int radius = (int) Math.ceil(PICK_RADIUS / scale);
+        int hit = index.nearest(worldX(e.getX()), worldY(e.getY()), radius);
+        if (hit < 0) return;
+        dragging = hit;
+        if (hit != selected) {
+            int old = selected;
+            selected = hit;
+            if (old >= 0) repaintRegion(footprint(old));
+            repaintRegion(footprint(hit));
+            onSelect.accept(hit);
+        }
+    }
+
+    private void dragged(MouseEvent e) {
+        int dx = e.getX() - lastX, dy = e.getY() - lastY;
+        lastX = e.getX();
+        lastY = e.getY();
+        if (dragging >= 0) {
+            Rectangle dirty = footprint(dragging);
+            index.move(dragging, worldX(e.getX()), worldY(e.getY()));
+            if (edgesValid && !moved[dragging]) {
+                moved[dragging] = true;
+                movedList.add(dragging);
+            }
+            if (screenValid) {
+                sxs[dragging] = screen(xs[dragging], scale, tx);
+                sys[dragging] = screen(ys[dragging], scale, ty);
+            }
+            dirty.add(footprint(dragging));
+            repaintRegion(dirty);
+            return;
+        }
+        tx += dx;
+        ty += dy;
+        followLayout = false;
+        invalidateBuffer();
+    }
+
+    private void released() {
+        if (dragging < 0) return;
+        int v = dragging;
+        dragging = -1;
+        onMove.moved(v, xs[v], ys[v]);
+    }
+
+    private void zoom(int sx, int sy, double factor) {
+        double next = Math.max(1e-4, Math.min(20, scale * factor));
+        // точка мира под курсором остаётся на месте
+        double wx = (sx - tx) / scale, wy = (sy - ty) / scale;
+        scale = next;
+        tx = sx - wx * scale;
+        ty = sy - wy * scale;
+        followLayout = false;
+        invalidateBuffer();
+    }
+
+    // множество long-ключей с открытой адресацией (пары клеток агрегированных рёбер)
+    private static final class LongSet {
+        private static final long EMPTY = Long.MIN_VALUE;
+        private long[] keys = new long[1 << 10];
+        private int size;
+
+        LongSet() {
+            Arrays.fill(keys, EMPTY);
+        }
+
+        void clear() {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+
+        boolean add(long key) {
+            if (2 * (size + 1) > keys.length) grow();
+            int mask = keys.length - 1;
+            int i = (int) (mix(key) & mask);
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key) return false;
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            size++;
+            return true;
+        }
+
+        private void grow() {
+            long[] old = keys;
+            keys = new long[old.length * 2];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+            for (long k : old) if (k != EMPTY) add(k);
+        }
+
+        // финализатор MurmurHash3: младшие биты зависят от всех битов ключа
+        private static long mix(long k) {
+            k ^= k >>> 33;
+            k *= 0xFF51AFD7ED558CCDL;
+            return k ^ (k >>> 33);
+        }
+    }
+}
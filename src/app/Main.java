@@ -1,9 +1,26 @@
 package app;
 
 import graph.Graph;
+import algorithms.AlgorithmMetrics;
+import algorithms.ForceLayout;
 import algorithms.GraphAlgorithms;
+import algorithms.RunMonitor;
+import algorithms.RunStats;
+import algorithms.SearchMode;
+import algorithms.ShortestPathCache;
+import algorithms.ShortestPathResult;
+import graph.CsrGraph;
+import graph.io.GraphFormat;
+import graph.io.GraphReader;
+import graph.io.GraphWriter;
+import util.ResultSink;
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /*
   GUI для работы с графом:
@@ -11,18 +28,33 @@ import java.awt.*;
  */
 public class Main {
     private JFrame frame;
-    private JTextArea outputArea;
+    private OutputConsole console;
+    private GraphCanvas canvas;
 
     private JTextField vertexField, sourceField, targetField, weightField;
 
     private JComboBox<String> fromCombo, toCombo; // выбираем вершины для ребра
     private JComboBox<String> orientationCombo;  // ориентированный / нет
     private JComboBox<String> weightedCombo;     // взвешенный / нет
+    private JComboBox<String> searchModeCombo;   // режим поиска кратчайшего пути
 
     private Graph<String> graph;
 
+    // фоновый запуск алгоритмов: EDT не блокируется, запуск можно прервать
+    private final ExecutorService worker = Executors.newVirtualThreadPerTaskExecutor();
+    private RunMonitor currentRun;
+    // деревья кратчайших путей по источнику, сбрасываются при изменении графа
+    private final ShortestPathCache<String> pathCache = new ShortestPathCache<>(64);
+    private JButton cancelBtn;
+    private JLabel statusLabel;
+    private Timer progressTimer;
+    // бюджет одного кадра силовой раскладки
+    private static final long LAYOUT_FRAME_NANOS = 16_000_000;
+
     public Main() {
         graph = new Graph<>(true);
+        // метрики запусков: последняя выводится после результата, накопленные — в JMX
+        AlgorithmMetrics.enable(true);
         initialize();
     }
 
@@ -31,6 +63,7 @@ public class Main {
         frame.setBounds(100, 100, 900, 650);
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setLayout(new BorderLayout());
+        frame.setJMenuBar(createMenu());
 
         JPanel panel = new JPanel();
         panel.setLayout(new GridLayout(6, 1));
@@ -108,6 +141,8 @@ public class Main {
         algoPanel.add(dfsBtn);
         algoPanel.add(bfsBtn);
         algoPanel.add(dijkstraBtn);
+        searchModeCombo = new JComboBox<>(new String[]{"Обычный", "A*", "Двунаправленный"});
+        algoPanel.add(searchModeCombo);
         algoPanel.add(kosarajuBtn);
         algoPanel.add(topoBtn);
         algoPanel.add(printBtn);
@@ -118,12 +153,27 @@ public class Main {
         JPanel clearPanel = new JPanel();
         JButton clearScreenBtn = new JButton("Очистить экран");
         clearPanel.add(clearScreenBtn);
+        cancelBtn = new JButton("Прервать");
+        cancelBtn.setEnabled(false);
+        clearPanel.add(cancelBtn);
+        statusLabel = new JLabel(" ");
+        clearPanel.add(statusLabel);
         panel.add(clearPanel);
 
-        //  Поле вывода
-        outputArea = new JTextArea();
-        outputArea.setEditable(false);
-        frame.add(new JScrollPane(outputArea), BorderLayout.CENTER);
+        //  Холст графа и поле вывода
+        console = new OutputConsole();
+        canvas = new GraphCanvas();
+        canvas.setOnSelect(v -> {
+            String value = canvas.valueOf(v);
+            vertexField.setText(value);
+            sourceField.setText(value);
+            statusLabel.setText("Вершина " + value + "; " + canvas.describe());
+        });
+        canvas.setOnMove((v, x, y) -> graph.moveVertex(canvas.valueOf(v), x, y));
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, canvas, console);
+        split.setResizeWeight(0.65);
+        frame.add(split, BorderLayout.CENTER);
+        refreshCanvas(true);
 
 
         newGraphBtn.addActionListener(e -> {
@@ -131,7 +181,8 @@ public class Main {
             graph = new Graph<>(oriented);
             fromCombo.removeAllItems();
             toCombo.removeAllItems();
-            outputArea.append("Создан новый " + (oriented ? "ориентированный" : "неориентированный") + " граф.\n");
+            refreshCanvas(true);
+            console.append("Создан новый " + (oriented ? "ориентированный" : "неориентированный") + " граф.\n");
         });
 
         addVertexBtn.addActionListener(e -> {
@@ -140,7 +191,8 @@ public class Main {
             graph.addVertex(v);
             fromCombo.addItem(v);
             toCombo.addItem(v);
-            outputArea.append("Добавлена вершина: " + v + "\n");
+            refreshCanvas(false);
+            console.append("Добавлена вершина: " + v + "\n");
         });
 
         removeVertexBtn.addActionListener(e -> {
@@ -150,8 +202,9 @@ public class Main {
             graph.removeVertex(v);
             fromCombo.removeItem(v);
             toCombo.removeItem(v);
+            refreshCanvas(false);
 
-            outputArea.append("Удалена вершина: " + v + "\n");
+            console.append("Удалена вершина: " + v + "\n");
         });
 
         addEdgeBtn.addActionListener(e -> {
@@ -159,7 +212,7 @@ public class Main {
             String to = (String) toCombo.getSelectedItem();
 
             if (from == null || to == null) {
-                outputArea.append("Ошибка: нет доступных вершин.\n");
+                console.append("Ошибка: нет доступных вершин.\n");
                 return;
             }
 
@@ -167,12 +220,13 @@ public class Main {
             int weight = isWeighted ? parseWeight() : 1;
 
             if (!graph.canAddEdge(from, to)) {
-                outputArea.append("Ошибка: такое ребро уже есть.\n");
+                console.append("Ошибка: такое ребро уже есть.\n");
                 return;
             }
 
             graph.addEdge(from, to, weight);
-            outputArea.append("Добавлено ребро: " +
+            refreshCanvas(false);
+            console.append("Добавлено ребро: " +
                     (graph.isOriented() ? from + " -> " + to : from + " - " + to) +
                     (isWeighted ? " (" + weight + ")" : "") + "\n");
         });
@@ -181,45 +235,265 @@ public class Main {
             String from = (String) fromCombo.getSelectedItem();
             String to = (String) toCombo.getSelectedItem();
             graph.removeEdge(from, to);
-            outputArea.append("Удалено ребро: " + from + " - " + to + "\n");
+            refreshCanvas(false);
+            console.append("Удалено ребро: " + from + " - " + to + "\n");
         });
 
-        dfsBtn.addActionListener(e -> runAlgorithm("DFS", () -> graph.dfs(sourceField.getText(), outputArea)));
-        bfsBtn.addActionListener(e -> runAlgorithm("BFS", () -> graph.bfs(sourceField.getText(), outputArea)));
-        dijkstraBtn.addActionListener(e -> runAlgorithm("Dijkstra",
-                () -> GraphAlgorithms.dijkstra(graph, sourceField.getText(), targetField.getText(), outputArea)
-        ));
-        kosarajuBtn.addActionListener(e -> runAlgorithm("SCC",
-                () -> GraphAlgorithms.findSCC(graph, outputArea)
-        ));
-        topoBtn.addActionListener(e -> runAlgorithm("TopSort",
-                () -> GraphAlgorithms.topologicalSort(graph, outputArea)
+        dfsBtn.addActionListener(e -> {
+            String start = sourceField.getText();
+            runAlgorithm("DFS", (g, out, m) ->
+                    GraphAlgorithms.writeTraversal(GraphAlgorithms.dfs(g, g.indexOf(start), m), out));
+        });
+        bfsBtn.addActionListener(e -> {
+            String start = sourceField.getText();
+            runAlgorithm("BFS", (g, out, m) ->
+                    GraphAlgorithms.writeTraversal(GraphAlgorithms.bfs(g, g.indexOf(start), m), out));
+        });
+        dijkstraBtn.addActionListener(e -> {
+            String source = sourceField.getText();
+            String target = targetField.getText();
+            SearchMode mode = SearchMode.values()[searchModeCombo.getSelectedIndex()];
+            runAlgorithm("Dijkstra", (g, out, m) -> runDijkstra(g, source, target, mode, out, m));
+        });
+        kosarajuBtn.addActionListener(e -> runAlgorithm("SCC", (g, out, m) ->
+                GraphAlgorithms.writeComponents(GraphAlgorithms.stronglyConnectedComponents(g, m), out)
         ));
+        topoBtn.addActionListener(e -> {
+            if (!graph.isDirected()) {
+                console.append("Ошибка: топологическая сортировка — только для ориентированного графа.\n");
+                return;
+            }
+            runAlgorithm("TopSort", (g, out, m) ->
+                    GraphAlgorithms.writeOrder(GraphAlgorithms.topologicalOrder(g, m), out));
+        });
+        cancelBtn.addActionListener(e -> {
+            if (currentRun != null) currentRun.cancel();
+        });
 
         printBtn.addActionListener(e -> {
-            outputArea.append("Структура графа:\n");
-            graph.printGraph(outputArea,
+            ResultSink out = console;
+            out.append("Структура графа:\n");
+            graph.printGraph(out,
                     weightedCombo.getSelectedItem().equals("Взвешенный")
             );
-            outputArea.append("\n");
+            out.append("\n");
+            out.flush();
         });
 
-        clearScreenBtn.addActionListener(e -> outputArea.setText(""));
+        clearScreenBtn.addActionListener(e -> console.clear());
 
         frame.setVisible(true);
     }
 
 
+    // меню "Файл": импорт/экспорт графа (список рёбер, CSV, DIMACS .gr); "Вид": раскладка
+    private JMenuBar createMenu() {
+        JMenuBar bar = new JMenuBar();
+        JMenu fileMenu = new JMenu("Файл");
+        JMenuItem importItem = new JMenuItem("Импорт графа...");
+        JMenuItem exportItem = new JMenuItem("Экспорт графа...");
+        importItem.addActionListener(e -> importGraph());
+        exportItem.addActionListener(e -> exportGraph());
+        fileMenu.add(importItem);
+        fileMenu.add(exportItem);
+        bar.add(fileMenu);
+
+        JMenu viewMenu = new JMenu("Вид");
+        JMenuItem layoutItem = new JMenuItem("Силовая раскладка");
+        layoutItem.addActionListener(e -> runLayout());
+        viewMenu.add(layoutItem);
+        bar.add(viewMenu);
+        return bar;
+    }
+
+    private void importGraph() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(frame) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        boolean oriented = orientationCombo.getSelectedItem().equals("Ориентированный");
+        statusLabel.setText("Загрузка " + file.getFileName() + "...");
+
+        worker.execute(() -> {
+            Graph<String> loaded = new Graph<>(oriented);
+            try {
+                long started = System.nanoTime();
+                long edges = GraphReader.read(file, loaded);
+                long ms = (System.nanoTime() - started) / 1_000_000;
+                String[] names = new String[loaded.getVertices().size()];
+                for (int i = 0; i < names.length; i++) names[i] = loaded.getVertices().get(i).value;
+                SwingUtilities.invokeLater(() -> {
+                    graph = loaded;
+                    refreshCanvas(true);
+                    fromCombo.setModel(new DefaultComboBoxModel<>(names));
+                    toCombo.setModel(new DefaultComboBoxModel<>(names));
+                    statusLabel.setText(" ");
+                    console.append("Загружен граф из " + file.getFileName() + ": " + names.length
+                            + " вершин, " + edges + " рёбер (" + ms + " мс)\n");
+                });
+            } catch (IOException | RuntimeException ex) {
+                SwingUtilities.invokeLater(() -> {
+                    statusLabel.setText(" ");
+                    console.append("Ошибка загрузки: " + ex.getMessage() + "\n");
+                });
+            }
+        });
+    }
+
+    private void exportGraph() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(frame) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        CsrGraph<String> snapshot = graph.freeze();
+
+        worker.execute(() -> {
+            String message;
+            try {
+                GraphWriter.write(snapshot, file, GraphFormat.byFileName(file));
+                message = "Граф сохранён в " + file.getFileName() + "\n";
+            } catch (IOException ex) {
+                message = "Ошибка сохранения: " + ex.getMessage() + "\n";
+            }
+            String text = message;
+            console.append(text);
+        });
+    }
+
+
+    // холст рисует снимок графа с обратными рёбрами (нужны при перетаскивании вершины)
+    private void refreshCanvas(boolean fit) {
+        canvas.setGraph(graph.freeze(true), fit);
+    }
+
     private int parseWeight() {
         try { return Integer.parseInt(weightField.getText().trim()); }
         catch (Exception e) { return 1; }
     }
 
     
-    private void runAlgorithm(String name, Runnable action) {
-        outputArea.append(name + ":\n");
-        action.run();
-        outputArea.append("\n");
+    // алгоритм на снимке графа: выполняется в фоновом потоке
+    private interface AlgorithmTask {
+        void run(CsrGraph<String> snapshot, ResultSink out, RunMonitor monitor);
+    }
+
+    /*
+      Запуск алгоритма вне EDT на неизменяемом снимке графа.
+      Вывод идёт в OutputConsole, которая показывает накопленное не чаще раза за кадр,
+      прогресс раз в 100 мс показывается в statusLabel, "Прервать" отменяет запуск.
+      После результата выводятся метрики последнего запуска алгоритма (AlgorithmMetrics).
+     */
+    private void runAlgorithm(String name, AlgorithmTask task) {
+        if (currentRun != null) {
+            console.append("Ошибка: алгоритм ещё выполняется.\n");
+            return;
+        }
+        CsrGraph<String> snapshot = graph.freeze();
+        RunMonitor monitor = new RunMonitor();
+        ResultSink out = console;
+        startProgress(name, monitor);
+
+        worker.execute(() -> {
+            long started = System.nanoTime();
+            out.append(name + ":\n");
+            AlgorithmMetrics.clearLastRun();
+            try {
+                task.run(snapshot, out, monitor);
+                out.append("\n");
+                RunStats stats = AlgorithmMetrics.lastRun();
+                if (stats != null) out.append("Метрики: " + stats + "\n");
+            } catch (CancellationException ex) {
+                out.append("\nПрервано пользователем.\n");
+            } catch (RuntimeException | OutOfMemoryError ex) {
+                out.append("\nОшибка: " + ex + "\n");
+            }
+            long ms = (System.nanoTime() - started) / 1_000_000;
+            out.flush();
+            SwingUtilities.invokeLater(() -> finishProgress(name, ms));
+        });
+    }
+
+    /*
+      Силовая раскладка в фоне с тёплым стартом от текущих координат.
+      Итерации идут кадрами по LAYOUT_FRAME_NANOS, после каждого кадра позиции
+      переносятся в вершины на EDT, так раскладка видна по мере сходимости.
+      Изменение графа или "Прервать" останавливает раскладку.
+     */
+    private void runLayout() {
+        if (currentRun != null) {
+            console.append("Ошибка: алгоритм ещё выполняется.\n");
+            return;
+        }
+        String name = "Раскладка";
+        ForceLayout layout = ForceLayout.of(graph, true);
+        Graph<String> target = graph;
+        long version = graph.version();
+        RunMonitor monitor = new RunMonitor();
+        startProgress(name, monitor);
+
+        worker.execute(() -> {
+            long started = System.nanoTime();
+            int n = layout.vertexCount();
+            try {
+                while (!layout.isConverged()) {
+                    layout.step(LAYOUT_FRAME_NANOS);
+                    int[] xs = new int[n];
+                    int[] ys = new int[n];
+                    layout.positions(xs, ys);
+                    SwingUtilities.invokeLater(() -> {
+                        if (graph == target && target.version() == version) {
+                            target.applyLayout(xs, ys);
+                            canvas.setPositions(xs, ys);
+                        } else {
+                            monitor.cancel();
+                        }
+                    });
+                    monitor.checkpoint((long) n * layout.iterations());
+                }
+            } catch (CancellationException ex) {
+                // прервано пользователем или граф изменился
+            }
+            long ms = (System.nanoTime() - started) / 1_000_000;
+            String text = name + ": " + layout.iterations() + " итераций"
+                    + (layout.isConverged() ? "" : ", прервано") + "\n";
+            SwingUtilities.invokeLater(() -> {
+                console.append(text);
+                finishProgress(name, ms);
+            });
+        });
+    }
+
+    private void runDijkstra(CsrGraph<String> g, String source, String target, SearchMode mode,
+                             ResultSink out, RunMonitor m) {
+        if (g.vertexCount() == 0) { out.append("Граф пуст\n"); return; }
+        int s = g.indexOf(source);
+        if (s == -1) { out.append("Источник не найден\n"); return; }
+        int t = g.indexOf(target);
+        if (t == -1) { out.append("Цель не найдена\n"); return; }
+        if (mode != SearchMode.DIJKSTRA) {
+            // A* и двунаправленный поиск не кэшируются: показываем, сколько вершин просмотрено
+            ShortestPathResult<String> r = GraphAlgorithms.shortestPath(g, s, t, mode, m);
+            GraphAlgorithms.writePath(r, out);
+            out.append("Извлечено из кучи вершин: " + r.settledCount() + "\n");
+            return;
+        }
+        // структура снимка та же, пока граф не менялся (перемещение вершин не в счёт) — дерево берётся из кэша
+        GraphAlgorithms.writePath(pathCache.tree(g, s, m), t, out);
+        out.append("Кэш путей: " + pathCache + "\n");
+    }
+
+    private void startProgress(String name, RunMonitor monitor) {
+        currentRun = monitor;
+        cancelBtn.setEnabled(true);
+        statusLabel.setText(name + ": выполняется...");
+        progressTimer = new Timer(100, e ->
+                statusLabel.setText(name + ": обработано вершин " + monitor.progress()));
+        progressTimer.start();
+    }
+
+    private void finishProgress(String name, long ms) {
+        progressTimer.stop();
+        currentRun = null;
+        cancelBtn.setEnabled(false);
+        statusLabel.setText(name + ": " + ms + " мс");
     }
 
     public static void main(String[] args) {
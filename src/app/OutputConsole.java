@@ -0,0 +1,226 @@
+package app;
+
+import util.ResultSink;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Arrays;
+
+/*
+ Консоль вывода вместо растущего JTextArea.
+ Строки хранятся в кольцевом буфере (Lines): не больше MAX_LINES строк и MAX_CHARS
+ символов, старые строки вытесняются. Показываются через JList с фиксированными
+ размерами ячейки, поэтому раскладываются и рисуются только видимые строки,
+ сколько бы их ни было в буфере.
+
+ Писать можно из любого потока: append копит текст в pending, а применение к списку
+ происходит на EDT не чаще раза в FRAME_MS — все добавления за кадр превращаются
+ в одно обновление модели. Таймер кадра запускается и срабатывает только на EDT.
+ Если за кадр пришло больше MAX_CHARS, в pending остаётся только хвост
+ (начало всё равно было бы вытеснено).
+ Консоль прокручивается вниз, пока пользователь сам не отмотал её вверх.
+ */
+@SuppressWarnings("serial")
+public final class OutputConsole extends JScrollPane implements ResultSink {
+    static final int MAX_LINES = 100_000;
+    static final int MAX_CHARS = 8 << 20;
+    // длиннее строки обрезаются при показе
+    static final int MAX_LINE_CHARS = 4096;
+    static final int FRAME_MS = 16;
+
+    private final Lines lines = new Lines(MAX_LINES, MAX_CHARS);
+    private final JList<String> list = new JList<>(lines);
+    private final Timer timer;
+    private final int charWidth;
+
+    // накопленный с прошлого кадра текст и число строк, отброшенных из него по лимиту
+    private final StringBuilder pending = new StringBuilder();
+    private long droppedLines;
+    private boolean scheduled;
+    // время последнего применения к списку (только EDT)
+    private long lastDrain = System.nanoTime() - 1_000_000_000L;
+
+    public OutputConsole() {
+        Font font = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+        list.setFont(font);
+        FontMetrics metrics = list.getFontMetrics(font);
+        charWidth = metrics.charWidth('m');
+        list.setFixedCellHeight(metrics.getHeight());
+        list.setFixedCellWidth(charWidth * 80);
+        list.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        setViewportView(list);
+        timer = new Timer(FRAME_MS, e -> drain());
+        timer.setRepeats(false);
+    }
+
+    @Override
+    public void append(CharSequence text) {
+        if (text.length() == 0) return;
+        synchronized (this) {
+            pending.append(text);
+            if (pending.length() > MAX_CHARS) trimPending();
+            if (scheduled) return;
+            scheduled = true;
+        }
+        SwingUtilities.invokeLater(this::schedule);
+    }
+
+    // на EDT: следующий кадр не раньше FRAME_MS после предыдущего
+    private void schedule() {
+        long wait = FRAME_MS - (System.nanoTime() - lastDrain) / 1_000_000;
+        if (wait <= 0) {
+            drain();
+            return;
+        }
+        timer.setInitialDelay((int) wait);
+        timer.restart();
+    }
+
+    // текст уже будет показан в ближайшем кадре, отдельный сброс не нужен
+    @Override
+    public void flush() {
+    }
+
+    // "Очистить экран": буфер и ещё не показанный текст
+    public void clear() {
+        synchronized (this) {
+            pending.setLength(0);
+            droppedLines = 0;
+        }
+        if (SwingUtilities.isEventDispatchThread()) resetList();
+        else SwingUtilities.invokeLater(this::resetList);
+    }
+
+    public int lineCount() {
+        return lines.getSize();
+    }
+
+    private void resetList() {
+        lines.clear();
+        list.setFixedCellWidth(charWidth * 80);
+    }
+
+    // в pending оставляем последние MAX_CHARS / 2 символов, начиная с целой строки
+    private void trimPending() {
+        int cut = pending.length() - MAX_CHARS / 2;
+        int nl = pending.indexOf("\n", cut);
+        cut = nl < 0 ? cut : nl + 1;
+        for (int i = 0; i < cut; i++) if (pending.charAt(i) == '\n') droppedLines++;
+        pending.delete(0, cut);
+    }
+
+    private void drain() {
+        String text;
+        long dropped;
+        synchronized (this) {
+            text = pending.toString();
+            dropped = droppedLines;
+            pending.setLength(0);
+            droppedLines = 0;
+            scheduled = false;
+        }
+        lastDrain = System.nanoTime();
+        JScrollBar bar = getVerticalScrollBar();
+        boolean atBottom = bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - list.getFixedCellHeight();
+        if (dropped > 0) lines.append("... пропущено строк: " + dropped + "\n");
+        lines.append(text);
+
+        int width = Math.min(lines.longest(), MAX_LINE_CHARS) * charWidth + 2 * charWidth;
+        if (width > list.getFixedCellWidth()) list.setFixedCellWidth(width);
+        if (atBottom && lines.getSize() > 0) list.ensureIndexIsVisible(lines.getSize() - 1);
+    }
+
+    /*
+     Кольцевой буфер строк как модель списка. Последняя строка может быть незавершённой
+     (текст без перевода строки) — следующий append её продолжает.
+     Изменения сообщаются слушателям одним событием на вид изменения.
+     */
+    static final class Lines extends AbstractListModel<String> {
+        private final String[] ring;
+        private final int maxChars;
+        private int head, size;
+        private long chars;
+        private boolean openTail;
+        private int longest;
+
+        Lines(int maxLines, int maxChars) {
+            this.ring = new String[maxLines];
+            this.maxChars = maxChars;
+        }
+
+        @Override
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            String s = ring[(head + index) % ring.length];
+            return s.length() > MAX_LINE_CHARS ? s.substring(0, MAX_LINE_CHARS) + "…" : s;
+        }
+
+        int longest() {
+            return longest;
+        }
+
+        void clear() {
+            int old = size;
+            Arrays.fill(ring, null);
+            head = size = 0;
+            chars = 0;
+            longest = 0;
+            openTail = false;
+            if (old > 0) fireIntervalRemoved(this, 0, old - 1);
+        }
+
+        void append(String text) {
+            if (text.isEmpty()) return;
+            int before = size;
+            boolean tailChanged = false, added = false;
+            int removed = 0;
+            int from = 0;
+            while (from < text.length()) {
+                int nl = text.indexOf('\n', from);
+                int end = nl < 0 ? text.length() : nl;
+                String part = text.substring(from, end);
+                if (openTail) {
+                    int last = (head + size - 1) % ring.length;
+                    chars += part.length();
+                    ring[last] = ring[last].concat(part);
+                    longest = Math.max(longest, ring[last].length());
+                    if (!added) tailChanged = true;
+                } else {
+                    if (size == ring.length) {
+                        removeFirst();
+                        removed++;
+                    }
+                    ring[(head + size) % ring.length] = part;
+                    size++;
+                    added = true;
+                    chars += part.length();
+                    longest = Math.max(longest, part.length());
+                }
+                openTail = nl < 0;
+                from = nl < 0 ? text.length() : nl + 1;
+            }
+            while (chars > maxChars && size > 1) {
+                removeFirst();
+                removed++;
+            }
+
+            // удалённые — с начала, добавленные — в конец; хвост до добавления мог измениться
+            int removedOld = Math.min(removed, before);
+            int kept = before - removedOld;
+            if (removedOld > 0) fireIntervalRemoved(this, 0, removedOld - 1);
+            if (tailChanged && kept > 0) fireContentsChanged(this, kept - 1, kept - 1);
+            if (size > kept) fireIntervalAdded(this, kept, size - 1);
+        }
+
+        private void removeFirst() {
+            chars -= ring[head].length();
+            ring[head] = null;
+            head = (head + 1) % ring.length;
+            size--;
+        }
+    }
+}
@@ -12,9 +12,16 @@ public class ArrayList<E> implements List<E> {
 
 
     private void ensureCapacity() {
-        if (size >= data.length) {
-            Object[] nd = new Object[data.length * 2];
-            for (int i = 0; i < data.length; i++) nd[i] = data[i];
+        if (size >= data.length) ensureCapacity(data.length * 2);
+    }
+
+
+    // заранее выделить место под minCapacity элементов; рост не меньше чем вдвое,
+    // чтобы частые пакеты (addVertices/addEdges) не копировали весь список каждый раз
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            Object[] nd = new Object[Math.max(minCapacity, 2 * data.length)];
+            System.arraycopy(data, 0, nd, 0, size);
             data = nd;
         }
     }
@@ -28,6 +35,7 @@ public class ArrayList<E> implements List<E> {
 
 
     @Override
+    @SuppressWarnings("unchecked")  // в data кладутся только E
     public E get(int index) {
         if (index < 0 || index >= size) return null;
         return (E) data[index];
@@ -37,11 +45,27 @@ public class ArrayList<E> implements List<E> {
     @Override
     public void removeAt(int index) {
         if (index < 0 || index >= size) return;
-        for (int i = index; i < size - 1; i++) data[i] = data[i + 1];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
         data[--size] = null;
     }
 
 
+    public void set(int index, E value) {
+        if (index < 0 || index >= size) return;
+        data[index] = value;
+    }
+
+
+    // удаление за O(1): на место index встаёт последний элемент; возвращает удалённый
+    public E swapRemove(int index) {
+        if (index < 0 || index >= size) return null;
+        E v = get(index);
+        data[index] = data[--size];
+        data[size] = null;
+        return v;
+    }
+
+
     @Override
     public int size() {
         return size;
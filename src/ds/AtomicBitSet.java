@@ -0,0 +1,42 @@
+package ds;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*потокобезопасное битовое множество фиксированного размера (CAS по 64-битным словам)*/
+public class AtomicBitSet {
+    private final AtomicLongArray words;
+    private final int size;
+
+
+    public AtomicBitSet(int size) {
+        this.size = size;
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+
+    public boolean get(int i) {
+        return (words.get(i >>> 6) & (1L << i)) != 0;
+    }
+
+
+    // атомарно установить бит; true — если именно этот вызов его установил
+    public boolean trySet(int i) {
+        int w = i >>> 6;
+        long mask = 1L << i;
+        while (true) {
+            long old = words.get(w);
+            if ((old & mask) != 0) return false;
+            if (words.compareAndSet(w, old, old | mask)) return true;
+        }
+    }
+
+
+    public void set(int i) {
+        trySet(i);
+    }
+
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,90 @@
+package ds;
+
+import java.util.Arrays;
+
+/*компактное множество неотрицательных int фиксированного размера (по биту на элемент)*/
+public class BitSet {
+    private final long[] words;
+    private final int size;
+
+
+    public BitSet(int size) {
+        this.size = size;
+        this.words = new long[(size + 63) >>> 6];
+    }
+
+
+    public boolean get(int i) {
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+
+    public void set(int i) {
+        words[i >>> 6] |= 1L << i;
+    }
+
+
+    public void clear(int i) {
+        words[i >>> 6] &= ~(1L << i);
+    }
+
+
+    // установить бит; true, если он был снят (удобно для "посетить, если ещё не посещена")
+    public boolean add(int i) {
+        int w = i >>> 6;
+        long mask = 1L << i;
+        long old = words[w];
+        if ((old & mask) != 0) return false;
+        words[w] = old | mask;
+        return true;
+    }
+
+
+    // следующий установленный бит начиная с from или -1
+    public int nextSetBit(int from) {
+        if (from >= size) return -1;
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                return i < size ? i : -1;
+            }
+            if (++w == words.length) return -1;
+            word = words[w];
+        }
+    }
+
+
+    // следующий снятый бит начиная с from или -1
+    public int nextClearBit(int from) {
+        if (from >= size) return -1;
+        int w = from >>> 6;
+        long word = ~words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                return i < size ? i : -1;
+            }
+            if (++w == words.length) return -1;
+            word = ~words[w];
+        }
+    }
+
+
+    public int cardinality() {
+        int c = 0;
+        for (long w : words) c += Long.bitCount(w);
+        return c;
+    }
+
+
+    public void clearAll() {
+        Arrays.fill(words, 0L);
+    }
+
+
+    public int size() {
+        return size;
+    }
+}
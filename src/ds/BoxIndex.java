@@ -0,0 +1,123 @@
+package ds;
+
+import java.util.Arrays;
+
+/*
+ Статический индекс прямоугольников 0..n-1 (охватывающих прямоугольников отрезков):
+ выборка всех прямоугольников, пересекающих запрос, без перебора всех.
+ Иерархия равномерных сеток: ячейка уровня k в 2^k раз больше ячейки уровня 0,
+ прямоугольник кладётся на самый мелкий уровень, где он не больше ячейки, в ячейку
+ своего левого верхнего угла. Запрос на каждом уровне расширяется на одну ячейку
+ влево и вверх, так что длинные отрезки не раздувают мелкие ячейки.
+ Ячейка уровня 0 подбирается так, чтобы на неё приходилось около CELL_LOAD прямоугольников.
+ Индекс строится за O(n) и не меняется: после изменения координат — новый build.
+ */
+public final class BoxIndex {
+    static final int CELL_LOAD = 2;
+
+    private int[] x0s = new int[0], y0s = new int[0], x1s = new int[0], y1s = new int[0];
+    private int n;
+    private int minX, minY, cell, levels;
+    // на уровень: число столбцов, строк и номер первой ячейки в общей нумерации
+    private int[] cols = new int[0], rows = new int[0], base = new int[0];
+    // прямоугольники, упорядоченные по ячейкам: ячейка c — items[start[c] .. start[c + 1])
+    private int[] start = new int[1], items = new int[0];
+
+    /*
+     Перестроение по прямоугольникам [x0s[i], x1s[i]] x [y0s[i], y1s[i]], i < n.
+     Массивы не копируются и до следующего build меняться не должны.
+     */
+    public void build(int[] x0s, int[] y0s, int[] x1s, int[] y1s, int n) {
+        this.x0s = x0s;
+        this.y0s = y0s;
+        this.x1s = x1s;
+        this.y1s = y1s;
+        this.n = n;
+        int bx0 = Integer.MAX_VALUE, by0 = Integer.MAX_VALUE;
+        int bx1 = Integer.MIN_VALUE, by1 = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            bx0 = Math.min(bx0, x0s[i]);
+            by0 = Math.min(by0, y0s[i]);
+            bx1 = Math.max(bx1, x1s[i]);
+            by1 = Math.max(by1, y1s[i]);
+        }
+        if (n == 0) bx0 = by0 = bx1 = by1 = 0;
+        long w = (long) bx1 - bx0 + 1, h = (long) by1 - by0 + 1;
+        minX = bx0;
+        minY = by0;
+        cell = (int) Math.max(1, Math.min(1 << 30, Math.ceil(Math.sqrt((double) w * h * CELL_LOAD / Math.max(1, n)))));
+        // вытянутая область не должна давать ячеек больше, чем прямоугольников
+        while (cell < 1 << 30 && cells(cell, w) * cells(cell, h) > 2L * n + 16) cell *= 2;
+
+        // уровни до того, где вся область — одна ячейка
+        levels = 1;
+        while (levels < 31 && ((long) cell << (levels - 1)) < Math.max(w, h)) levels++;
+        cols = new int[levels];
+        rows = new int[levels];
+        base = new int[levels + 1];
+        for (int k = 0; k < levels; k++) {
+            long size = (long) cell << k;
+            cols[k] = (int) cells(size, w);
+            rows[k] = (int) cells(size, h);
+            base[k + 1] = base[k] + cols[k] * rows[k];
+        }
+
+        // раскладка по ячейкам подсчётом
+        int total = base[levels];
+        int[] cellOf = new int[n];
+        start = new int[total + 1];
+        for (int i = 0; i < n; i++) {
+            int c = cellOf(i);
+            cellOf[i] = c;
+            start[c + 1]++;
+        }
+        for (int c = 0; c < total; c++) start[c + 1] += start[c];
+        int[] fill = Arrays.copyOf(start, total);
+        items = new int[n];
+        for (int i = 0; i < n; i++) items[fill[cellOf[i]]++] = i;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /*
+     Все прямоугольники, пересекающие [x0, x1] x [y0, y1] (границы включительно), дописываются в out.
+     */
+    public void query(int x0, int y0, int x1, int y1, IntArrayList out) {
+        if (n == 0 || x0 > x1 || y0 > y1) return;
+        for (int k = 0; k < levels; k++) {
+            long size = (long) cell << k;
+            int c0 = col(k, x0 - size), c1 = col(k, x1), r0 = row(k, y0 - size), r1 = row(k, y1);
+            for (int r = r0; r <= r1; r++) {
+                int first = base[k] + r * cols[k];
+                for (int j = start[first + c0]; j < start[first + c1 + 1]; j++) {
+                    int i = items[j];
+                    if (x0s[i] <= x1 && x1s[i] >= x0 && y0s[i] <= y1 && y1s[i] >= y0) out.add(i);
+                }
+            }
+        }
+    }
+
+    // уровень: самый мелкий, где большая сторона прямоугольника не больше ячейки
+    private int cellOf(int i) {
+        long extent = Math.max((long) x1s[i] - x0s[i], (long) y1s[i] - y0s[i]);
+        int k = 0;
+        while (k < levels - 1 && ((long) cell << k) < extent) k++;
+        return base[k] + row(k, y0s[i]) * cols[k] + col(k, x0s[i]);
+    }
+
+    private int col(int k, long x) {
+        long c = Math.floorDiv(x - minX, (long) cell << k);
+        return (int) Math.max(0, Math.min(cols[k] - 1, c));
+    }
+
+    private int row(int k, long y) {
+        long r = Math.floorDiv(y - minY, (long) cell << k);
+        return (int) Math.max(0, Math.min(rows[k] - 1, r));
+    }
+
+    private static long cells(long size, long length) {
+        return Math.max(1, (length + size - 1) / size);
+    }
+}
@@ -0,0 +1,149 @@
+package ds;
+
+import java.util.Arrays;
+
+/*
+ Равномерная сетка над точками 0..n-1 с целыми координатами: выборка точек
+ в прямоугольнике и поиск ближайшей точки в радиусе без перебора всех точек.
+ Ячейка подбирается при build так, чтобы на неё в среднем приходилось CELL_LOAD точек;
+ точки внутри ячейки связаны двусвязным списком (head / next / prev), поэтому
+ перемещение одной точки стоит O(1). Точки за границами сетки попадают в крайние
+ ячейки — выборка остаётся точной, только крайние ячейки становятся длиннее.
+ */
+public final class GridIndex {
+    static final int CELL_LOAD = 2;
+
+    private int[] xs, ys;
+    private int n;
+    private int minX, minY, cell, cols, rows;
+    private int[] head, next, prev, cellOf;
+
+    public GridIndex() {
+        build(new int[0], new int[0], 0);
+    }
+
+    /*
+     Перестроение по координатам xs[i], ys[i], i < n, за O(n).
+     Массивы координат не копируются: изменять их дальше можно только через move.
+     */
+    public void build(int[] xs, int[] ys, int n) {
+        this.xs = xs;
+        this.ys = ys;
+        this.n = n;
+        int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE;
+        int x1 = Integer.MIN_VALUE, y1 = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            x0 = Math.min(x0, xs[i]);
+            x1 = Math.max(x1, xs[i]);
+            y0 = Math.min(y0, ys[i]);
+            y1 = Math.max(y1, ys[i]);
+        }
+        if (n == 0) x0 = y0 = x1 = y1 = 0;
+        long w = (long) x1 - x0 + 1, h = (long) y1 - y0 + 1;
+        minX = x0;
+        minY = y0;
+        cell = (int) Math.max(1, Math.min(Integer.MAX_VALUE / 2, Math.ceil(Math.sqrt((double) w * h * CELL_LOAD / Math.max(1, n)))));
+        cols = (int) Math.max(1, (w + cell - 1) / cell);
+        rows = (int) Math.max(1, (h + cell - 1) / cell);
+        // вытянутый прямоугольник не должен давать ячеек больше, чем точек
+        while ((long) cols * rows > 2L * n + 16) {
+            cell *= 2;
+            cols = (int) Math.max(1, (w + cell - 1) / cell);
+            rows = (int) Math.max(1, (h + cell - 1) / cell);
+        }
+
+        if (head == null || head.length < cols * rows) head = new int[cols * rows];
+        Arrays.fill(head, 0, cols * rows, -1);
+        if (next == null || next.length < n) {
+            next = new int[n];
+            prev = new int[n];
+            cellOf = new int[n];
+        }
+        for (int i = 0; i < n; i++) link(i, cellAt(xs[i], ys[i]));
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int cellSize() {
+        return cell;
+    }
+
+    // перемещение точки i в (x, y): координаты записываются в массивы, переданные в build
+    public void move(int i, int x, int y) {
+        xs[i] = x;
+        ys[i] = y;
+        int c = cellAt(x, y);
+        if (c == cellOf[i]) return;
+        unlink(i);
+        link(i, c);
+    }
+
+    /*
+     Все точки в прямоугольнике [x0, x1] x [y0, y1] (границы включительно) дописываются в out.
+     Просматриваются только ячейки, пересекающие прямоугольник.
+     */
+    public void query(int x0, int y0, int x1, int y1, IntArrayList out) {
+        if (n == 0 || x0 > x1 || y0 > y1) return;
+        int c0 = col(x0), c1 = col(x1), r0 = row(y0), r1 = row(y1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int i = head[r * cols + c]; i >= 0; i = next[i]) {
+                    int x = xs[i], y = ys[i];
+                    if (x >= x0 && x <= x1 && y >= y0 && y <= y1) out.add(i);
+                }
+            }
+        }
+    }
+
+    // ближайшая к (x, y) точка не дальше radius или -1
+    public int nearest(int x, int y, int radius) {
+        if (n == 0) return -1;
+        int c0 = col(x - radius), c1 = col(x + radius), r0 = row(y - radius), r1 = row(y + radius);
+        long best = (long) radius * radius;
+        int found = -1;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int i = head[r * cols + c]; i >= 0; i = next[i]) {
+                    long dx = xs[i] - x, dy = ys[i] - y;
+                    long d = dx * dx + dy * dy;
+                    if (d <= best) {
+                        best = d;
+                        found = i;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private int col(int x) {
+        long c = ((long) x - minX) / cell;
+        return (int) Math.max(0, Math.min(cols - 1, x < minX ? -1 : c));
+    }
+
+    private int row(int y) {
+        long r = ((long) y - minY) / cell;
+        return (int) Math.max(0, Math.min(rows - 1, y < minY ? -1 : r));
+    }
+
+    private int cellAt(int x, int y) {
+        return row(y) * cols + col(x);
+    }
+
+    private void link(int i, int c) {
+        cellOf[i] = c;
+        prev[i] = -1;
+        next[i] = head[c];
+        if (head[c] >= 0) prev[head[c]] = i;
+        head[c] = i;
+    }
+
+    private void unlink(int i) {
+        int c = cellOf[i];
+        if (prev[i] >= 0) next[prev[i]] = next[i];
+        else head[c] = next[i];
+        if (next[i] >= 0) prev[next[i]] = prev[i];
+    }
+}
@@ -0,0 +1,141 @@
+package ds;
+
+import java.util.Arrays;
+
+/*
+ Индексированная d-арная куча с минимумом в корне по ключам long.
+ Элементы — целые id из [0, capacity); для каждого id хранится позиция в куче,
+ поэтому decreaseKey работает за O(log_d n) без поиска.
+ */
+public class IndexedDaryHeap {
+    private final int d;
+    private int[] heap;   // позиция -> id
+    private int[] pos;    // id -> позиция, -1 если id нет в куче
+    private long[] keys;  // id -> ключ
+    private int size;
+
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, 4);
+    }
+
+    public IndexedDaryHeap(int capacity, int d) {
+        if (d < 2) throw new IllegalArgumentException("d < 2");
+        this.d = d;
+        heap = new int[Math.max(capacity, 1)];
+        pos = new int[Math.max(capacity, 1)];
+        keys = new long[Math.max(capacity, 1)];
+        Arrays.fill(pos, -1);
+    }
+
+    public int capacity() {
+        return pos.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        return pos[id] >= 0;
+    }
+
+    public long key(int id) {
+        return keys[id];
+    }
+
+    public int peekMin() {
+        return heap[0];
+    }
+
+    public long minKey() {
+        return keys[heap[0]];
+    }
+
+    public void insert(int id, long key) {
+        keys[id] = key;
+        heap[size] = id;
+        pos[id] = size;
+        siftUp(size++);
+    }
+
+    public void decreaseKey(int id, long key) {
+        keys[id] = key;
+        siftUp(pos[id]);
+    }
+
+    // вставка или уменьшение ключа; true, если ключ изменился
+    public boolean offer(int id, long key) {
+        if (pos[id] < 0) {
+            insert(id, key);
+            return true;
+        }
+        if (key < keys[id]) {
+            decreaseKey(id, key);
+            return true;
+        }
+        return false;
+    }
+
+    public int pollMin() {
+        int min = heap[0];
+        pos[min] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            pos[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    // очистка за O(size), а не O(capacity)
+    public void clear() {
+        for (int i = 0; i < size; i++) pos[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        long k = keys[id];
+        while (i > 0) {
+            int parent = (i - 1) / d;
+            int p = heap[parent];
+            if (keys[p] <= k) break;
+            heap[i] = p;
+            pos[p] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        long k = keys[id];
+        while (true) {
+            int first = i * d + 1;
+            if (first >= size) break;
+            int last = Math.min(first + d, size);
+            int best = first;
+            long bestKey = keys[heap[first]];
+            for (int c = first + 1; c < last; c++) {
+                long ck = keys[heap[c]];
+                if (ck < bestKey) {
+                    best = c;
+                    bestKey = ck;
+                }
+            }
+            if (bestKey >= k) break;
+            int b = heap[best];
+            heap[i] = b;
+            pos[b] = i;
+            i = best;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+}
@@ -0,0 +1,96 @@
+package ds;
+
+/*двусторонняя очередь int на кольцевом буфере: вставка и извлечение с обоих концов за O(1)*/
+public class IntArrayDeque {
+    private int[] data;
+    private int head;   // индекс первого элемента
+    private int size;
+
+
+    public IntArrayDeque() {
+        this(16);
+    }
+
+
+    public IntArrayDeque(int capacity) {
+        int cap = 16;
+        while (cap < capacity) cap <<= 1;
+        data = new int[cap];
+    }
+
+
+    private void grow() {
+        int[] nd = new int[data.length * 2];
+        int firstPart = Math.min(size, data.length - head);
+        System.arraycopy(data, head, nd, 0, firstPart);
+        System.arraycopy(data, 0, nd, firstPart, size - firstPart);
+        data = nd;
+        head = 0;
+    }
+
+
+    public void addLast(int v) {
+        if (size == data.length) grow();
+        data[(head + size) & (data.length - 1)] = v;
+        size++;
+    }
+
+
+    public void addFirst(int v) {
+        if (size == data.length) grow();
+        head = (head - 1) & (data.length - 1);
+        data[head] = v;
+        size++;
+    }
+
+
+    public int pollFirst() {
+        if (size == 0) throw new IllegalStateException("deque is empty");
+        int v = data[head];
+        head = (head + 1) & (data.length - 1);
+        size--;
+        return v;
+    }
+
+
+    public int pollLast() {
+        if (size == 0) throw new IllegalStateException("deque is empty");
+        size--;
+        return data[(head + size) & (data.length - 1)];
+    }
+
+
+    public int peekFirst() {
+        if (size == 0) throw new IllegalStateException("deque is empty");
+        return data[head];
+    }
+
+
+    public int peekLast() {
+        if (size == 0) throw new IllegalStateException("deque is empty");
+        return data[(head + size - 1) & (data.length - 1)];
+    }
+
+
+    // i-й элемент от начала
+    public int get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        return data[(head + i) & (data.length - 1)];
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,115 @@
+package ds;
+
+import java.util.Arrays;
+
+/*динамический массив примитивных int без упаковки*/
+public class IntArrayList {
+    private int[] data;
+    private int size;
+
+
+    public IntArrayList() {
+        this(8);
+    }
+
+
+    public IntArrayList(int capacity) {
+        this.data = new int[Math.max(capacity, 1)];
+        this.size = 0;
+    }
+
+
+    // гарантирует место под minCapacity элементов; рост в 1.5 раза — амортизированно O(1)
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            int cap = Math.max(minCapacity, data.length + (data.length >> 1) + 1);
+            data = Arrays.copyOf(data, cap);
+        }
+    }
+
+
+    public void add(int value) {
+        if (size == data.length) ensureCapacity(size + 1);
+        data[size++] = value;
+    }
+
+
+    public void addAll(int[] values, int from, int count) {
+        ensureCapacity(size + count);
+        System.arraycopy(values, from, data, size, count);
+        size += count;
+    }
+
+
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return data[index];
+    }
+
+
+    public void set(int index, int value) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        data[index] = value;
+    }
+
+
+    // удаление со сдвигом хвоста, порядок сохраняется
+    public void removeAt(int index) {
+        if (index < 0 || index >= size) return;
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+    }
+
+
+    // удаление за O(1): на место index встаёт последний элемент
+    public int swapRemove(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        int v = data[index];
+        data[index] = data[--size];
+        return v;
+    }
+
+
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++) if (data[i] == value) return i;
+        return -1;
+    }
+
+
+    public int removeLast() {
+        if (size == 0) throw new IndexOutOfBoundsException(0);
+        return data[--size];
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    public void clear() {
+        size = 0;
+    }
+
+
+    public void sort() {
+        Arrays.sort(data, 0, size);
+    }
+
+
+    // копия содержимого
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+
+    // внутренний массив без копирования (валидны первые size() элементов)
+    public int[] rawArray() {
+        return data;
+    }
+}
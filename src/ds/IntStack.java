@@ -0,0 +1,59 @@
+package ds;
+
+import java.util.Arrays;
+
+/*стек примитивных int на массиве*/
+public class IntStack {
+    private int[] data;
+    private int size;
+
+
+    public IntStack() {
+        this(16);
+    }
+
+
+    public IntStack(int capacity) {
+        data = new int[Math.max(capacity, 1)];
+    }
+
+
+    public void push(int v) {
+        if (size == data.length) data = Arrays.copyOf(data, data.length + (data.length >> 1) + 1);
+        data[size++] = v;
+    }
+
+
+    public int pop() {
+        if (size == 0) throw new IllegalStateException("stack is empty");
+        return data[--size];
+    }
+
+
+    public int peek() {
+        if (size == 0) throw new IllegalStateException("stack is empty");
+        return data[size - 1];
+    }
+
+
+    // изменить верхний элемент без pop/push
+    public void setTop(int v) {
+        if (size == 0) throw new IllegalStateException("stack is empty");
+        data[size - 1] = v;
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    public void clear() {
+        size = 0;
+    }
+}
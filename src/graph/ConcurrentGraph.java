@@ -0,0 +1,563 @@
+package graph;
+
+import ds.ArrayList;
+import ds.List;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ Граф для одновременной работы писателей и читателей.
+ Состояние — неизменяемая версия: вершины лежат в персистентном 64-арном дереве по id
+ (Trie), у каждой вершины свой неизменяемый Node со списками исходящих и входящих рёбер.
+ Писатель под общей блокировкой строит новую версию копированием пути в дереве
+ (O(log64 n) массивов на изменённую вершину) и публикует её одной volatile-записью,
+ поэтому операция (в том числе removeVertex со всеми входящими рёбрами) видна целиком или никак.
+ Читатель берёт snapshot() за O(1) без блокировок и работает с ним сколько угодно долго.
+ Добавление ребра не копирует список соседей: новый Node использует тот же массив, если
+ в нём есть место, — старые версии читают только свой префикс [0, size).
+ Id вершины закрепляется за значением навсегда (повторное добавление после удаления
+ получает тот же id), удалённая вершина в версии — пустой слот.
+
+ Почему одна блокировка, а не полосы или CAS: любая запись заканчивается заменой одного
+ корня, иначе snapshot() не был бы согласованным за O(1). Полосы всё равно сходились бы
+ на этой публикации, а оптимистичный CAS корня повторял бы всю работу при столкновении
+ и потерял бы общий edgeIndex (проверка дубликата стала бы O(степень)) и дописывание
+ в общий массив соседей. Запись под блокировкой — около 1.3 мкс, и четыре писателя
+ дают ту же суммарную пропускную способность, что и один
+ (ConcurrentGraphBenchmark.writers1 / writers4).
+ */
+public class ConcurrentGraph<V> {
+    private final boolean directed;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ConcurrentHashMap<V, Integer> ids = new ConcurrentHashMap<>();
+    // множество рёбер для отсева дубликатов, только под writeLock
+    private final EdgeIndex edgeIndex = new EdgeIndex();
+    private int nextId;
+    private volatile Snapshot<V> current;
+
+    public ConcurrentGraph(boolean directed) {
+        this.directed = directed;
+        current = new Snapshot<>(directed, Trie.EMPTY, 0, 0, 0, 0, ids);
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    // согласованная версия графа на текущий момент, O(1)
+    public Snapshot<V> snapshot() {
+        return current;
+    }
+
+    public long version() {
+        return current.version;
+    }
+
+    public int vertexCount() {
+        return current.vertices;
+    }
+
+    public int edgeCount() {
+        return current.edges;
+    }
+
+    public boolean containsVertex(V v) {
+        return current.contains(v);
+    }
+
+    public boolean containsEdge(V from, V to) {
+        return current.containsEdge(from, to);
+    }
+
+    public List<V> getAdjacent(V v) {
+        return current.getAdjacent(v);
+    }
+
+    public List<V> dfs(V start) {
+        return current.dfs(start);
+    }
+
+    public List<V> bfs(V start) {
+        return current.bfs(start);
+    }
+
+    // CSR-снимок текущей версии для GraphAlgorithms
+    public CsrGraph<V> freeze() {
+        return current.freeze();
+    }
+
+    public void addVertex(V v) {
+        if (v == null) return;
+        writeLock.lock();
+        try {
+            Edit<V> e = new Edit<>(current);
+            addVertex(e, v);
+            publish(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void addEdge(V from, V to, int weight) {
+        if (from == null || to == null) return;
+        writeLock.lock();
+        try {
+            Edit<V> e = new Edit<>(current);
+            addEdge(e, from, to, weight);
+            publish(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /*
+     Пакет рёбер одной версией (одна публикация и одно копирование путей на пакет).
+     Отсутствующие вершины создаются; дубликаты пропускаются. Возвращает число добавленных рёбер.
+     */
+    public int addEdges(V[] from, V[] to, int[] weights) {
+        int count = Math.min(from.length, to.length);
+        writeLock.lock();
+        try {
+            Edit<V> e = new Edit<>(current);
+            int added = 0;
+            for (int i = 0; i < count; i++) {
+                if (from[i] == null || to[i] == null) continue;
+                addVertex(e, from[i]);
+                addVertex(e, to[i]);
+                if (addEdge(e, from[i], to[i], weights == null ? 1 : weights[i])) added++;
+            }
+            publish(e);
+            return added;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void removeVertex(V v) {
+        if (v == null) return;
+        writeLock.lock();
+        try {
+            Integer boxed = ids.get(v);
+            if (boxed == null) return;
+            int id = boxed;
+            Edit<V> e = new Edit<>(current);
+            Node<V> node = e.node(id);
+            if (node == null) return;
+            // соседи трогаются только через списки самой вершины
+            for (int i = 0; i < node.outSize; i++) {
+                int t = node.out[i];
+                edgeIndex.remove(id, t);
+                if (directed && t != id) e.set(t, e.node(t).withoutIn(id));
+                e.edges--;
+            }
+            if (directed) {
+                for (int i = 0; i < node.inSize; i++) {
+                    int s = node.in[i];
+                    if (s == id) continue;
+                    edgeIndex.remove(s, id);
+                    e.set(s, e.node(s).withoutOut(id));
+                    e.edges--;
+                }
+            } else {
+                // зеркальные рёбра: у соседа t исходящее t -> id
+                for (int i = 0; i < node.outSize; i++) {
+                    int t = node.out[i];
+                    if (t == id) continue;
+                    edgeIndex.remove(t, id);
+                    e.set(t, e.node(t).withoutOut(id));
+                    e.edges--;
+                }
+            }
+            e.set(id, null);
+            e.vertices--;
+            publish(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void removeEdge(V from, V to) {
+        if (from == null || to == null) return;
+        writeLock.lock();
+        try {
+            Integer f = ids.get(from), t = ids.get(to);
+            if (f == null || t == null || !edgeIndex.remove(f, t)) return;
+            Edit<V> e = new Edit<>(current);
+            unlink(e, f, t);
+            e.edges--;
+            if (!directed && f.intValue() != t.intValue()) {
+                edgeIndex.remove(t, f);
+                unlink(e, t, f);
+                e.edges--;
+            }
+            publish(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void unlink(Edit<V> e, int f, int t) {
+        e.set(f, e.node(f).withoutOut(t));
+        if (directed) e.set(t, e.node(t).withoutIn(f));
+    }
+
+    private void addVertex(Edit<V> e, V v) {
+        Integer boxed = ids.get(v);
+        int id;
+        if (boxed == null) {
+            id = nextId++;
+            ids.put(v, id);
+        } else {
+            id = boxed;
+            if (e.node(id) != null) return;
+        }
+        e.set(id, new Node<>(v));
+        e.vertices++;
+        e.bound = Math.max(e.bound, id + 1);
+    }
+
+    private boolean addEdge(Edit<V> e, V from, V to, int weight) {
+        Integer f = ids.get(from), t = ids.get(to);
+        if (f == null || t == null || e.node(f) == null || e.node(t) == null) return false;
+        if (edgeIndex.contains(f, t) || (!directed && edgeIndex.contains(t, f))) return false;
+        edgeIndex.add(f, t);
+        e.set(f, e.node(f).withOut(t, weight));
+        if (directed) {
+            if (f.intValue() != t.intValue()) e.set(t, e.node(t).withIn(f));
+            else e.set(f, e.node(f).withIn(f));
+        } else if (f.intValue() != t.intValue()) {
+            edgeIndex.add(t, f);
+            e.set(t, e.node(t).withOut(f, weight));
+            e.edges++;
+        }
+        e.edges++;
+        return true;
+    }
+
+    private void publish(Edit<V> e) {
+        if (!e.changed) return;
+        Snapshot<V> old = current;
+        current = new Snapshot<>(directed, e.root, e.shift, e.bound, e.vertices, e.edges, ids, old.version + 1);
+    }
+
+    /*
+     Неизменяемая версия графа. Реализует GraphView по id: вершины — слоты [0, vertexCount()),
+     удалённые и ещё не занятые слоты — изолированные вершины (contains(id) == false).
+     */
+    public static final class Snapshot<V> implements GraphView {
+        private final boolean directed;
+        private final Object[] root;
+        private final int shift;
+        private final int bound;
+        final int vertices, edges;
+        final long version;
+        private final ConcurrentHashMap<V, Integer> ids;
+        private volatile CsrGraph<V> csr;
+
+        Snapshot(boolean directed, Object[] root, int shift, int bound, int vertices, int edges,
+                 ConcurrentHashMap<V, Integer> ids) {
+            this(directed, root, shift, bound, vertices, edges, ids, 0);
+        }
+
+        Snapshot(boolean directed, Object[] root, int shift, int bound, int vertices, int edges,
+                 ConcurrentHashMap<V, Integer> ids, long version) {
+            this.directed = directed;
+            this.root = root;
+            this.shift = shift;
+            this.bound = bound;
+            this.vertices = vertices;
+            this.edges = edges;
+            this.ids = ids;
+            this.version = version;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        // число существующих вершин (в отличие от vertexCount — границы id)
+        public int size() {
+            return vertices;
+        }
+
+        @Override
+        public boolean isDirected() {
+            return directed;
+        }
+
+        @Override
+        public int vertexCount() {
+            return bound;
+        }
+
+        // число рёбер как в CsrGraph: неориентированное ребро хранится в обе стороны
+        @Override
+        public int edgeCount() {
+            return edges;
+        }
+
+        @Override
+        public int degree(int v) {
+            Node<V> node = node(v);
+            return node == null ? 0 : node.outSize;
+        }
+
+        @Override
+        public int target(int v, int i) {
+            return node(v).out[i];
+        }
+
+        @Override
+        public int weight(int v, int i) {
+            return node(v).weight[i];
+        }
+
+        public boolean contains(int id) {
+            return id >= 0 && id < bound && node(id) != null;
+        }
+
+        public boolean contains(V v) {
+            return idOf(v) >= 0;
+        }
+
+        // id вершины в этой версии или -1
+        public int idOf(V v) {
+            if (v == null) return -1;
+            Integer id = ids.get(v);
+            return id != null && contains(id) ? id : -1;
+        }
+
+        public V value(int id) {
+            Node<V> node = contains(id) ? node(id) : null;
+            return node == null ? null : node.value;
+        }
+
+        public boolean containsEdge(V from, V to) {
+            int f = idOf(from), t = idOf(to);
+            if (f < 0 || t < 0) return false;
+            Node<V> node = node(f);
+            for (int i = 0; i < node.outSize; i++) if (node.out[i] == t) return true;
+            return false;
+        }
+
+        public List<V> getAdjacent(V v) {
+            ArrayList<V> res = new ArrayList<>();
+            int id = idOf(v);
+            if (id < 0) return res;
+            Node<V> node = node(id);
+            res.ensureCapacity(node.outSize);
+            for (int i = 0; i < node.outSize; i++) res.add(node(node.out[i]).value);
+            return res;
+        }
+
+        public List<V> dfs(V start) {
+            int s = idOf(start);
+            return values(s < 0 ? new int[0] : Traversals.dfsOrder(this, s));
+        }
+
+        public List<V> bfs(V start) {
+            int s = idOf(start);
+            return values(s < 0 ? new int[0] : Traversals.bfsOrder(this, s));
+        }
+
+        private List<V> values(int[] order) {
+            ArrayList<V> res = new ArrayList<>();
+            res.ensureCapacity(order.length);
+            for (int id : order) res.add(node(id).value);
+            return res;
+        }
+
+        // плотный CSR-снимок этой версии (строится один раз, порядок вершин — по id)
+        public CsrGraph<V> freeze() {
+            CsrGraph<V> g = csr;
+            if (g != null) return g;
+            synchronized (this) {
+                if (csr != null) return csr;
+                int[] dense = new int[bound];
+                Object[] values = new Object[vertices];
+                int[] offsets = new int[vertices + 1];
+                int k = 0;
+                for (int id = 0; id < bound; id++) {
+                    Node<V> node = node(id);
+                    if (node == null) continue;
+                    dense[id] = k;
+                    values[k] = node.value;
+                    offsets[k + 1] = offsets[k] + node.outSize;
+                    k++;
+                }
+                int[] targets = new int[offsets[k]];
+                int[] weights = new int[offsets[k]];
+                int p = 0;
+                for (int id = 0; id < bound; id++) {
+                    Node<V> node = node(id);
+                    if (node == null) continue;
+                    for (int i = 0; i < node.outSize; i++) {
+                        targets[p] = dense[node.out[i]];
+                        weights[p++] = node.weight[i];
+                    }
+                }
+                csr = g = new CsrGraph<>(directed, values, offsets, targets, weights);
+                return g;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Node<V> node(int id) {
+            return (Node<V>) Trie.get(root, shift, id);
+        }
+    }
+
+    // вершина в одной версии; массивы могут разделяться с соседними версиями (читается только префикс)
+    private static final class Node<V> {
+        final V value;
+        final int[] out, weight;
+        final int outSize;
+        final int[] in;      // источники входящих рёбер (только для ориентированного графа)
+        final int inSize;
+
+        Node(V value) {
+            this(value, Trie.NO_INTS, Trie.NO_INTS, 0, Trie.NO_INTS, 0);
+        }
+
+        private Node(V value, int[] out, int[] weight, int outSize, int[] in, int inSize) {
+            this.value = value;
+            this.out = out;
+            this.weight = weight;
+            this.outSize = outSize;
+            this.in = in;
+            this.inSize = inSize;
+        }
+
+        /*
+         Дописать в конец. Слот outSize свободен во всех версиях, разделяющих массив:
+         писатель один, а дописывают всегда к последней версии вершины.
+         */
+        Node<V> withOut(int t, int w) {
+            int[] o = out, ws = weight;
+            if (outSize == o.length) {
+                int cap = Math.max(4, outSize * 2);
+                o = Arrays.copyOf(o, cap);
+                ws = Arrays.copyOf(ws, cap);
+            }
+            o[outSize] = t;
+            ws[outSize] = w;
+            return new Node<>(value, o, ws, outSize + 1, in, inSize);
+        }
+
+        Node<V> withIn(int s) {
+            int[] i = inSize == in.length ? Arrays.copyOf(in, Math.max(4, inSize * 2)) : in;
+            i[inSize] = s;
+            return new Node<>(value, out, weight, outSize, i, inSize + 1);
+        }
+
+        // удаление — всегда в новые массивы (старые версии продолжают их читать)
+        Node<V> withoutOut(int t) {
+            for (int k = 0; k < outSize; k++) {
+                if (out[k] != t) continue;
+                int[] o = Arrays.copyOf(out, outSize);
+                int[] ws = Arrays.copyOf(weight, outSize);
+                o[k] = o[outSize - 1];
+                ws[k] = ws[outSize - 1];
+                return new Node<>(value, o, ws, outSize - 1, in, inSize);
+            }
+            return this;
+        }
+
+        Node<V> withoutIn(int s) {
+            for (int k = 0; k < inSize; k++) {
+                if (in[k] != s) continue;
+                int[] i = Arrays.copyOf(in, inSize);
+                i[k] = i[inSize - 1];
+                return new Node<>(value, out, weight, outSize, i, inSize - 1);
+            }
+            return this;
+        }
+    }
+
+    // изменения одной операции: копии узлов дерева, созданные в ней, правятся на месте
+    private static final class Edit<V> {
+        final Object token = new Object();
+        Object[] root;
+        int shift;
+        int bound, vertices, edges;
+        boolean changed;
+
+        Edit(Snapshot<V> s) {
+            root = s.root;
+            shift = s.shift;
+            bound = s.bound;
+            vertices = s.vertices;
+            edges = s.edges;
+        }
+
+        @SuppressWarnings("unchecked")
+        Node<V> node(int id) {
+            return (Node<V>) Trie.get(root, shift, id);
+        }
+
+        void set(int id, Node<V> node) {
+            while (id >= Trie.capacity(shift)) {
+                Object[] grown = Trie.newNode(token);
+                grown[0] = root;
+                root = grown;
+                shift += Trie.BITS;
+            }
+            root = Trie.set(root, shift, id, node, token);
+            changed = true;
+        }
+    }
+
+    /*
+     Персистентный массив: 64-арное дерево массивов Object[65], последний элемент —
+     метка операции, создавшей узел (узлы своей операции меняются без копирования).
+     */
+    static final class Trie {
+        static final int BITS = 6;
+        static final int WIDTH = 1 << BITS;
+        static final int MASK = WIDTH - 1;
+        static final Object[] EMPTY = new Object[WIDTH + 1];
+        static final int[] NO_INTS = new int[0];
+
+        private Trie() {
+        }
+
+        static Object[] newNode(Object token) {
+            Object[] node = new Object[WIDTH + 1];
+            node[WIDTH] = token;
+            return node;
+        }
+
+        static long capacity(int shift) {
+            return 1L << (shift + BITS);
+        }
+
+        static Object get(Object[] root, int shift, int id) {
+            if (id < 0 || id >= capacity(shift)) return null;
+            Object[] node = root;
+            for (int s = shift; s > 0; s -= BITS) {
+                node = (Object[]) node[(id >>> s) & MASK];
+                if (node == null) return null;
+            }
+            return node[id & MASK];
+        }
+
+        static Object[] set(Object[] node, int shift, int id, Object value, Object token) {
+            Object[] copy = node == null ? newNode(token) : node[WIDTH] == token ? node : copy(node, token);
+            if (shift == 0) {
+                copy[id & MASK] = value;
+            } else {
+                int slot = (id >>> shift) & MASK;
+                copy[slot] = set((Object[]) copy[slot], shift - BITS, id, value, token);
+            }
+            return copy;
+        }
+
+        private static Object[] copy(Object[] node, Object token) {
+            Object[] copy = node.clone();
+            copy[WIDTH] = token;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package graph;
+
+/*
+ Неизменяемый снимок графа в формате CSR (compressed sparse row).
+ Вершины пронумерованы плотно 0..n-1 (в порядке Graph.getVertices()),
+ рёбра вершины v лежат в targets/weights на отрезке [offsets[v], offsets[v + 1]).
+ Обратный CSR (входящие рёбра) строится по требованию.
+ Координаты вершин (x/y раскладки) снимаются вместе со снимком, если они есть.
+ Снимок IntGraph (ofIds) не хранит значений: значение вершины — её номер,
+ Integer создаётся только при вызове value.
+ Снимок Graph помнит граф и его версию: после перемещения вершин снимок новый,
+ но sameStructure показывает, что вершины и рёбра в нём те же.
+
+ Массивы отдаются без копирования — их нельзя изменять.
+ */
+public final class CsrGraph<V> implements GraphView {
+    private final boolean directed;
+    private final int n;
+    // значения вершин; null — значение совпадает с номером (ofIds)
+    private final Object[] values;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final VertexIndex<V> index;
+    private final int[] xs, ys;  // координаты вершин или null
+    // граф-источник и его версия (null, -1 — снимок собран не из Graph)
+    private final Object origin;
+    private final long version;
+    // min(вес / длина ребра) по координатам; NaN — ещё не посчитан (см. minWeightPerLength)
+    private volatile double weightPerLength = Double.NaN;
+
+    // обратный CSR: для вершины v — источники входящих рёбер
+    private volatile int[] revOffsets;
+    private int[] revSources;
+    private int[] revWeights;
+
+    CsrGraph(boolean directed, Object[] values, int[] offsets, int[] targets, int[] weights) {
+        this(directed, values, offsets, targets, weights, null, null, null, -1);
+    }
+
+    CsrGraph(boolean directed, Object[] values, int[] offsets, int[] targets, int[] weights, int[] xs, int[] ys,
+             Object origin, long version) {
+        this.directed = directed;
+        this.origin = origin;
+        this.version = version;
+        this.n = values.length;
+        this.values = values;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.xs = xs;
+        this.ys = ys;
+        this.index = new VertexIndex<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            @SuppressWarnings("unchecked") V v = (V) values[i];
+            index.put(v, i);
+        }
+    }
+
+    // тот же граф с другими координатами (массивы и индекс общие, обратный CSR строится заново)
+    private CsrGraph(CsrGraph<V> g, int[] xs, int[] ys) {
+        this.directed = g.directed;
+        this.n = g.n;
+        this.values = g.values;
+        this.offsets = g.offsets;
+        this.targets = g.targets;
+        this.weights = g.weights;
+        this.index = g.index;
+        this.xs = xs;
+        this.ys = ys;
+        this.origin = g.origin;
+        this.version = g.version;
+    }
+
+    /*
+     Сборка снимка из готовых массивов (например, для графа конденсации).
+     offsets должен иметь длину values.length + 1.
+     */
+    public static <V> CsrGraph<V> of(boolean directed, V[] values, int[] offsets, int[] targets, int[] weights) {
+        if (offsets.length != values.length + 1) throw new IllegalArgumentException("offsets.length != n + 1");
+        if (targets.length != weights.length) throw new IllegalArgumentException("targets.length != weights.length");
+        return new CsrGraph<>(directed, values.clone(), offsets, targets, weights);
+    }
+
+    // снимок без значений: вершина i имеет значение i (для IntGraph.freeze)
+    CsrGraph(boolean directed, int[] offsets, int[] targets, int[] weights) {
+        this.directed = directed;
+        this.n = offsets.length - 1;
+        this.values = null;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.index = null;
+        this.xs = null;
+        this.ys = null;
+        this.origin = null;
+        this.version = -1;
+    }
+
+    /*
+     Снимок с вершинами 0..offsets.length-2, значение вершины — её номер.
+     Массивы не копируются.
+     */
+    public static CsrGraph<Integer> ofIds(boolean directed, int[] offsets, int[] targets, int[] weights) {
+        if (offsets.length == 0) throw new IllegalArgumentException("offsets.length == 0");
+        if (targets.length != weights.length) throw new IllegalArgumentException("targets.length != weights.length");
+        return new CsrGraph<>(directed, offsets, targets, weights);
+    }
+
+    // снимок с координатами вершин xs[v], ys[v] (например, для эвристики A*)
+    public CsrGraph<V> withCoordinates(int[] xs, int[] ys) {
+        if (xs.length != n || ys.length != n)
+            throw new IllegalArgumentException("coordinates length != n");
+        return new CsrGraph<>(this, xs, ys);
+    }
+
+    public boolean hasCoordinates() {
+        return xs != null;
+    }
+
+    public int x(int v) {
+        return xs[v];
+    }
+
+    /*
+     Наименьшее отношение веса ребра к его евклидовой длине по координатам снимка
+     (рёбра нулевой длины пропускаются); +inf — таких рёбер нет или нет координат.
+     Считается один раз на снимок за O(E) — это масштаб эвристики A*.
+     */
+    public double minWeightPerLength() {
+        double k = weightPerLength;
+        if (!Double.isNaN(k)) return k;
+        k = Double.POSITIVE_INFINITY;
+        if (xs != null) {
+            for (int v = 0; v < n; v++) {
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    double len = Math.hypot(xs[v] - xs[targets[e]], ys[v] - ys[targets[e]]);
+                    if (len > 0) k = Math.min(k, weights[e] / len);
+                }
+            }
+        }
+        weightPerLength = k;
+        return k;
+    }
+
+    public int y(int v) {
+        return ys[v];
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /*
+     true, если other — тот же снимок или снимок того же Graph той же версии
+     (отличаться могут только координаты вершин).
+     */
+    public boolean sameStructure(CsrGraph<?> other) {
+        return other == this || (other != null && origin != null && origin == other.origin && version == other.version);
+    }
+
+    @Override
+    public int vertexCount() {
+        return n;
+    }
+
+    @Override
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V value(int v) {
+        if (values == null) {
+            if (v < 0 || v >= n) throw new ArrayIndexOutOfBoundsException(v);
+            return (V) Integer.valueOf(v);
+        }
+        return (V) values[v];
+    }
+
+    // плотный id вершины или -1
+    public int indexOf(V value) {
+        if (index != null) return index.get(value);
+        return value instanceof Integer i && i >= 0 && i < n ? i : -1;
+    }
+
+    @Override
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    @Override
+    public int target(int v, int i) {
+        return targets[offsets[v] + i];
+    }
+
+    @Override
+    public int weight(int v, int i) {
+        return weights[offsets[v] + i];
+    }
+
+    public int[] offsets() {
+        return offsets;
+    }
+
+    public int[] targets() {
+        return targets;
+    }
+
+    public int[] weights() {
+        return weights;
+    }
+
+    public int[] reverseOffsets() {
+        buildReverse();
+        return revOffsets;
+    }
+
+    public int[] reverseSources() {
+        buildReverse();
+        return revSources;
+    }
+
+    public int[] reverseWeights() {
+        buildReverse();
+        return revWeights;
+    }
+
+    public boolean hasReverse() {
+        return revOffsets != null;
+    }
+
+    // построение обратного CSR подсчётом входящих степеней, O(V + E)
+    void buildReverse() {
+        if (revOffsets != null) return;
+        synchronized (this) {
+            if (revOffsets != null) return;
+            int[] off = new int[n + 1];
+            for (int t : targets) off[t + 1]++;
+            for (int i = 0; i < n; i++) off[i + 1] += off[i];
+
+            int[] pos = new int[n];
+            System.arraycopy(off, 0, pos, 0, n);
+            int[] src = new int[targets.length];
+            int[] w = new int[targets.length];
+            for (int v = 0; v < n; v++) {
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int p = pos[targets[e]]++;
+                    src[p] = v;
+                    w[p] = weights[e];
+                }
+            }
+            revSources = src;
+            revWeights = w;
+            revOffsets = off; // публикуем последним (volatile)
+        }
+    }
+}
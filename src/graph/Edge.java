@@ -3,6 +3,8 @@ package graph;
 public class Edge<V> {
     public V to;
     public int weight;
+    int target = -1;  // id вершины to (заполняет Graph)
+    int back = -1;    // позиция источника во входящем списке target (ориентированный Graph)
 
 
     public Edge(V to, int weight) {
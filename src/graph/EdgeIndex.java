@@ -0,0 +1,149 @@
+package graph;
+
+import java.util.Arrays;
+
+/*
+ Множество рёбер (пар id "откуда -> куда") на открытой адресации.
+ Ключ ребра упаковывается в long, поэтому проверка дубликата — O(1) в среднем
+ без создания объектов. К ребру можно привязать int (Graph хранит позицию ребра
+ в списке рёбер вершины, чтобы удалять его за O(1)).
+ */
+class EdgeIndex {
+    // id вершин неотрицательны, поэтому -1 никогда не встречается как ключ
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    EdgeIndex() {
+        keys = new long[16];
+        values = new int[16];
+        Arrays.fill(keys, EMPTY);
+        mask = keys.length - 1;
+    }
+
+    // заранее расширить таблицу под expected рёбер
+    void ensureCapacity(int expected) {
+        int cap = keys.length;
+        while (expected * 4L > cap * 3L) cap <<= 1;
+        if (cap > keys.length) rehash(cap);
+    }
+
+    static long key(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    boolean contains(int from, int to) {
+        return find(from, to) >= 0;
+    }
+
+    // слот ребра или -1
+    private int find(int from, int to) {
+        long k = key(from, to);
+        int i = slot(k, mask);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == k) return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    // привязанное к ребру значение или -1, если ребра нет
+    int get(int from, int to) {
+        int i = find(from, to);
+        return i < 0 ? -1 : values[i];
+    }
+
+    // новое значение для существующего ребра
+    void set(int from, int to, int value) {
+        int i = find(from, to);
+        if (i >= 0) values[i] = value;
+    }
+
+    // true, если ребра ещё не было
+    boolean add(int from, int to) {
+        return add(from, to, 0);
+    }
+
+    // true, если ребра ещё не было (значение существующего ребра не меняется)
+    boolean add(int from, int to, int value) {
+        if ((size + 1) * 4 > keys.length * 3) grow();
+        long k = key(from, to);
+        int i = slot(k, mask);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == k) return false;
+            i = (i + 1) & mask;
+        }
+        keys[i] = k;
+        values[i] = value;
+        size++;
+        return true;
+    }
+
+    boolean remove(int from, int to) {
+        long k = key(from, to);
+        int i = slot(k, mask);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == k) {
+                shiftBack(i);
+                size--;
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    private void shiftBack(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            long k = keys[i];
+            if (k == EMPTY) break;
+            int home = slot(k, mask);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = k;
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = EMPTY;
+    }
+
+    private void grow() {
+        rehash(keys.length * 2);
+    }
+
+    private void rehash(int capacity) {
+        long[] old = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = keys.length - 1;
+        for (int j = 0; j < old.length; j++) {
+            long k = old[j];
+            if (k == EMPTY) continue;
+            int i = slot(k, mask);
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = k;
+            values[i] = oldValues[j];
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -1,22 +1,55 @@
 package graph;
 
 import ds.ArrayList;
+import ds.BitSet;
+import ds.IntArrayList;
+import ds.IntStack;
 import ds.List;
-import util.Queue;
+import util.ResultSink;
 
-import javax.swing.JTextArea;
-import java.util.Objects;
+import java.util.Arrays;
 import java.util.Random;
 
 /*
  Универсальный класс графа.
  Поддерживает ориентированный/неориентированный вариант (флаг directed).
  Хранит вершины в ArrayList и рёбра внутри Vertex.
+ Поиск вершины по значению и проверка дубликатов рёбер идут через хеш-индексы
+ (VertexIndex, EdgeIndex), каждой вершине выдаётся стабильный целочисленный id.
+
+ Удаление без просмотра всего графа: EdgeIndex помнит позицию ребра в списке рёбер,
+ ребро удаляется перестановкой последнего на его место (порядок рёбер вершины не сохраняется),
+ входящие рёбра ориентированного графа ищутся по списку источников incoming.
+ Удалённая вершина оставляет в списке вершин пустой слот; список уплотняется
+ при накоплении пустот или по требованию (compact, getVertices, freeze).
  */
 public class Graph<V> {
 
-    // Список вершин
+    // Список вершин (удалённые до уплотнения — null) и число пустых слотов
     private ArrayList<Vertex<V>> vertices = new ArrayList<>();
+    private int holes;
+
+    // Индекс "значение -> id" и таблица "id -> вершина" (удалённые слоты = null)
+    private VertexIndex<V> index = new VertexIndex<>();
+    private Vertex<V>[] byId = newSlots(16);
+    private int nextId;
+
+    // Множество рёбер по парам id; значение — позиция ребра в списке рёбер источника
+    private EdgeIndex edgeIndex = new EdgeIndex();
+
+    // Входящие рёбра ориентированного графа: id источников (позиция в списке — Edge.back)
+    private IntArrayList[] incoming;
+
+    // Динамический топологический порядок (только для ориентированного графа)
+    private TopoOrder topo;
+
+    // Номер версии: растёт при каждом изменении вершин или рёбер
+    private long version;
+    // Последний CSR-снимок и версия, для которой он снят
+    private CsrGraph<V> snapshot;
+    private long snapshotVersion = -1;
+
+    private final Random random = new Random();
 
     // Флаг: ориентированный или нет
     private boolean directed;
@@ -26,8 +59,13 @@ public class Graph<V> {
 
       @param directed true — ориентированный, false — неориентированный
      */
+    @SuppressWarnings("this-escape")  // TopoOrder только запоминает ссылку
     public Graph(boolean directed) {
         this.directed = directed;
+        if (directed) {
+            topo = new TopoOrder(this);
+            incoming = new IntArrayList[16];
+        }
     }
 
 
@@ -45,6 +83,29 @@ public class Graph<V> {
 
     public void clear() {
         vertices = new ArrayList<>();
+        holes = 0;
+        // хеш-таблицы очищаются на месте, как в IntGraph.clear: граф обычно заполняют заново того же размера
+        index.clear();
+        byId = newSlots(16);
+        nextId = 0;
+        edgeIndex.clear();
+        if (directed) incoming = new IntArrayList[16];
+        if (topo != null) topo.clear();
+        version++;
+    }
+
+    /*
+      Версия структуры графа. Увеличивается при каждом фактическом изменении
+      (addVertex, addEdge, removeVertex, removeEdge, clear и пакетные методы);
+      перемещение вершин (координаты x/y) версию не меняет.
+     */
+    public long version() {
+        return version;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Vertex<V>[] newSlots(int n) {
+        return (Vertex<V>[]) new Vertex[n];
     }
 
 
@@ -53,13 +114,107 @@ public class Graph<V> {
         if (findVertex(v) != null) return;
 
         Vertex<V> vert = new Vertex<>(v);
+        vert.id = nextId++;
+        if (vert.id == byId.length) byId = Arrays.copyOf(byId, byId.length * 2);
+        byId[vert.id] = vert;
+        index.put(v, vert.id);
+        if (directed) {
+            if (incoming.length < byId.length) incoming = Arrays.copyOf(incoming, byId.length);
+            incoming[vert.id] = new IntArrayList(2);
+        }
+        if (topo != null) topo.addVertex(vert.id);
 
         // задаём случайные координаты для первоначальной отрисовки (если требуется)
-        Random r = new Random();
-        vert.x = 50 + r.nextInt(400);
-        vert.y = 50 + r.nextInt(300);
+        vert.x = 50 + random.nextInt(400);
+        vert.y = 50 + random.nextInt(300);
 
+        vert.slot = vertices.size();
         vertices.add(vert);
+        version++;
+    }
+
+    /*
+      Пакетное добавление вершин: индексы и списки расширяются один раз на весь пакет.
+      null и уже существующие значения пропускаются. Возвращает число добавленных вершин.
+     */
+    public int addVertices(V[] values) {
+        int expected = nextId + values.length;
+        if (expected > byId.length) byId = Arrays.copyOf(byId, Math.max(expected, byId.length * 2));
+        if (directed && incoming.length < byId.length) incoming = Arrays.copyOf(incoming, byId.length);
+        index.ensureCapacity(index.size() + values.length);
+        vertices.ensureCapacity(vertices.size() + values.length);
+
+        int before = nextId;
+        for (V v : values) addVertex(v);
+        return nextId - before;
+    }
+
+    /*
+      Пакетное добавление рёбер from[i] -> to[i] с весом weights[i] (weights == null — вес 1).
+      Семантика как у addEdge/canAddEdge: рёбра с отсутствующими вершинами и дубликаты
+      (в том числе внутри пакета) пропускаются. Вершины ищутся один раз на ребро,
+      дубликаты отсеиваются одной проверкой по хешу, списки рёбер каждой вершины
+      расширяются заранее, зеркальные рёбра неориентированного графа добавляются в том же проходе.
+      Возвращает число добавленных рёбер.
+     */
+    public int addEdges(V[] from, V[] to, int[] weights) {
+        return addEdges(from, to, weights, Math.min(from.length, to.length));
+    }
+
+    public int addEdges(V[] from, V[] to, int[] weights, int count) {
+        if (count > from.length || count > to.length || (weights != null && count > weights.length))
+            throw new IllegalArgumentException("count exceeds batch arrays");
+
+        // 1) id концов и отбор новых рёбер
+        int[] f = new int[count];
+        int[] t = new int[count];
+        int[] owners = new int[directed ? count : 2 * count];  // чьи списки рёбер вырастут
+        edgeIndex.ensureCapacity(edgeIndex.size() + (directed ? count : 2 * count));
+        int accepted = 0;
+        int grown = 0;
+        for (int i = 0; i < count; i++) {
+            int a = index.get(from[i]);
+            int b = a < 0 ? -1 : index.get(to[i]);
+            if (b < 0 || (!directed && edgeIndex.contains(b, a)) || !edgeIndex.add(a, b)) {
+                f[i] = -1;
+                continue;
+            }
+            f[i] = a;
+            t[i] = b;
+            owners[grown++] = a;
+            if (!directed && a != b) {
+                edgeIndex.add(b, a);
+                owners[grown++] = b;
+            }
+            accepted++;
+        }
+        if (accepted == 0) return 0;
+
+        // 2) расширяем списки рёбер один раз: после сортировки прирост вершины — длина серии
+        Arrays.sort(owners, 0, grown);
+        for (int i = 0; i < grown; ) {
+            int j = i;
+            while (j < grown && owners[j] == owners[i]) j++;
+            ArrayList<Edge<V>> edges = byId[owners[i]].edges;
+            edges.ensureCapacity(edges.size() + (j - i));
+            i = j;
+        }
+
+        // 3) добавление рёбер и зеркальных рёбер (позиции в edgeIndex проставляются здесь)
+        for (int i = 0; i < count; i++) {
+            if (f[i] < 0) continue;
+            int w = weights == null ? 1 : weights[i];
+            Vertex<V> a = byId[f[i]];
+            Vertex<V> b = byId[t[i]];
+            link(a, b, w);
+            if (!directed) {
+                if (a != b) link(b, a, w);
+            } else {
+                topo.addEdge(a.id, b.id);
+            }
+        }
+        version++;
+        return accepted;
     }
 
     /*
@@ -76,63 +231,192 @@ public class Graph<V> {
         // не добавляем дубликат
         if (!canAddEdge(from, to)) return;
 
-        f.edges.add(new Edge<>(to, weight));
-        if (!directed) {
-            // для неориентированного — добавляем зеркальное ребро
-            t.edges.add(new Edge<>(from, weight));
+        edgeIndex.add(f.id, t.id);
+        link(f, t, weight);
+        if (topo != null) topo.addEdge(f.id, t.id);
+        if (!directed && f != t) {
+            // для неориентированного — добавляем зеркальное ребро (петля хранится один раз)
+            edgeIndex.add(t.id, f.id);
+            link(t, f, weight);
         }
+        version++;
     }
 
+    // ребро f -> t в конец списка f; ключ (f, t) уже есть в edgeIndex, сюда пишется позиция
+    private void link(Vertex<V> f, Vertex<V> t, int weight) {
+        Edge<V> e = new Edge<>(t.value, weight);
+        e.target = t.id;
+        edgeIndex.set(f.id, t.id, f.edges.size());
+        f.edges.add(e);
+        if (directed) {
+            IntArrayList in = incoming[t.id];
+            e.back = in.size();
+            in.add(f.id);
+        }
+    }
 
-    public void removeVertex(V v) {
-        if (v == null) return;
+    // смежность по id для TopoOrder (ориентированный граф)
+    int outDegree(int id) {
+        return byId[id].edges.size();
+    }
 
-        // удалить саму вершину из списка
-        for (int i = 0; i < vertices.size(); i++) {
-            if (Objects.equals(vertices.get(i).value, v)) {
-                vertices.removeAt(i);
-                break;
-            }
+    int successor(int id, int i) {
+        return byId[id].edges.get(i).target;
+    }
+
+    IntArrayList predecessors(int id) {
+        return incoming[id];
+    }
+
+    // удаление ребра на позиции pos из списка f за O(1): последнее ребро встаёт на его место
+    private Edge<V> cut(Vertex<V> f, int pos) {
+        Edge<V> e = f.edges.swapRemove(pos);
+        if (pos < f.edges.size()) edgeIndex.set(f.id, f.edges.get(pos).target, pos);
+        return e;
+    }
+
+    // удаление источника из входящего списка t за O(1) (ориентированный граф)
+    private void cutIncoming(int t, int back) {
+        IntArrayList in = incoming[t];
+        in.swapRemove(back);
+        if (back < in.size()) {
+            int s = in.get(back);
+            byId[s].edges.get(edgeIndex.get(s, t)).back = back;
         }
+    }
 
-        // удалить входящие рёбра (и зеркальные в неориентированном)
-        for (int i = 0; i < vertices.size(); i++) {
-            Vertex<V> vv = vertices.get(i);
-            for (int j = 0; j < vv.edges.size(); j++) {
-                if (Objects.equals(vv.edges.get(j).to, v)) {
-                    vv.edges.removeAt(j);
-                    j--;
-                }
+
+    /*
+      Удаление вершины за O(степень): просматриваются только её рёбра и списки соседей.
+      Слот в списке вершин остаётся пустым до уплотнения, id других вершин не меняются.
+     */
+    public void removeVertex(V v) {
+        if (v == null) return;
+        int id = index.remove(v);
+        if (id < 0) return;
+        Vertex<V> removed = byId[id];
+        version++;
+        if (topo != null) topo.removeVertex(id);
+
+        ArrayList<Edge<V>> edges = removed.edges;
+        if (directed) {
+            // исходящие уходят вместе с вершиной, из входящих списков целей — убрать себя
+            for (int j = 0; j < edges.size(); j++) {
+                Edge<V> e = edges.get(j);
+                edgeIndex.remove(id, e.target);
+                if (e.target != id) cutIncoming(e.target, e.back);
+            }
+            // входящие: у каждого источника ребро на своей позиции
+            IntArrayList in = incoming[id];
+            for (int j = 0; j < in.size(); j++) {
+                int s = in.get(j);
+                if (s == id) continue;
+                cut(byId[s], edgeIndex.get(s, id));
+                edgeIndex.remove(s, id);
+            }
+            incoming[id] = null;
+        } else {
+            // зеркальные рёбра у соседей
+            for (int j = 0; j < edges.size(); j++) {
+                int t = edges.get(j).target;
+                edgeIndex.remove(id, t);
+                if (t == id) continue;
+                cut(byId[t], edgeIndex.get(t, id));
+                edgeIndex.remove(t, id);
             }
         }
+        byId[id] = null;
+
+        vertices.set(removed.slot, null);
+        if (++holes > 16 && holes * 2 > vertices.size()) compact();
     }
 
 
+    // удаление ребра за O(1): позиция берётся из edgeIndex
     public void removeEdge(V from, V to) {
         if (from == null || to == null) return;
         Vertex<V> f = findVertex(from);
-        if (f != null) {
-            for (int i = 0; i < f.edges.size(); i++) {
-                if (Objects.equals(f.edges.get(i).to, to)) {
-                    f.edges.removeAt(i);
-                    break;
-                }
-            }
+        Vertex<V> t = findVertex(to);
+        if (f == null || t == null) return;
+
+        int pos = edgeIndex.get(f.id, t.id);
+        if (pos >= 0) {
+            edgeIndex.remove(f.id, t.id);
+            Edge<V> e = cut(f, pos);
+            if (directed) cutIncoming(t.id, e.back);
+            version++;
+            if (topo != null) topo.removeEdge();
         }
 
-        if (!directed) {
-            Vertex<V> t = findVertex(to);
-            if (t != null) {
-                for (int i = 0; i < t.edges.size(); i++) {
-                    if (Objects.equals(t.edges.get(i).to, from)) {
-                        t.edges.removeAt(i);
-                        break;
-                    }
-                }
+        if (!directed && f != t) {
+            pos = edgeIndex.get(t.id, f.id);
+            if (pos >= 0) {
+                edgeIndex.remove(t.id, f.id);
+                cut(t, pos);
             }
         }
     }
 
+    /*
+      Уплотнение списка вершин: пустые слоты удалённых вершин убираются, порядок
+      оставшихся сохраняется. id вершин не меняются. Вызывается само при накоплении
+      пустот и перед выдачей списка наружу.
+     */
+    public void compact() {
+        if (holes == 0) return;
+        ArrayList<Vertex<V>> live = new ArrayList<>();
+        live.ensureCapacity(vertices.size() - holes);
+        for (int i = 0; i < vertices.size(); i++) {
+            Vertex<V> v = vertices.get(i);
+            if (v == null) continue;
+            v.slot = live.size();
+            live.add(v);
+        }
+        vertices = live;
+        holes = 0;
+    }
+
+
+    /*
+      Топологический порядок поддерживается при каждом addEdge/removeEdge
+      (см. TopoOrder), поэтому запросы ниже не обходят граф заново.
+      Для неориентированного графа и графа с циклом порядка нет.
+     */
+    public boolean hasTopologicalOrder() {
+        return topo != null && topo.isAcyclic();
+    }
+
+    // позиция вершины в топологическом порядке (с возможными пропусками) или -1
+    public int topologicalPosition(V v) {
+        Vertex<V> vert = findVertex(v);
+        if (vert == null || topo == null) return -1;
+        return topo.position(vert.id);
+    }
+
+    // true, если a стоит раньше b в топологическом порядке, O(1)
+    public boolean comesBefore(V a, V b) {
+        int pa = topologicalPosition(a), pb = topologicalPosition(b);
+        return pa >= 0 && pb >= 0 && pa < pb;
+    }
+
+    // вершины в топологическом порядке; пустой список, если порядка нет
+    public List<V> topologicalOrder() {
+        ArrayList<V> res = new ArrayList<>();
+        if (!hasTopologicalOrder()) return res;
+        int[] ids = topo.order();
+        res.ensureCapacity(ids.length);
+        for (int id : ids) res.add(byId[id].value);
+        return res;
+    }
+
+    // вершины одного из циклов по направлению рёбер; пустой список, если циклов нет
+    public List<V> findCycle() {
+        ArrayList<V> res = new ArrayList<>();
+        if (topo == null || topo.isAcyclic()) return res;
+        for (int id : topo.cycle()) res.add(byId[id].value);
+        return res;
+    }
+
 
     public List<V> getAdjacent(V v) {
         ArrayList<V> res = new ArrayList<>();
@@ -145,12 +429,24 @@ public class Graph<V> {
 
 
     private Vertex<V> findVertex(V value) {
-        if (value == null) return null;
-        for (int i = 0; i < vertices.size(); i++) {
-            Vertex<V> vv = vertices.get(i);
-            if (Objects.equals(vv.value, value)) return vv;
-        }
-        return null;
+        int id = index.get(value);
+        return id < 0 ? null : byId[id];
+    }
+
+    // id вершины или -1, если её нет в графе
+    public int idOf(V value) {
+        return index.get(value);
+    }
+
+    // вершина по id или null, если слот свободен
+    public Vertex<V> vertexById(int id) {
+        if (id < 0 || id >= nextId) return null;
+        return byId[id];
+    }
+
+    // верхняя граница выданных id (все id лежат в [0, idBound()))
+    public int idBound() {
+        return nextId;
     }
 
 
@@ -160,34 +456,26 @@ public class Graph<V> {
         Vertex<V> t = findVertex(to);
         if (f == null || t == null) return false;
 
-        // проверим в списках соседей
-        for (int i = 0; i < f.edges.size(); i++) {
-            if (Objects.equals(f.edges.get(i).to, to)) return false; // уже есть from->to
-        }
-        if (!directed) {
-            for (int i = 0; i < t.edges.size(); i++) {
-                if (Objects.equals(t.edges.get(i).to, from)) return false;
-            }
-        }
-        return true;
+        if (edgeIndex.contains(f.id, t.id)) return false; // уже есть from->to
+        return directed || !edgeIndex.contains(t.id, f.id);
     }
 
 
     public boolean containsEdge(V from, V to) {
         if (from == null || to == null) return false;
         Vertex<V> f = findVertex(from);
-        if (f == null) return false;
-        for (int i = 0; i < f.edges.size(); i++) if (Objects.equals(f.edges.get(i).to, to)) return true;
-        return false;
+        Vertex<V> t = findVertex(to);
+        if (f == null || t == null) return false;
+        return edgeIndex.contains(f.id, t.id);
     }
 
 
-    public void printGraph(JTextArea out, boolean weighted) {
+    public void printGraph(ResultSink out, boolean weighted) {
         if (out == null) return;
-        String sep = directed ? " -> " : " - ";
+        compact();
+        StringBuilder sb = new StringBuilder();
         for (int i = 0; i < vertices.size(); i++) {
             Vertex<V> v = vertices.get(i);
-            StringBuilder sb = new StringBuilder();
             sb.append(v.value).append(": ");
             for (int j = 0; j < v.edges.size(); j++) {
                 sb.append(v.edges.get(j).to);
@@ -196,69 +484,142 @@ public class Graph<V> {
                 }
                 if (j + 1 < v.edges.size()) sb.append(", ");
             }
-            out.append(sb.toString() + "\n");
+            sb.append('\n');
         }
+        out.append(sb);
     }
 
 
-    public void printGraph(JTextArea out) {
+    public void printGraph(ResultSink out) {
         printGraph(out, true);
     }
 
 
-    public void dfs(V start, JTextArea out) {
-        ArrayList<V> visited = new ArrayList<>();
-        dfsRec(start, visited, out);
+    // итеративный обход в глубину (порядок как у рекурсивного, но без переполнения стека)
+    public List<V> dfs(V start) {
+        ArrayList<V> res = new ArrayList<>();
+        Vertex<V> s = findVertex(start);
+        if (s == null) return res;
+        BitSet visited = new BitSet(nextId);
+        IntStack stack = new IntStack();   // id вершины
+        IntStack cursor = new IntStack();  // номер следующего ребра
+
+        visited.set(s.id);
+        res.add(s.value);
+        stack.push(s.id);
+        cursor.push(0);
+        while (!stack.isEmpty()) {
+            Vertex<V> vert = byId[stack.peek()];
+            int i = cursor.peek();
+            if (i == vert.edges.size()) {
+                stack.pop();
+                cursor.pop();
+                continue;
+            }
+            cursor.setTop(i + 1);
+            Vertex<V> next = byId[vert.edges.get(i).target];
+            if (!visited.add(next.id)) continue;
+            res.add(next.value);
+            stack.push(next.id);
+            cursor.push(0);
+        }
+        return res;
     }
 
 
-    private void dfsRec(V v, ArrayList<V> visited, JTextArea out) {
-        if (v == null) return;
-        if (contains(visited, v)) return;
-        if (out == null) System.out.println(v); else out.append(v + " ");
-        visited.add(v);
+    public void dfs(V start, ResultSink out) {
+        writeOrder(dfs(start), ResultSink.orStdout(out));
+    }
 
-        Vertex<V> vert = findVertex(v);
-        if (vert == null) return;
-        for (int i = 0; i < vert.edges.size(); i++) {
-            dfsRec(vert.edges.get(i).to, visited, out);
-        }
+
+    // обход в ширину по CSR-снимку (параллельный обход — GraphAlgorithms.bfs)
+    public List<V> bfs(V start) {
+        ArrayList<V> res = new ArrayList<>();
+        CsrGraph<V> csr = freeze();
+        int[] order = Traversals.bfsOrder(csr, csr.indexOf(start));
+        res.ensureCapacity(order.length);
+        for (int v : order) res.add(csr.value(v));
+        return res;
     }
 
 
-    public void bfs(V start, JTextArea out) {
-        ArrayList<V> visited = new ArrayList<>();
-        Queue<V> q = new Queue<>();
-        q.enqueue(start);
-        while (!q.isEmpty()) {
-            V cur = q.dequeue();
-            if (cur == null) continue;
-            if (contains(visited, cur)) continue;
-            if (out == null) System.out.println(cur); else out.append(cur + " ");
-            visited.add(cur);
-            Vertex<V> vert = findVertex(cur);
-            if (vert == null) continue;
-            for (int i = 0; i < vert.edges.size(); i++) q.enqueue(vert.edges.get(i).to);
-        }
+    public void bfs(V start, ResultSink out) {
+        writeOrder(bfs(start), ResultSink.orStdout(out));
     }
 
 
-    private boolean contains(ArrayList<V> list, V value) {
-        for (int i = 0; i < list.size(); i++) if (Objects.equals(list.get(i), value)) return true;
-        return false;
+    private void writeOrder(List<V> order, ResultSink out) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < order.size(); i++) sb.append(order.get(i)).append(' ');
+        out.append(sb);
     }
 
 
     public ArrayList<Vertex<V>> getVertices() {
+        compact();
         return vertices;
     }
 
+    /*
+      Неизменяемый CSR-снимок текущего состояния графа для алгоритмов.
+      Последующие изменения графа на снимок не влияют. Пока версия графа
+      не изменилась, возвращается тот же снимок (его можно использовать как ключ кэша).
+      Координаты x/y копируются в снимок; layoutCircle сбрасывает закэшированный снимок,
+      после прямой правки Vertex.x/y снимок со старыми координатами остаётся.
+     */
+    public CsrGraph<V> freeze() {
+        return freeze(false);
+    }
+
+    public CsrGraph<V> freeze(boolean withReverse) {
+        if (snapshot == null || snapshotVersion != version) {
+            snapshot = buildSnapshot();
+            snapshotVersion = version;
+        }
+        if (withReverse) snapshot.buildReverse();
+        return snapshot;
+    }
+
+    private CsrGraph<V> buildSnapshot() {
+        compact();
+        int n = vertices.size();
+        int[] dense = new int[nextId];
+        Object[] values = new Object[n];
+        int[] offsets = new int[n + 1];
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            Vertex<V> v = vertices.get(i);
+            dense[v.id] = i;
+            values[i] = v.value;
+            offsets[i + 1] = offsets[i] + v.edges.size();
+            xs[i] = v.x;
+            ys[i] = v.y;
+        }
+
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            ArrayList<Edge<V>> edges = vertices.get(i).edges;
+            int base = offsets[i];
+            for (int j = 0; j < edges.size(); j++) {
+                Edge<V> e = edges.get(j);
+                targets[base + j] = dense[e.target];
+                weights[base + j] = e.weight;
+            }
+        }
+
+        return new CsrGraph<>(directed, values, offsets, targets, weights, xs, ys, this, version);
+    }
+
     /**
      * Расстановка вершин по кругу (для визуализации).
      */
     public void layoutCircle(int centerX, int centerY, int radius) {
+        compact();
         int n = vertices.size();
         if (n == 0) return;
+        snapshot = null;
         for (int i = 0; i < n; i++) {
             double angle = 2 * Math.PI * i / n;
             Vertex<V> v = vertices.get(i);
@@ -266,4 +627,34 @@ public class Graph<V> {
             v.y = centerY + (int) (radius * Math.sin(angle));
         }
     }
+
+    /**
+     * Перемещение одной вершины (например, перетаскиванием на холсте); снимок со старыми
+     * координатами сбрасывается, как в layoutCircle.
+     */
+    public void moveVertex(V value, int x, int y) {
+        Vertex<V> v = vertexById(idOf(value));
+        if (v == null) return;
+        snapshot = null;
+        v.x = x;
+        v.y = y;
+    }
+
+    /**
+     * Координаты вершин в порядке снимка freeze() (например, результат ForceLayout).
+     * Массивы должны быть построены для текущего набора вершин.
+     */
+    public void applyLayout(int[] xs, int[] ys) {
+        compact();
+        int n = vertices.size();
+        if (xs.length != n || ys.length != n) {
+            throw new IllegalArgumentException("раскладка на " + xs.length + " вершин, в графе " + n);
+        }
+        snapshot = null;
+        for (int i = 0; i < n; i++) {
+            Vertex<V> v = vertices.get(i);
+            v.x = xs[i];
+            v.y = ys[i];
+        }
+    }
 }
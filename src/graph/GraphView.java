@@ -0,0 +1,21 @@
+package graph;
+
+/*
+ Только чтение: смежность по плотным id вершин 0..n-1.
+ Рёбра вершины v перебираются как i = 0..degree(v)-1: target(v, i), weight(v, i).
+ Реализации — CsrGraph (массивы в куче) и MappedGraph (файл, отображённый в память);
+ алгоритмы над интерфейсом — algorithms.ViewAlgorithms.
+ */
+public interface GraphView {
+    boolean isDirected();
+
+    int vertexCount();
+
+    int edgeCount();
+
+    int degree(int v);
+
+    int target(int v, int i);
+
+    int weight(int v, int i);
+}
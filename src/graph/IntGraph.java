@@ -0,0 +1,363 @@
+package graph;
+
+import ds.IntArrayList;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/*
+ Граф с вершинами-числами: вариант Graph без объектов Edge и без значений вершин.
+ Вершина — это id в [0, idBound()); смежность вершины хранится в параллельных
+ массивах targets[v] / weights[v] с ростом в полтора раза. Дубликаты и позиции рёбер —
+ в EdgeIndex, как у Graph, поэтому removeEdge стоит O(1), removeVertex — O(степень).
+ Удалённые и ещё не добавленные id ведут себя как изолированные вершины: GraphView
+ отдаёт для них степень 0, а снимок freeze() — пустой список рёбер.
+
+ Сам граф реализует GraphView, так что algorithms.ViewAlgorithms работает прямо
+ на нём; для GraphAlgorithms есть снимок freeze() (CsrGraph.ofIds, значения не хранятся).
+ Там, где лишние изолированные вершины меняют ответ (компоненты, топологический порядок),
+ нужен freezeLive(): только существующие вершины, id — значение вершины снимка.
+ */
+public class IntGraph implements GraphView {
+
+    private final boolean directed;
+
+    // Смежность: цели, веса и число рёбер каждой вершины
+    private int[][] targets = new int[16][];
+    private int[][] weights = new int[16][];
+    private int[] degree = new int[16];
+    private boolean[] present = new boolean[16];
+    private int idBound;
+    private int vertexCount;
+    // рёбра без зеркальных копий и число петель среди них
+    private int edgeCount;
+    private int loops;
+
+    // Множество рёбер по парам id; значение — позиция ребра в targets[from]
+    private final EdgeIndex edgeIndex = new EdgeIndex();
+
+    // Ориентированный граф: источники входящих рёбер и для каждого ребра его позиция в incoming[цель]
+    private IntArrayList[] incoming;
+    private int[][] back;
+
+    private long version;
+    private CsrGraph<Integer> snapshot;
+    private long snapshotVersion = -1;
+    private CsrGraph<Integer> live;
+    private long liveVersion = -1;
+
+    public IntGraph(boolean directed) {
+        this.directed = directed;
+        if (directed) {
+            incoming = new IntArrayList[16];
+            back = new int[16][];
+        }
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    // см. Graph.version()
+    public long version() {
+        return version;
+    }
+
+    // новая вершина со следующим свободным id
+    public int addVertex() {
+        int v = idBound;
+        addVertex(v);
+        return v;
+    }
+
+    // вершина с заданным id; false, если id отрицательный или вершина уже есть
+    public boolean addVertex(int v) {
+        if (v < 0 || containsVertex(v)) return false;
+        if (v >= degree.length) grow(v + 1);
+        present[v] = true;
+        idBound = Math.max(idBound, v + 1);
+        vertexCount++;
+        if (directed) incoming[v] = new IntArrayList(4);
+        version++;
+        return true;
+    }
+
+    public boolean containsVertex(int v) {
+        return v >= 0 && v < idBound && present[v];
+    }
+
+    public void addEdge(int from, int to) {
+        addEdge(from, to, 1);
+    }
+
+    public void addEdge(int from, int to, int weight) {
+        if (!canAddEdge(from, to)) return;
+        link(from, to, weight);
+        if (!directed && from != to) link(to, from, weight);
+        if (from == to) loops++;
+        edgeCount++;
+        version++;
+    }
+
+    public boolean canAddEdge(int from, int to) {
+        if (!containsVertex(from) || !containsVertex(to)) return false;
+        if (edgeIndex.contains(from, to)) return false;
+        return directed || !edgeIndex.contains(to, from);
+    }
+
+    public boolean containsEdge(int from, int to) {
+        return containsVertex(from) && containsVertex(to) && edgeIndex.contains(from, to);
+    }
+
+    // ребро f -> t в конец смежности f
+    private void link(int f, int t, int weight) {
+        int d = degree[f];
+        if (targets[f] == null) {
+            targets[f] = new int[4];
+            weights[f] = new int[4];
+            if (directed) back[f] = new int[4];
+        } else if (d == targets[f].length) {
+            int cap = d + (d >> 1) + 1;
+            targets[f] = Arrays.copyOf(targets[f], cap);
+            weights[f] = Arrays.copyOf(weights[f], cap);
+            if (directed) back[f] = Arrays.copyOf(back[f], cap);
+        }
+        targets[f][d] = t;
+        weights[f][d] = weight;
+        edgeIndex.add(f, t, d);
+        if (directed) {
+            IntArrayList in = incoming[t];
+            back[f][d] = in.size();
+            in.add(f);
+        }
+        degree[f] = d + 1;
+    }
+
+    // удаление ребра на позиции pos из смежности f: последнее ребро встаёт на его место
+    private void cut(int f, int pos) {
+        int last = --degree[f];
+        edgeIndex.remove(f, targets[f][pos]);
+        if (pos < last) {
+            targets[f][pos] = targets[f][last];
+            weights[f][pos] = weights[f][last];
+            edgeIndex.set(f, targets[f][pos], pos);
+            if (directed) back[f][pos] = back[f][last];
+        }
+    }
+
+    // удаление источника из входящего списка t (ориентированный граф)
+    private void cutIncoming(int t, int slot) {
+        IntArrayList in = incoming[t];
+        in.swapRemove(slot);
+        if (slot < in.size()) {
+            int s = in.get(slot);
+            back[s][edgeIndex.get(s, t)] = slot;
+        }
+    }
+
+    public void removeEdge(int from, int to) {
+        if (!containsVertex(from) || !containsVertex(to)) return;
+        int pos = edgeIndex.get(from, to);
+        if (pos < 0 && !directed) {
+            // неориентированное ребро можно назвать в любом порядке
+            int t = from;
+            from = to;
+            to = t;
+            pos = edgeIndex.get(from, to);
+        }
+        if (pos < 0) return;
+        if (directed) cutIncoming(to, back[from][pos]);
+        cut(from, pos);
+        if (!directed && from != to) cut(to, edgeIndex.get(to, from));
+        if (from == to) loops--;
+        edgeCount--;
+        version++;
+    }
+
+    // удаление вершины за O(степень); id освобождается, но новым вершинам сам не выдаётся
+    public void removeVertex(int v) {
+        if (!containsVertex(v)) return;
+        int[] ts = targets[v];
+        int d = degree[v];
+        if (edgeIndex.contains(v, v)) loops--;
+        if (directed) {
+            for (int j = 0; j < d; j++) {
+                int t = ts[j];
+                edgeIndex.remove(v, t);
+                if (t != v) cutIncoming(t, back[v][j]);
+            }
+            edgeCount -= d;
+            IntArrayList in = incoming[v];
+            for (int j = 0; j < in.size(); j++) {
+                int s = in.get(j);
+                if (s == v) continue;
+                cut(s, edgeIndex.get(s, v));
+                edgeCount--;
+            }
+            incoming[v] = null;
+            back[v] = null;
+        } else {
+            for (int j = 0; j < d; j++) {
+                int t = ts[j];
+                edgeIndex.remove(v, t);
+                if (t != v) cut(t, edgeIndex.get(t, v));
+            }
+            edgeCount -= d;
+        }
+        targets[v] = null;
+        weights[v] = null;
+        degree[v] = 0;
+        present[v] = false;
+        vertexCount--;
+        version++;
+    }
+
+    public void clear() {
+        Arrays.fill(targets, null);
+        Arrays.fill(weights, null);
+        Arrays.fill(degree, 0);
+        if (directed) {
+            Arrays.fill(incoming, null);
+            Arrays.fill(back, null);
+        }
+        Arrays.fill(present, false);
+        edgeIndex.clear();
+        idBound = vertexCount = edgeCount = loops = 0;
+        version++;
+    }
+
+    /*
+     Соседи v без копирования: буфер только для чтения поверх массива смежности,
+     действителен до следующего изменения графа. Для отсутствующей вершины — пустой.
+     */
+    public IntBuffer getAdjacent(int v) {
+        if (!containsVertex(v) || degree[v] == 0) return IntBuffer.allocate(0);
+        return IntBuffer.wrap(targets[v], 0, degree[v]).slice().asReadOnlyBuffer();
+    }
+
+    // вес ребра from -> to или Integer.MAX_VALUE, если ребра нет
+    public int edgeWeight(int from, int to) {
+        int pos = containsVertex(from) ? edgeIndex.get(from, to) : -1;
+        return pos < 0 ? Integer.MAX_VALUE : weights[from][pos];
+    }
+
+    // верхняя граница выданных id (все id лежат в [0, idBound()))
+    public int idBound() {
+        return idBound;
+    }
+
+    // число живых вершин (vertexCount() интерфейса GraphView — это idBound)
+    public int size() {
+        return vertexCount;
+    }
+
+    // GraphView: плотные id 0..idBound-1, отсутствующие вершины без рёбер
+
+    @Override
+    public int vertexCount() {
+        return idBound;
+    }
+
+    // рёбра как в CSR: неориентированное ребро (не петля) считается дважды
+    @Override
+    public int edgeCount() {
+        return directed ? edgeCount : 2 * edgeCount - loops;
+    }
+
+    @Override
+    public int degree(int v) {
+        return degree[v];
+    }
+
+    @Override
+    public int target(int v, int i) {
+        return targets[v][i];
+    }
+
+    @Override
+    public int weight(int v, int i) {
+        return weights[v][i];
+    }
+
+    /*
+     CSR-снимок для GraphAlgorithms: номер вершины снимка равен её id, значение вершины — тоже id.
+     Снимок кешируется до следующего изменения, как у Graph.freeze().
+     */
+    public CsrGraph<Integer> freeze() {
+        return freeze(false);
+    }
+
+    public CsrGraph<Integer> freeze(boolean withReverse) {
+        if (snapshot == null || snapshotVersion != version) {
+            snapshot = buildSnapshot();
+            snapshotVersion = version;
+        }
+        if (withReverse) snapshot.buildReverse();
+        return snapshot;
+    }
+
+    /*
+     Снимок только существующих вершин: номера идут подряд по возрастанию id,
+     значение вершины снимка — её id (value(k), indexOf(id)). Без пропусков в id —
+     тот же снимок, что freeze(). Кешируется до следующего изменения.
+     */
+    public CsrGraph<Integer> freezeLive() {
+        if (vertexCount == idBound) return freeze();
+        if (live == null || liveVersion != version) {
+            live = buildLive();
+            liveVersion = version;
+        }
+        return live;
+    }
+
+    private CsrGraph<Integer> buildLive() {
+        int[] dense = new int[idBound];
+        Object[] values = new Object[vertexCount];
+        int[] offsets = new int[vertexCount + 1];
+        int k = 0;
+        for (int v = 0; v < idBound; v++) {
+            if (!present[v]) continue;
+            dense[v] = k;
+            values[k] = v;
+            offsets[k + 1] = offsets[k] + degree[v];
+            k++;
+        }
+        int[] ts = new int[offsets[k]];
+        int[] ws = new int[offsets[k]];
+        int p = 0;
+        for (int v = 0; v < idBound; v++) {
+            for (int i = 0; i < degree[v]; i++) {
+                ts[p] = dense[targets[v][i]];
+                ws[p++] = weights[v][i];
+            }
+        }
+        return new CsrGraph<>(directed, values, offsets, ts, ws);
+    }
+
+    private CsrGraph<Integer> buildSnapshot() {
+        int n = idBound;
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) offsets[v + 1] = offsets[v] + degree[v];
+        int[] ts = new int[offsets[n]];
+        int[] ws = new int[offsets[n]];
+        for (int v = 0; v < n; v++) {
+            if (degree[v] == 0) continue;
+            System.arraycopy(targets[v], 0, ts, offsets[v], degree[v]);
+            System.arraycopy(weights[v], 0, ws, offsets[v], degree[v]);
+        }
+        return CsrGraph.ofIds(directed, offsets, ts, ws);
+    }
+
+    private void grow(int min) {
+        int cap = Math.max(min, degree.length + (degree.length >> 1));
+        targets = Arrays.copyOf(targets, cap);
+        weights = Arrays.copyOf(weights, cap);
+        degree = Arrays.copyOf(degree, cap);
+        present = Arrays.copyOf(present, cap);
+        if (directed) {
+            incoming = Arrays.copyOf(incoming, cap);
+            back = Arrays.copyOf(back, cap);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package graph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ Граф в файле, отображённом в память (вне кучи): тот же CSR, что у CsrGraph,
+ но offsets/targets/weights читаются прямо из страниц файла. Открытие — только чтение
+ заголовка и mmap, без разбора и загрузки рёбер; память занимают лишь прочитанные страницы.
+
+ Формат (write): заголовок 32 байта (big-endian): MAGIC, версия, флаги (ориентированность,
+ порядок байтов секций, наличие имён), n, m, длина имён в байтах; далее секции int
+ в порядке байтов записавшей машины: offsets (n + 1), targets (m), weights (m),
+ смещения имён (n + 1) и сами имена в UTF-8.
+ Секции больше 1 ГБ отображаются несколькими кусками (предел одного MappedByteBuffer — 2 ГБ).
+ Рёбер не больше Integer.MAX_VALUE, имён — не больше 2 ГБ.
+ Файл, который не помещается в кучу даже как список рёбер, пишется через Writer
+ (graph.io.GraphReader.toMapped делает это прямо из текстового файла).
+ */
+public final class MappedGraph implements GraphView, Closeable {
+    private static final int MAGIC = 0x47524D50;  // "GRMP"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int FLAG_DIRECTED = 1, FLAG_LITTLE_ENDIAN = 2, FLAG_NAMES = 4;
+    // кусок отображения: 2^28 int = 1 ГБ
+    private static final int REGION_SHIFT = 28;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean directed;
+    private final int n, m;
+    private final IntSection offsets, targets, weights;
+    private final IntSection nameOffsets;   // null, если имён нет
+    private final ByteBuffer names;
+
+    private MappedGraph(Path file, FileChannel channel, boolean directed, int n, int m,
+                        IntSection offsets, IntSection targets, IntSection weights,
+                        IntSection nameOffsets, ByteBuffer names) {
+        this.file = file;
+        this.channel = channel;
+        this.directed = directed;
+        this.n = n;
+        this.m = m;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.nameOffsets = nameOffsets;
+        this.names = names;
+    }
+
+    public static MappedGraph open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (ch.read(header, header.position()) < 0) throw new IOException(file + ": файл графа обрывается");
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) throw new IOException(file + ": не файл отображаемого графа");
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) throw new IOException(file + ": неподдерживаемая версия формата " + version);
+            int flags = header.getInt();
+            int n = header.getInt();
+            int m = header.getInt();
+            int nameBytes = header.getInt();
+            if (n < 0 || m < 0 || nameBytes < 0) throw new IOException(file + ": повреждён заголовок");
+            boolean withNames = (flags & FLAG_NAMES) != 0;
+
+            long expected = HEADER_BYTES + 4L * (n + 1) + 8L * m;
+            if (withNames) expected += 4L * (n + 1) + nameBytes;
+            if (ch.size() != expected)
+                throw new IOException(file + ": размер " + ch.size() + " байт, по заголовку ожидается " + expected);
+
+            ByteOrder order = (flags & FLAG_LITTLE_ENDIAN) != 0 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            long pos = HEADER_BYTES;
+            IntSection offsets = IntSection.map(ch, pos, n + 1L, order);
+            pos += 4L * (n + 1);
+            IntSection targets = IntSection.map(ch, pos, m, order);
+            pos += 4L * m;
+            IntSection weights = IntSection.map(ch, pos, m, order);
+            pos += 4L * m;
+            IntSection nameOffsets = null;
+            ByteBuffer names = null;
+            if (withNames) {
+                nameOffsets = IntSection.map(ch, pos, n + 1L, order);
+                pos += 4L * (n + 1);
+                names = ch.map(FileChannel.MapMode.READ_ONLY, pos, nameBytes);
+            }
+            if (offsets.get(0) != 0 || offsets.get(n) != m) throw new IOException(file + ": повреждены смещения рёбер");
+            return new MappedGraph(file, ch, (flags & FLAG_DIRECTED) != 0, n, m,
+                    offsets, targets, weights, nameOffsets, names);
+        } catch (IOException | RuntimeException ex) {
+            ch.close();
+            throw ex;
+        }
+    }
+
+    public static void write(Graph<?> graph, Path file) throws IOException {
+        write(graph.freeze(), file);
+    }
+
+    // запись снимка; имена вершин — String.valueOf(value)
+    public static void write(CsrGraph<?> g, Path file) throws IOException {
+        int n = g.vertexCount();
+        int[] nameOffsets = new int[n + 1];
+        long total = 0;
+        for (int v = 0; v < n; v++) {
+            total += String.valueOf(g.value(v)).getBytes(StandardCharsets.UTF_8).length;
+            if (total > Integer.MAX_VALUE) throw new IOException(file + ": имена вершин длиннее 2 ГБ");
+            nameOffsets[v + 1] = (int) total;
+        }
+
+        try (Writer w = Writer.create(file, g.isDirected(), n, g.edgeCount(), nameOffsets[n])) {
+            w.offsets(g.offsets());
+            int[] targets = g.targets();
+            int[] weights = g.weights();
+            for (int e = 0; e < targets.length; e++) w.edge(targets[e], weights[e]);
+            w.nameOffsets(nameOffsets);
+            for (int v = 0; v < n; v++) {
+                byte[] name = String.valueOf(g.value(v)).getBytes(StandardCharsets.UTF_8);
+                w.names(name, 0, name.length);
+            }
+        }
+    }
+
+    /*
+     Запись файла по секциям, без снимка в куче (см. graph.io.GraphReader.toMapped).
+     n, m и длина имён известны заранее, поэтому заголовок пишется сразу, а у каждой
+     секции своё место в файле и свой буфер: offsets, nameOffsets и имена можно писать
+     в любой момент, рёбра (edge) и байты имён — по порядку. Цели и веса рёбер идут
+     в свои секции одновременно (запись по позиции). close проверяет, что записано всё.
+     */
+    public static final class Writer implements Closeable {
+        private final Path file;
+        private final FileChannel channel;
+        private final int n, m, nameBytes;
+        private final ByteBuffer targetBuf, weightBuf, nameBuf, intBuf;
+        private long targetPos, weightPos, namePos;
+        private long edgesWritten, namesWritten;
+        private boolean offsetsWritten, nameOffsetsWritten;
+
+        private Writer(Path file, FileChannel channel, int n, int m, int nameBytes) {
+            this.file = file;
+            this.channel = channel;
+            this.n = n;
+            this.m = m;
+            this.nameBytes = nameBytes;
+            ByteOrder order = ByteOrder.nativeOrder();
+            targetBuf = ByteBuffer.allocateDirect(1 << 16).order(order);
+            weightBuf = ByteBuffer.allocateDirect(1 << 16).order(order);
+            nameBuf = ByteBuffer.allocateDirect(1 << 16);
+            intBuf = ByteBuffer.allocateDirect(1 << 16).order(order);
+            targetPos = HEADER_BYTES + 4L * (n + 1);
+            weightPos = targetPos + 4L * m;
+            namePos = weightPos + 4L * m + 4L * (n + 1);
+        }
+
+        public static Writer create(Path file, boolean directed, int n, int m, int nameBytes) throws IOException {
+            if (n < 0 || m < 0 || nameBytes < 0) throw new IllegalArgumentException("n, m, nameBytes < 0");
+            FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            Writer w = new Writer(file, ch, n, m, nameBytes);
+            try {
+                int flags = FLAG_NAMES | (directed ? FLAG_DIRECTED : 0)
+                        | (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? FLAG_LITTLE_ENDIAN : 0);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(flags)
+                        .putInt(n).putInt(m).putInt(nameBytes).putInt(0).putInt(0);
+                header.flip();
+                drain(ch, header, 0);
+            } catch (IOException | RuntimeException ex) {
+                ch.close();
+                throw ex;
+            }
+            return w;
+        }
+
+        // смещения рёбер, n + 1 значение
+        public void offsets(int[] offsets) throws IOException {
+            if (offsets.length != n + 1 || offsets[0] != 0 || offsets[n] != m)
+                throw new IllegalArgumentException("offsets не соответствуют n и m");
+            putInts(offsets, HEADER_BYTES);
+            offsetsWritten = true;
+        }
+
+        // следующее ребро в порядке CSR
+        public void edge(int target, int weight) throws IOException {
+            if (edgesWritten == m) throw new IllegalStateException("записаны уже все " + m + " рёбер");
+            if (!targetBuf.hasRemaining()) targetPos += drain(channel, targetBuf, targetPos);
+            if (!weightBuf.hasRemaining()) weightPos += drain(channel, weightBuf, weightPos);
+            targetBuf.putInt(target);
+            weightBuf.putInt(weight);
+            edgesWritten++;
+        }
+
+        // смещения имён, n + 1 значение
+        public void nameOffsets(int[] nameOffsets) throws IOException {
+            if (nameOffsets.length != n + 1 || nameOffsets[0] != 0 || nameOffsets[n] != nameBytes)
+                throw new IllegalArgumentException("смещения имён не соответствуют n и длине имён");
+            putInts(nameOffsets, HEADER_BYTES + 4L * (n + 1) + 8L * m);
+            nameOffsetsWritten = true;
+        }
+
+        // следующие байты имён (UTF-8) подряд
+        public void names(byte[] bytes, int from, int len) throws IOException {
+            if (namesWritten + len > nameBytes) throw new IllegalStateException("имена длиннее " + nameBytes + " байт");
+            for (int i = from; i < from + len; ) {
+                if (!nameBuf.hasRemaining()) namePos += drain(channel, nameBuf, namePos);
+                int k = Math.min(nameBuf.remaining(), from + len - i);
+                nameBuf.put(bytes, i, k);
+                i += k;
+            }
+            namesWritten += len;
+        }
+
+        private void putInts(int[] a, long pos) throws IOException {
+            for (int x : a) {
+                if (intBuf.remaining() < 4) pos += drain(channel, intBuf, pos);
+                intBuf.putInt(x);
+            }
+            drain(channel, intBuf, pos);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (FileChannel ch = channel) {
+                drain(ch, targetBuf, targetPos);
+                drain(ch, weightBuf, weightPos);
+                drain(ch, nameBuf, namePos);
+                if (!offsetsWritten || !nameOffsetsWritten) throw new IOException(file + ": не записаны смещения");
+                if (edgesWritten != m) throw new IOException(file + ": записано рёбер " + edgesWritten + " из " + m);
+                if (namesWritten != nameBytes)
+                    throw new IOException(file + ": записано байт имён " + namesWritten + " из " + nameBytes);
+            }
+        }
+    }
+
+    // запись буфера с позиции pos; возвращает число записанных байт, буфер очищается
+    private static int drain(FileChannel ch, ByteBuffer buf, long pos) throws IOException {
+        buf.flip();
+        int len = buf.remaining();
+        while (buf.hasRemaining()) pos += ch.write(buf, pos);
+        buf.clear();
+        return len;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    @Override
+    public int vertexCount() {
+        return n;
+    }
+
+    @Override
+    public int edgeCount() {
+        return m;
+    }
+
+    @Override
+    public int degree(int v) {
+        return offsets.get(v + 1) - offsets.get(v);
+    }
+
+    @Override
+    public int target(int v, int i) {
+        return targets.get((long) offsets.get(v) + i);
+    }
+
+    @Override
+    public int weight(int v, int i) {
+        return weights.get((long) offsets.get(v) + i);
+    }
+
+    // имя вершины (декодируется при каждом вызове) или номер, если имена не сохранены
+    public String name(int v) {
+        if (nameOffsets == null) return String.valueOf(v);
+        int from = nameOffsets.get(v), to = nameOffsets.get(v + 1);
+        byte[] bytes = new byte[to - from];
+        names.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // копия в кучу как CsrGraph<String> (для алгоритмов, которым нужны массивы)
+    public CsrGraph<String> toCsr() {
+        String[] values = new String[n];
+        for (int v = 0; v < n; v++) values[v] = name(v);
+        int[] off = new int[n + 1];
+        for (int v = 0; v <= n; v++) off[v] = offsets.get(v);
+        int[] t = new int[m];
+        int[] w = new int[m];
+        for (int e = 0; e < m; e++) {
+            t[e] = targets.get(e);
+            w[e] = weights.get(e);
+        }
+        return CsrGraph.of(directed, values, off, t, w);
+    }
+
+    /*
+     Закрывает файл. Отображение снимается сборщиком мусора, когда на буферы не останется
+     ссылок (в Java 21 у MappedByteBuffer нет явного unmap), поэтому после close граф
+     формально ещё читается, но пользоваться им нельзя.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // секция int, отображённая кусками по 1 ГБ
+    private static final class IntSection {
+        private final IntBuffer[] regions;
+
+        private IntSection(IntBuffer[] regions) {
+            this.regions = regions;
+        }
+
+        static IntSection map(FileChannel ch, long pos, long count, ByteOrder order) throws IOException {
+            int parts = (int) Math.max(1, (count + REGION_MASK) >>> REGION_SHIFT);
+            IntBuffer[] regions = new IntBuffer[parts];
+            for (int r = 0; r < parts; r++) {
+                long first = (long) r << REGION_SHIFT;
+                long len = Math.min(count - first, 1L << REGION_SHIFT);
+                MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, pos + 4 * first, 4 * len);
+                regions[r] = b.order(order).asIntBuffer();
+            }
+            return new IntSection(regions);
+        }
+
+        int get(long i) {
+            return regions[(int) (i >>> REGION_SHIFT)].get((int) (i & REGION_MASK));
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package graph;
+
+import ds.IntArrayDeque;
+import ds.IntArrayList;
+import ds.IntStack;
+
+import java.util.Arrays;
+
+/*
+ Динамический топологический порядок ориентированного графа (Pearce–Kelly).
+ Каждая вершина (по id) имеет позицию ord[id]; для любого ребра a -> b ord[a] < ord[b].
+ При добавлении ребра x -> y с ord[y] < ord[x] ищутся вершины, достижимые из y
+ с позицией < ord[x], и вершины, из которых достижим x, с позицией > ord[y];
+ только их позиции переставляются, остальной порядок не меняется.
+ Ребро, замыкающее цикл, всё равно добавляется: порядок помечается недействительным
+ и пересчитывается (алгоритм Кана) при первом запросе после удаления ребра или вершины.
+ Своих списков соседей нет: поиск идёт по рёбрам и входящим спискам самого Graph
+ (по id, без хеша значений), поэтому удаление ребра или вершины здесь стоит O(1).
+ Graph вызывает addEdge уже после того, как ребро попало в его списки.
+ */
+class TopoOrder {
+    private static final int FREE = -1;
+
+    private int[] ord = new int[16];    // id -> позиция (FREE — id не занят)
+    private int[] at = new int[16];     // позиция -> id (FREE — "дырка" после удаления)
+    private int positions;              // занятые позиции [0, positions)
+    private int holes;
+    private final Graph<?> graph;
+
+    private int[] cycle;                // найденный цикл или null
+    private boolean stale;              // после удаления цикл мог исчезнуть
+
+    // отметки поиска: visit[id] == epoch — вершина уже в текущем поиске
+    private int[] visit = new int[16];
+    private int epoch;
+    private final IntStack stack = new IntStack();
+    private final IntArrayList forward = new IntArrayList();
+    private final IntArrayList backward = new IntArrayList();
+    private final IntArrayDeque queue = new IntArrayDeque();
+
+    TopoOrder(Graph<?> graph) {
+        this.graph = graph;
+        Arrays.fill(ord, FREE);
+    }
+
+    void addVertex(int id) {
+        if (id >= ord.length) grow(id + 1);
+        if (positions == at.length) at = Arrays.copyOf(at, at.length * 2);
+        // вершина без рёбер может стоять где угодно, ставим в конец
+        ord[id] = positions;
+        at[positions++] = id;
+    }
+
+    void removeVertex(int id) {
+        at[ord[id]] = FREE;
+        ord[id] = FREE;
+        if (cycle != null) stale = true;
+        if (++holes > 16 && holes * 2 > positions) compact();
+    }
+
+    void addEdge(int x, int y) {
+        if (cycle != null) return;  // порядок уже недействителен
+        int lb = ord[y], ub = ord[x];
+        if (lb > ub) return;
+        if (x == y) {
+            cycle = new int[]{x};
+            return;
+        }
+
+        // прямой поиск из y в области (lb, ub); встретили x — ребро замыкает цикл
+        epoch++;
+        forward.clear();
+        if (!searchForward(y, x, ub)) return;
+        backward.clear();
+        searchBackward(x, lb);
+        reorder();
+    }
+
+    void removeEdge() {
+        // удаление ребра не нарушает порядок, но может разорвать цикл
+        if (cycle != null) stale = true;
+    }
+
+    void clear() {
+        Arrays.fill(ord, FREE);
+        positions = holes = 0;
+        cycle = null;
+        stale = false;
+    }
+
+    boolean isAcyclic() {
+        if (stale) rebuild();
+        return cycle == null;
+    }
+
+    // позиция вершины в порядке (позиции могут идти с пропусками) или -1, если порядка нет
+    int position(int id) {
+        return isAcyclic() ? ord[id] : -1;
+    }
+
+    // id вершин в топологическом порядке
+    int[] order() {
+        int[] res = new int[positions - holes];
+        int k = 0;
+        for (int p = 0; p < positions; p++) if (at[p] != FREE) res[k++] = at[p];
+        return res;
+    }
+
+    // id вершин цикла по направлению рёбер; null, если граф ацикличен
+    int[] cycle() {
+        return isAcyclic() ? null : cycle.clone();
+    }
+
+    private boolean searchForward(int start, int target, int ub) {
+        visit[start] = epoch;
+        stack.push(start);
+        forward.add(start);
+        while (!stack.isEmpty()) {
+            int v = stack.pop();
+            for (int i = 0, d = graph.outDegree(v); i < d; i++) {
+                int w = graph.successor(v, i);
+                if (w == target) {
+                    stack.clear();
+                    cycle = pathFrom(start, v, target);
+                    return false;
+                }
+                if (visit[w] == epoch || ord[w] > ub) continue;
+                visit[w] = epoch;
+                stack.push(w);
+                forward.add(w);
+            }
+        }
+        return true;
+    }
+
+    private void searchBackward(int start, int lb) {
+        visit[start] = epoch;
+        stack.push(start);
+        backward.add(start);
+        while (!stack.isEmpty()) {
+            int v = stack.pop();
+            IntArrayList pred = graph.predecessors(v);
+            for (int i = 0; i < pred.size(); i++) {
+                int w = pred.get(i);
+                if (visit[w] == epoch || ord[w] < lb) continue;
+                visit[w] = epoch;
+                stack.push(w);
+                backward.add(w);
+            }
+        }
+    }
+
+    /*
+     Занятые затронутыми вершинами позиции раздаются заново: сначала backward (всё, из чего
+     достижим x), затем forward (всё, что достижимо из y), внутри каждой группы
+     сохраняется прежний относительный порядок.
+     */
+    private void reorder() {
+        int nb = backward.size(), nf = forward.size();
+        int[] slots = new int[nb + nf];
+        for (int i = 0; i < nb; i++) slots[i] = ord[backward.get(i)];
+        for (int i = 0; i < nf; i++) slots[nb + i] = ord[forward.get(i)];
+        Arrays.sort(slots);
+        int[] b = sortedByPosition(backward);
+        int[] f = sortedByPosition(forward);
+        for (int i = 0; i < nb; i++) place(b[i], slots[i]);
+        for (int i = 0; i < nf; i++) place(f[i], slots[nb + i]);
+    }
+
+    private int[] sortedByPosition(IntArrayList ids) {
+        // ключ: позиция в старших битах, id в младших
+        long[] keys = new long[ids.size()];
+        for (int i = 0; i < keys.length; i++) keys[i] = ((long) ord[ids.get(i)] << 32) | ids.get(i);
+        Arrays.sort(keys);
+        int[] res = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) res[i] = (int) keys[i];
+        return res;
+    }
+
+    private void place(int id, int pos) {
+        ord[id] = pos;
+        at[pos] = id;
+    }
+
+    /*
+     Цикл x -> start -> ... -> v -> x. Путь start ~> v восстанавливается обходом в ширину
+     от start по вершинам, отмеченным прерванным прямым поиском.
+     */
+    private int[] pathFrom(int start, int v, int x) {
+        IntArrayList path = new IntArrayList();
+        int mark = ++epoch;
+        int[] prev = new int[ord.length];
+        // BFS от start только по вершинам прошлого поиска (visit == mark - 1)
+        queue.clear();
+        queue.addLast(start);
+        visit[start] = mark;
+        while (!queue.isEmpty() && visit[v] != mark) {
+            int u = queue.pollFirst();
+            for (int i = 0, d = graph.outDegree(u); i < d; i++) {
+                int w = graph.successor(u, i);
+                if (visit[w] != mark - 1) continue;
+                visit[w] = mark;
+                prev[w] = u;
+                queue.addLast(w);
+            }
+        }
+        for (int u = v; u != start; u = prev[u]) path.add(u);
+        path.add(start);
+        path.add(x);
+        // path: v, ..., start, x — разворачиваем в направление рёбер
+        int[] res = new int[path.size()];
+        for (int i = 0; i < res.length; i++) res[i] = path.get(res.length - 1 - i);
+        return res;
+    }
+
+    // пересчёт порядка с нуля (Кан); при неудаче запоминается цикл из оставшихся вершин
+    private void rebuild() {
+        stale = false;
+        cycle = null;
+        int n = ord.length;
+        int[] degree = new int[n];
+        int[] queue = new int[positions - holes];
+        int tail = 0;
+        for (int p = 0; p < positions; p++) {
+            int id = at[p];
+            if (id == FREE) continue;
+            degree[id] = graph.predecessors(id).size();
+            if (degree[id] == 0) queue[tail++] = id;
+        }
+        for (int head = 0; head < tail; head++) {
+            int v = queue[head];
+            for (int i = 0, d = graph.outDegree(v); i < d; i++) {
+                int w = graph.successor(v, i);
+                if (--degree[w] == 0) queue[tail++] = w;
+            }
+        }
+        if (tail < queue.length) {
+            cycle = remainingCycle(degree);
+            return;
+        }
+        Arrays.fill(at, 0, positions, FREE);
+        for (int i = 0; i < tail; i++) place(queue[i], i);
+        positions = tail;
+        holes = 0;
+    }
+
+    // шаги назад по входящим рёбрам среди неупорядоченных вершин (degree > 0) замыкаются в цикл
+    private int[] remainingCycle(int[] degree) {
+        int v = 0;
+        while (ord[v] == FREE || degree[v] == 0) v++;
+        int[] step = new int[ord.length];
+        IntArrayList path = new IntArrayList();
+        while (step[v] == 0) {
+            path.add(v);
+            step[v] = path.size();
+            IntArrayList pred = graph.predecessors(v);
+            int i = 0;
+            while (degree[pred.get(i)] == 0) i++;
+            v = pred.get(i);
+        }
+        int from = step[v] - 1;
+        int[] res = new int[path.size() - from];
+        for (int i = 0; i < res.length; i++) res[i] = path.get(path.size() - 1 - i);
+        return res;
+    }
+
+    // убрать "дырки" после удалений, сохранив порядок
+    private void compact() {
+        int k = 0;
+        for (int p = 0; p < positions; p++) {
+            int id = at[p];
+            if (id == FREE) continue;
+            at[k] = id;
+            ord[id] = k++;
+        }
+        Arrays.fill(at, k, positions, FREE);
+        positions = k;
+        holes = 0;
+    }
+
+    private void grow(int min) {
+        int cap = Math.max(min, ord.length * 2);
+        int old = ord.length;
+        ord = Arrays.copyOf(ord, cap);
+        Arrays.fill(ord, old, cap, FREE);
+        visit = Arrays.copyOf(visit, cap);
+    }
+}
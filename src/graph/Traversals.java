@@ -0,0 +1,63 @@
+package graph;
+
+import java.util.Arrays;
+
+/*
+ Порядок обхода по GraphView для методов самих графов (Graph.bfs, ConcurrentGraph).
+ Без метрик и параллельности — это уровень algorithms (GraphAlgorithms, ViewAlgorithms),
+ от которого пакет graph не зависит.
+ */
+final class Traversals {
+    private Traversals() {
+    }
+
+    // вершины в порядке посещения DFS (итеративно, курсор по рёбрам на стеке)
+    static int[] dfsOrder(GraphView g, int s) {
+        int n = g.vertexCount();
+        if (s < 0 || s >= n) return new int[0];
+        boolean[] seen = new boolean[n];
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int[] order = new int[n];
+        int count = 0;
+        int top = 0;
+        stack[0] = s;
+        seen[s] = true;
+        order[count++] = s;
+        while (top >= 0) {
+            int v = stack[top];
+            if (cursor[top] < g.degree(v)) {
+                int u = g.target(v, cursor[top]++);
+                if (seen[u]) continue;
+                seen[u] = true;
+                order[count++] = u;
+                stack[++top] = u;
+                cursor[top] = 0;
+            } else {
+                top--;
+            }
+        }
+        return Arrays.copyOf(order, count);
+    }
+
+    // вершины в порядке посещения BFS (соседи — в порядке рёбер)
+    static int[] bfsOrder(GraphView g, int s) {
+        int n = g.vertexCount();
+        if (s < 0 || s >= n) return new int[0];
+        boolean[] seen = new boolean[n];
+        int[] queue = new int[n];
+        int tail = 0;
+        queue[tail++] = s;
+        seen[s] = true;
+        for (int head = 0; head < tail; head++) {
+            int v = queue[head];
+            for (int i = 0, d = g.degree(v); i < d; i++) {
+                int u = g.target(v, i);
+                if (seen[u]) continue;
+                seen[u] = true;
+                queue[tail++] = u;
+            }
+        }
+        return Arrays.copyOf(queue, tail);
+    }
+}
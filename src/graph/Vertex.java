@@ -5,6 +5,8 @@ public class Vertex<V> {
     public V value;
     public ArrayList<Edge<V>> edges = new ArrayList<>();
     public int x, y; // координаты для визуализации
+    public int id = -1; // стабильный id внутри графа (выдаётся в Graph.addVertex)
+    int slot = -1;      // позиция в списке вершин графа
 
 
     public Vertex(V value) {
@@ -0,0 +1,132 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/*
+ Хеш-индекс "значение вершины -> целочисленный id".
+ Открытая адресация с линейным пробированием, удаление со сдвигом назад
+ (без "надгробий"), поэтому поиск остаётся O(1) в среднем и после удалений.
+ */
+class VertexIndex<V> {
+    private static final int NOT_FOUND = -1;
+
+    private Object[] keys;
+    private int[] ids;
+    private int size;
+    private int mask;
+
+    VertexIndex() {
+        this(16);
+    }
+
+    VertexIndex(int expected) {
+        int cap = 16;
+        while (cap * 3 / 4 < expected) cap <<= 1;
+        keys = new Object[cap];
+        ids = new int[cap];
+        mask = cap - 1;
+    }
+
+    // заранее расширить таблицу под expected ключей (одно перехеширование вместо нескольких)
+    void ensureCapacity(int expected) {
+        int cap = keys.length;
+        while (expected * 4L > cap * 3L) cap <<= 1;
+        if (cap > keys.length) rehash(cap);
+    }
+
+    private static int slot(Object key, int mask) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    // id вершины или -1, если такой вершины нет
+    int get(V key) {
+        if (key == null) return NOT_FOUND;
+        int i = slot(key, mask);
+        while (keys[i] != null) {
+            if (Objects.equals(keys[i], key)) return ids[i];
+            i = (i + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    void put(V key, int id) {
+        if (key == null) return;
+        if ((size + 1) * 4 > keys.length * 3) grow();
+        int i = slot(key, mask);
+        while (keys[i] != null) {
+            if (Objects.equals(keys[i], key)) {
+                ids[i] = id;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        ids[i] = id;
+        size++;
+    }
+
+    // возвращает id удалённой вершины или -1
+    int remove(V key) {
+        if (key == null) return NOT_FOUND;
+        int i = slot(key, mask);
+        while (keys[i] != null) {
+            if (Objects.equals(keys[i], key)) {
+                int id = ids[i];
+                shiftBack(i);
+                size--;
+                return id;
+            }
+            i = (i + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    // сдвигаем следующие элементы цепочки на освободившееся место
+    private void shiftBack(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            Object k = keys[i];
+            if (k == null) break;
+            int home = slot(k, mask);
+            // элемент можно переставить, если его "родной" слот не лежит между hole и i
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = k;
+                ids[hole] = ids[i];
+                hole = i;
+            }
+        }
+        keys[hole] = null;
+    }
+
+    private void grow() {
+        rehash(keys.length * 2);
+    }
+
+    private void rehash(int capacity) {
+        Object[] oldKeys = keys;
+        int[] oldIds = ids;
+        keys = new Object[capacity];
+        ids = new int[capacity];
+        mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object k = oldKeys[j];
+            if (k == null) continue;
+            int i = slot(k, mask);
+            while (keys[i] != null) i = (i + 1) & mask;
+            keys[i] = k;
+            ids[i] = oldIds[j];
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+}
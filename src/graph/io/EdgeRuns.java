@@ -0,0 +1,204 @@
+package graph.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/*
+ Внешняя сортировка записей (key, payload) по неотрицательному key.
+ Записи копятся в куче порциями по runSize, порция сортируется поразрядно (устойчиво)
+ и уходит во временный файл в dir; после finish файлы сливаются кучей по (key, номер порции).
+ Порции идут в порядке добавления, поэтому записи с равным key выходят в порядке add.
+ Если всё поместилось в одну порцию, файлов нет. close удаляет временные файлы.
+ */
+final class EdgeRuns implements Closeable {
+    private static final int BUFFER = 1 << 16;
+
+    private final Path dir;
+    private long[] keys, payloads, tmpKeys, tmpPayloads;
+    private int size;
+    private long total;
+    private Path[] files = new Path[0];
+    private long[] fileSizes = new long[0];
+
+    // слияние: поток каждой порции, её текущая запись и куча номеров порций
+    private DataInputStream[] in;
+    private long[] left;
+    private long[] headKey, headPayload;
+    private int[] heap;
+    private int heapSize;
+    private int memoryPos = -1;
+    private long key, payload;
+
+    EdgeRuns(Path dir, int runSize) {
+        this.dir = dir;
+        keys = new long[runSize];
+        payloads = new long[runSize];
+    }
+
+    long size() {
+        return total;
+    }
+
+    void add(long key, long payload) throws IOException {
+        if (size == keys.length) spill();
+        keys[size] = key;
+        payloads[size++] = payload;
+        total++;
+    }
+
+    // конец добавления: дальше записи читаются по возрастанию key через next
+    void finish() throws IOException {
+        if (files.length == 0) {
+            sortRun();
+            memoryPos = 0;
+            return;
+        }
+        if (size > 0) spill();
+        keys = payloads = tmpKeys = tmpPayloads = null;
+        int runs = files.length;
+        in = new DataInputStream[runs];
+        left = fileSizes.clone();
+        headKey = new long[runs];
+        headPayload = new long[runs];
+        heap = new int[runs];
+        for (int r = 0; r < runs; r++) {
+            in[r] = new DataInputStream(new BufferedInputStream(Files.newInputStream(files[r]), BUFFER));
+            if (advance(r)) push(r);
+        }
+    }
+
+    // следующая запись; false — записи кончились
+    boolean next() throws IOException {
+        if (memoryPos >= 0) {
+            if (memoryPos == size) return false;
+            key = keys[memoryPos];
+            payload = payloads[memoryPos++];
+            return true;
+        }
+        if (heapSize == 0) return false;
+        int r = heap[0];
+        key = headKey[r];
+        payload = headPayload[r];
+        if (advance(r)) siftDown(0);
+        else if (--heapSize > 0) {
+            heap[0] = heap[heapSize];
+            siftDown(0);
+        }
+        return true;
+    }
+
+    long key() {
+        return key;
+    }
+
+    long payload() {
+        return payload;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        if (in != null) {
+            for (DataInputStream s : in) {
+                try {
+                    if (s != null) s.close();
+                } catch (IOException ex) {
+                    failure = ex;
+                }
+            }
+        }
+        for (Path f : files) Files.deleteIfExists(f);
+        if (failure != null) throw failure;
+    }
+
+    private void spill() throws IOException {
+        sortRun();
+        Path f = Files.createTempFile(dir, "edges", ".run");
+        files = Arrays.copyOf(files, files.length + 1);
+        fileSizes = Arrays.copyOf(fileSizes, fileSizes.length + 1);
+        files[files.length - 1] = f;
+        fileSizes[fileSizes.length - 1] = size;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(f), BUFFER))) {
+            for (int i = 0; i < size; i++) {
+                out.writeLong(keys[i]);
+                out.writeLong(payloads[i]);
+            }
+        }
+        size = 0;
+    }
+
+    // устойчивая поразрядная сортировка порции по key: 16 бит за проход, одинаковые разряды пропускаются
+    private void sortRun() {
+        if (size < 2) return;
+        if (tmpKeys == null) {
+            tmpKeys = new long[keys.length];
+            tmpPayloads = new long[keys.length];
+        }
+        int[] count = new int[1 << 16];
+        for (int shift = 0; shift < 64; shift += 16) {
+            Arrays.fill(count, 0);
+            for (int i = 0; i < size; i++) count[(int) (keys[i] >>> shift) & 0xFFFF]++;
+            if (count[(int) (keys[0] >>> shift) & 0xFFFF] == size) continue;
+            int sum = 0;
+            for (int d = 0; d < count.length; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < size; i++) {
+                int j = count[(int) (keys[i] >>> shift) & 0xFFFF]++;
+                tmpKeys[j] = keys[i];
+                tmpPayloads[j] = payloads[i];
+            }
+            long[] t = keys;
+            keys = tmpKeys;
+            tmpKeys = t;
+            t = payloads;
+            payloads = tmpPayloads;
+            tmpPayloads = t;
+        }
+    }
+
+    private boolean advance(int r) throws IOException {
+        if (left[r] == 0) return false;
+        headKey[r] = in[r].readLong();
+        headPayload[r] = in[r].readLong();
+        left[r]--;
+        return true;
+    }
+
+    private boolean less(int a, int b) {
+        return headKey[a] < headKey[b] || (headKey[a] == headKey[b] && a < b);
+    }
+
+    private void push(int r) {
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(r, heap[parent])) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = r;
+    }
+
+    private void siftDown(int i) {
+        int r = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && less(heap[child + 1], heap[child])) child++;
+            if (!less(heap[child], r)) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = r;
+    }
+}
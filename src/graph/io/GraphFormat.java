@@ -0,0 +1,22 @@
+package graph.io;
+
+import java.nio.file.Path;
+
+/*
+ Поддерживаемые текстовые форматы графа.
+  EDGE_LIST — "from to [weight]" через пробелы/табуляцию, комментарии с '#' или '%';
+  CSV       — "from,to[,weight]" (допускается ';'), первая строка может быть заголовком;
+  в обоих форматах имя можно взять в кавычки, строка из одного имени — вершина без рёбер;
+  DIMACS    — формат .gr: "c ..." комментарии, "p sp n m", "a u v w" (вершины 1..n).
+ */
+public enum GraphFormat {
+    EDGE_LIST, CSV, DIMACS;
+
+    // формат по расширению файла (.gr — DIMACS, .csv — CSV, остальное — список рёбер)
+    public static GraphFormat byFileName(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".gr")) return DIMACS;
+        if (name.endsWith(".csv")) return CSV;
+        return EDGE_LIST;
+    }
+}
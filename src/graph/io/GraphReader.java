@@ -0,0 +1,363 @@
+package graph.io;
+
+import graph.Graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+
+/*
+ Потоковая загрузка графа из файла (список рёбер, CSV, DIMACS .gr).
+ Файл читается окнами через memory-mapped NIO-буферы, разбор идёт прямо по байтам:
+ строки файла не превращаются в String, объект вершины создаётся один раз на вершину.
+ Память ограничена размером окна и таблицей имён вершин.
+ Имя в двойных кавычках может содержать разделители ("" внутри — сама кавычка);
+ строка из одного имени добавляет вершину без рёбер.
+ Вершины и рёбра уходят в Sink: в Graph (read) или сразу в файл MappedGraph (toMapped).
+ */
+public final class GraphReader<V> {
+    // размер окна отображения файла
+    public static final int DEFAULT_WINDOW = 64 << 20;
+
+    /*
+     Первая строка CSV: AUTO — заголовок, если третий столбец не число или если
+     оба имени первой строки не числа, а следующая строка состоит из чисел
+     (файл с числовыми вершинами и заголовком "source,target").
+     */
+    public enum Header { AUTO, PRESENT, ABSENT }
+
+    // получатель разобранного файла: новые вершины по одной, рёбра пакетами
+    interface Sink<V> {
+        void addVertex(V v) throws IOException;
+
+        void addEdges(V[] from, V[] to, int[] weights, int count) throws IOException;
+    }
+
+    private static final int MAX_TOKENS = 4;
+    // рёбра передаются в Sink.addEdges пакетами такого размера
+    private static final int BATCH = 1 << 16;
+
+    private final Path file;
+    private final GraphFormat format;
+    private final Sink<V> sink;
+    private final TokenTable<V> names;
+    private final Header header;
+
+    private final int[] tokStart = new int[MAX_TOKENS];
+    private final int[] tokEnd = new int[MAX_TOKENS];
+    private final boolean[] quoted = new boolean[MAX_TOKENS];
+    private final boolean[] isNew = new boolean[1];
+    private long lineNo;
+    private boolean firstDataLine = true;
+    // первая строка CSV из двух нечисловых имён: заголовок или ребро — решает следующая строка
+    private byte[][] pending;
+    // имя с экранированными кавычками после разбора
+    private ByteBuffer unquoted = ByteBuffer.allocate(256);
+    private long edges;
+
+    private final V[] batchFrom;
+    private final V[] batchTo;
+    private final int[] batchWeight = new int[BATCH];
+    private int batchSize;
+
+    private GraphReader(Path file, GraphFormat format, Sink<V> sink, Function<String, V> vertexValue, Header header) {
+        this.file = file;
+        this.format = format;
+        this.sink = sink;
+        this.names = new TokenTable<>(vertexValue);
+        this.header = header;
+        @SuppressWarnings("unchecked") V[] f = (V[]) new Object[BATCH];
+        @SuppressWarnings("unchecked") V[] t = (V[]) new Object[BATCH];
+        this.batchFrom = f;
+        this.batchTo = t;
+    }
+
+    // загрузка в Graph<String>, формат определяется по расширению файла
+    public static long read(Path file, Graph<String> graph) throws IOException {
+        return read(file, GraphFormat.byFileName(file), graph, s -> s);
+    }
+
+    /*
+     Загрузка рёбер файла в graph. vertexValue превращает имя вершины из файла
+     в значение вершины (вызывается один раз на вершину). Возвращает число прочитанных рёбер.
+     */
+    public static <V> long read(Path file, GraphFormat format, Graph<V> graph,
+                                Function<String, V> vertexValue) throws IOException {
+        return read(file, format, graph, vertexValue, Header.AUTO, DEFAULT_WINDOW);
+    }
+
+    // то же с явным указанием, есть ли в CSV строка заголовка
+    public static <V> long read(Path file, GraphFormat format, Graph<V> graph,
+                                Function<String, V> vertexValue, Header header) throws IOException {
+        return read(file, format, graph, vertexValue, header, DEFAULT_WINDOW);
+    }
+
+    static <V> long read(Path file, GraphFormat format, Graph<V> graph,
+                         Function<String, V> vertexValue, Header header, int window) throws IOException {
+        return read(file, format, new Sink<V>() {
+            @Override
+            public void addVertex(V v) {
+                graph.addVertex(v);
+            }
+
+            @Override
+            public void addEdges(V[] from, V[] to, int[] weights, int count) {
+                graph.addEdges(from, to, weights, count);
+            }
+        }, vertexValue, header, window);
+    }
+
+    /*
+     Файл сразу в формат MappedGraph, без Graph в куче: рёбра сортируются во временных
+     файлах рядом с mapped (см. MappedImport), секции CSR пишутся потоком. В куче остаются
+     только имена вершин, массивы по вершинам и порция сортировки. Файл получается тот же,
+     что у MappedGraph.write после read в Graph<String> с той же ориентированностью.
+     Возвращает число прочитанных рёбер (вместе с дубликатами).
+     */
+    public static long toMapped(Path file, boolean directed, Path mapped) throws IOException {
+        return toMapped(file, GraphFormat.byFileName(file), Header.AUTO, directed, mapped);
+    }
+
+    public static long toMapped(Path file, GraphFormat format, Header header, boolean directed,
+                                Path mapped) throws IOException {
+        return MappedImport.run(file, format, header, directed, mapped, MappedImport.RUN_SIZE, DEFAULT_WINDOW);
+    }
+
+    static <V> long read(Path file, GraphFormat format, Sink<V> sink,
+                         Function<String, V> vertexValue, Header header, int window) throws IOException {
+        GraphReader<V> r = new GraphReader<>(file, format, sink, vertexValue, header);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            long pos = 0;
+            while (pos < size) {
+                int len = (int) Math.min(window, size - pos);
+                boolean eof = pos + len == size;
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, len);
+                int consumed = r.parse(buf, len, eof);
+                if (consumed == 0) throw r.error("строка длиннее окна чтения (" + window + " байт)");
+                pos += consumed;
+            }
+        }
+        r.resolvePending(false);
+        r.flushBatch();
+        return r.edges;
+    }
+
+    // разбор полных строк окна; возвращает число обработанных байт
+    private int parse(ByteBuffer buf, int limit, boolean eof) throws IOException {
+        int pos = 0;
+        while (pos < limit) {
+            int end = pos;
+            while (end < limit && buf.get(end) != '\n') end++;
+            if (end == limit && !eof) return pos; // неполная строка — дочитаем в следующем окне
+            lineNo++;
+            int lineEnd = end;
+            if (lineEnd > pos && buf.get(lineEnd - 1) == '\r') lineEnd--;
+            parseLine(buf, pos, lineEnd);
+            pos = end + 1;
+        }
+        return limit;
+    }
+
+    private void parseLine(ByteBuffer buf, int start, int end) throws IOException {
+        int n = tokenize(buf, start, end);
+        if (n == 0) return;
+        byte first = buf.get(tokStart[0]);
+        if (!quoted[0] && (first == '#' || first == '%')) return;
+
+        if (format == GraphFormat.DIMACS) {
+            parseDimacs(buf, n);
+            return;
+        }
+
+        if (pending != null) resolvePending(n >= 2 && isNumber(buf, 0) && isNumber(buf, 1));
+        if (firstDataLine && format == GraphFormat.CSV && isHeader(buf, n)) {
+            firstDataLine = false;
+            return;
+        }
+        firstDataLine = false;
+        if (pending != null) return;
+
+        if (n == 1) {
+            vertex(buf, 0);
+            return;
+        }
+        int w = n >= 3 ? parseInt(buf, 2) : 1;
+        addEdge(buf, 0, 1, w);
+    }
+
+    // true — строка заголовка; для неочевидной строки из двух имён решение откладывается (pending)
+    private boolean isHeader(ByteBuffer buf, int n) {
+        if (header != Header.AUTO) return header == Header.PRESENT;
+        if (n >= 3) return !isNumber(buf, 2);
+        if (n == 2 && !quoted[0] && !quoted[1] && !isNumber(buf, 0) && !isNumber(buf, 1)) {
+            pending = new byte[][]{copy(buf, 0), copy(buf, 1)};
+        }
+        return false;
+    }
+
+    // отложенная первая строка: заголовок пропускается, иначе это ребро с весом 1
+    private void resolvePending(boolean header) throws IOException {
+        if (pending == null) return;
+        byte[][] line = pending;
+        pending = null;
+        if (header) return;
+        V from = vertex(ByteBuffer.wrap(line[0]), 0, line[0].length);
+        V to = vertex(ByteBuffer.wrap(line[1]), 0, line[1].length);
+        addEdge(from, to, 1);
+    }
+
+    private byte[] copy(ByteBuffer buf, int tok) {
+        byte[] b = new byte[tokEnd[tok] - tokStart[tok]];
+        buf.get(tokStart[tok], b);
+        return b;
+    }
+
+    private void parseDimacs(ByteBuffer buf, int n) throws IOException {
+        if (tokEnd[0] - tokStart[0] != 1) throw error("неизвестная строка DIMACS");
+        switch (buf.get(tokStart[0])) {
+            case 'c':
+                return;
+            case 'p': {
+                // "p sp n m": заранее создаём вершины 1..n, чтобы не потерять изолированные
+                if (n < 4) throw error("ожидалось \"p sp n m\"");
+                int count = parseInt(buf, 2);
+                for (int i = 1; i <= count; i++) {
+                    ByteBuffer name = ByteBuffer.wrap(Integer.toString(i).getBytes());
+                    V v = names.lookup(name, 0, name.limit(), isNew);
+                    if (isNew[0]) sink.addVertex(v);
+                }
+                return;
+            }
+            case 'a':
+                if (n < 4) throw error("ожидалось \"a u v w\"");
+                addEdge(buf, 1, 2, parseInt(buf, 3));
+                return;
+            default:
+                throw error("неизвестная строка DIMACS");
+        }
+    }
+
+    private void addEdge(ByteBuffer buf, int fromTok, int toTok, int weight) throws IOException {
+        V from = vertex(buf, fromTok);
+        V to = vertex(buf, toTok);
+        addEdge(from, to, weight);
+    }
+
+    // вершина токена tok (создаётся при первой встрече)
+    private V vertex(ByteBuffer buf, int tok) throws IOException {
+        if (quoted[tok]) {
+            int len = unquote(buf, tokStart[tok], tokEnd[tok]);
+            return vertex(unquoted, 0, len);
+        }
+        return vertex(buf, tokStart[tok], tokEnd[tok]);
+    }
+
+    private V vertex(ByteBuffer buf, int start, int end) throws IOException {
+        V v = names.lookup(buf, start, end, isNew);
+        if (isNew[0]) sink.addVertex(v);
+        return v;
+    }
+
+    private void addEdge(V from, V to, int weight) throws IOException {
+        batchFrom[batchSize] = from;
+        batchTo[batchSize] = to;
+        batchWeight[batchSize++] = weight;
+        if (batchSize == BATCH) flushBatch();
+        edges++;
+    }
+
+    private void flushBatch() throws IOException {
+        if (batchSize == 0) return;
+        sink.addEdges(batchFrom, batchTo, batchWeight, batchSize);
+        batchSize = 0;
+    }
+
+    /*
+     Делит строку на токены (не более MAX_TOKENS); лишние столбцы игнорируются.
+     У токена в кавычках [tokStart, tokEnd) — содержимое между кавычками, ещё с удвоенными "".
+     */
+    private int tokenize(ByteBuffer buf, int start, int end) throws IOException {
+        int n = 0;
+        int i = start;
+        while (i < end && n < MAX_TOKENS) {
+            while (i < end && isSeparator(buf.get(i))) i++;
+            if (i == end) break;
+            quoted[n] = buf.get(i) == '"';
+            if (quoted[n]) {
+                tokStart[n] = ++i;
+                while (true) {
+                    if (i == end) throw error("нет закрывающей кавычки");
+                    if (buf.get(i) == '"') {
+                        if (i + 1 < end && buf.get(i + 1) == '"') i += 2;
+                        else break;
+                    } else {
+                        i++;
+                    }
+                }
+                tokEnd[n++] = i++;
+                if (i < end && !isSeparator(buf.get(i))) throw error("после закрывающей кавычки ожидался разделитель");
+            } else {
+                tokStart[n] = i;
+                while (i < end && !isSeparator(buf.get(i))) i++;
+                tokEnd[n++] = i;
+            }
+        }
+        return n;
+    }
+
+    // содержимое кавычек без удвоения "" в буфер unquoted; возвращает длину
+    private int unquote(ByteBuffer buf, int start, int end) {
+        if (unquoted.capacity() < end - start) unquoted = ByteBuffer.allocate(Math.max(end - start, 2 * unquoted.capacity()));
+        int len = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buf.get(i);
+            unquoted.put(len++, b);
+            if (b == '"') i++;
+        }
+        return len;
+    }
+
+    private boolean isSeparator(byte b) {
+        if (b == ' ' || b == '\t') return true;
+        return format == GraphFormat.CSV && (b == ',' || b == ';');
+    }
+
+    private boolean isNumber(ByteBuffer buf, int tok) {
+        if (quoted[tok]) return false;
+        int i = tokStart[tok];
+        if (i < tokEnd[tok] && (buf.get(i) == '-' || buf.get(i) == '+')) i++;
+        if (i == tokEnd[tok]) return false;
+        for (; i < tokEnd[tok]; i++) {
+            byte b = buf.get(i);
+            if (b < '0' || b > '9') return false;
+        }
+        return true;
+    }
+
+    private int parseInt(ByteBuffer buf, int tok) throws IOException {
+        int i = tokStart[tok];
+        int end = tokEnd[tok];
+        boolean negative = false;
+        if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) negative = buf.get(i++) == '-';
+        if (i == end) throw error("ожидалось целое число");
+        long value = 0;
+        for (; i < end; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) throw error("ожидалось целое число");
+            value = value * 10 + d;
+            if (value > Integer.MAX_VALUE + 1L) throw error("число вне диапазона int");
+        }
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) throw error("число вне диапазона int");
+        return (int) value;
+    }
+
+    private IOException error(String message) {
+        return new IOException(file + ":" + lineNo + ": " + message);
+    }
+}
@@ -0,0 +1,165 @@
+package graph.io;
+
+import graph.CsrGraph;
+import graph.Graph;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ Запись графа в текстовом формате (парный к GraphReader).
+ Вывод идёт через собственный байтовый буфер, числа форматируются вручную.
+ Для неориентированного графа каждое ребро пишется один раз.
+ Вершина без рёбер пишется строкой из одного имени. Имя с разделителем, кавычкой или
+ начальным '#'/'%' берётся в кавычки (кавычка внутри удваивается); перевод строки
+ в имени не допускается.
+ В DIMACS вершины нумеруются 1..n в порядке Graph.getVertices(), имена не сохраняются.
+ */
+public final class GraphWriter {
+    private static final int BUFFER = 1 << 16;
+
+    private final OutputStream out;
+    private final byte[] buf = new byte[BUFFER];
+    private int pos;
+
+    private GraphWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    public static void write(Graph<?> graph, Path file) throws IOException {
+        write(graph, file, GraphFormat.byFileName(file));
+    }
+
+    public static void write(Graph<?> graph, Path file, GraphFormat format) throws IOException {
+        write(graph.freeze(), file, format);
+    }
+
+    // запись готового снимка (можно выполнять вне потока, изменяющего граф)
+    public static void write(CsrGraph<?> graph, Path file, GraphFormat format) throws IOException {
+        try (OutputStream os = Files.newOutputStream(file)) {
+            GraphWriter w = new GraphWriter(os);
+            w.writeGraph(graph, format);
+            w.flush();
+        }
+    }
+
+    private void writeGraph(CsrGraph<?> g, GraphFormat format) throws IOException {
+        int n = g.vertexCount();
+        int[] offsets = g.offsets();
+        int[] targets = g.targets();
+        int[] weights = g.weights();
+        boolean once = !g.isDirected();
+
+        byte[][] names = null;
+        byte sep = format == GraphFormat.CSV ? (byte) ',' : (byte) ' ';
+        if (format == GraphFormat.DIMACS) {
+            long m = 0;
+            for (int v = 0; v < n; v++)
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) if (!once || v <= targets[e]) m++;
+            ascii("c graph: " + n + " vertices, " + (g.isDirected() ? "directed" : "undirected") + "\n");
+            ascii("p sp ");
+            number(n);
+            put((byte) ' ');
+            number(m);
+            put((byte) '\n');
+        } else {
+            // имя каждой вершины кодируем один раз
+            names = new byte[n][];
+            for (int v = 0; v < n; v++) names[v] = name(String.valueOf(g.value(v)));
+            if (format == GraphFormat.CSV) ascii("from,to,weight\n");
+        }
+
+        // вершины, у которых нет ни исходящих, ни входящих рёбер
+        boolean[] touched = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            if (offsets[v] < offsets[v + 1]) touched[v] = true;
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) touched[targets[e]] = true;
+        }
+
+        for (int v = 0; v < n; v++) {
+            if (!touched[v] && names != null) {
+                bytes(names[v]);
+                put((byte) '\n');
+            }
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int t = targets[e];
+                if (once && v > t) continue;
+                if (format == GraphFormat.DIMACS) {
+                    put((byte) 'a');
+                    put((byte) ' ');
+                    number(v + 1);
+                    put((byte) ' ');
+                    number(t + 1);
+                } else {
+                    bytes(names[v]);
+                    put(sep);
+                    bytes(names[t]);
+                }
+                put(sep);
+                number(weights[e]);
+                put((byte) '\n');
+            }
+        }
+    }
+
+    // имя вершины как токен: в кавычках, если иначе GraphReader прочитает его по-другому
+    private static byte[] name(String name) throws IOException {
+        if (name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0)
+            throw new IOException("имя вершины содержит перевод строки: " + name.strip());
+        boolean quote = name.isEmpty() || name.charAt(0) == '#' || name.charAt(0) == '%';
+        for (int i = 0; i < name.length() && !quote; i++) {
+            char c = name.charAt(i);
+            quote = c == ' ' || c == '\t' || c == ',' || c == ';' || c == '"';
+        }
+        if (quote) name = '"' + name.replace("\"", "\"\"") + '"';
+        return name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void put(byte b) throws IOException {
+        if (pos == buf.length) flush();
+        buf[pos++] = b;
+    }
+
+    private void bytes(byte[] b) throws IOException {
+        if (b.length > buf.length - pos) {
+            flush();
+            if (b.length > buf.length) {
+                out.write(b);
+                return;
+            }
+        }
+        System.arraycopy(b, 0, buf, pos, b.length);
+        pos += b.length;
+    }
+
+    private void ascii(String s) throws IOException {
+        bytes(s.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // десятичная запись числа без создания строк
+    private void number(long value) throws IOException {
+        if (buf.length - pos < 20) flush();
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+        int start = pos;
+        do {
+            buf[pos++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = pos - 1; i < j; i++, j--) {
+            byte tmp = buf[i];
+            buf[i] = buf[j];
+            buf[j] = tmp;
+        }
+    }
+
+    private void flush() throws IOException {
+        out.write(buf, 0, pos);
+        pos = 0;
+    }
+}
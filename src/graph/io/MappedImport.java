@@ -0,0 +1,136 @@
+package graph.io;
+
+import ds.IntArrayList;
+import graph.MappedGraph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ GraphReader.toMapped: файл графа -> файл MappedGraph без Graph в куче.
+ Вершина — номер в порядке первой встречи (как id в Graph), её имя сразу уходит
+ во временный файл имён. Рёбра проходят две внешние сортировки EdgeRuns:
+ 1) по паре концов (для неориентированного — упорядоченной), из дубликатов
+    остаётся первое ребро — как Graph.addEdges отбрасывает повторы;
+ 2) по (владелец, номер ребра в файле): это порядок списков рёбер Graph, зеркальное
+    ребро неориентированного графа идёт в список второго конца с тем же номером.
+ После второй сортировки известны степени, так что offsets пишутся до рёбер,
+ а рёбра потоком идут в MappedGraph.Writer. Временные файлы лежат рядом с результатом.
+ */
+// значения вершин — Integer, но пакеты GraphReader — Object[], поэтому Sink<Object>
+final class MappedImport implements GraphReader.Sink<Object> {
+    // записей в порции сортировки: 4 массива long по 8 МБ
+    static final int RUN_SIZE = 1 << 20;
+    private static final long LOW = 0xFFFFFFFFL;
+
+    private final boolean directed;
+    private final EdgeRuns pairs;
+    private final OutputStream names;
+    private final IntArrayList nameOffsets = new IntArrayList();
+    private int vertexCount;
+    private long nameBytes;
+    private long seq;
+    private byte[] lastName;
+
+    private MappedImport(boolean directed, EdgeRuns pairs, OutputStream names) {
+        this.directed = directed;
+        this.pairs = pairs;
+        this.names = names;
+        nameOffsets.add(0);
+    }
+
+    static long run(Path file, GraphFormat format, GraphReader.Header header, boolean directed,
+                    Path mapped, int runSize, int window) throws IOException {
+        Path dir = mapped.toAbsolutePath().getParent();
+        Path namesFile = Files.createTempFile(dir, "names", ".tmp");
+        try (EdgeRuns pairs = new EdgeRuns(dir, runSize); EdgeRuns order = new EdgeRuns(dir, runSize)) {
+            MappedImport sink;
+            long edges;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(namesFile), 1 << 16)) {
+                sink = new MappedImport(directed, pairs, out);
+                edges = GraphReader.read(file, format, sink, sink::id, header, window);
+            }
+            sink.write(order, namesFile, mapped);
+            return edges;
+        } finally {
+            Files.deleteIfExists(namesFile);
+        }
+    }
+
+    // значение вершины: следующий номер; имя запоминается для addVertex
+    private Object id(String name) {
+        lastName = name.getBytes(StandardCharsets.UTF_8);
+        return vertexCount++;
+    }
+
+    @Override
+    public void addVertex(Object v) throws IOException {
+        nameBytes += lastName.length;
+        if (nameBytes > Integer.MAX_VALUE) throw new IOException("имена вершин длиннее 2 ГБ");
+        names.write(lastName);
+        nameOffsets.add((int) nameBytes);
+    }
+
+    @Override
+    public void addEdges(Object[] from, Object[] to, int[] weights, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            long a = (Integer) from[i], b = (Integer) to[i];
+            if (!directed && a > b) {
+                long t = a;
+                a = b;
+                b = t;
+            }
+            if (seq > LOW) throw new IOException("больше 2^32 рёбер в файле");
+            pairs.add(a << 32 | b, seq++ << 32 | (weights[i] & LOW));
+        }
+    }
+
+    private void write(EdgeRuns order, Path namesFile, Path mapped) throws IOException {
+        // 1) уникальные рёбра -> записи по владельцу
+        int[] degree = new int[vertexCount];
+        long m = 0;
+        pairs.finish();
+        long previous = -1;
+        while (pairs.next()) {
+            long key = pairs.key();
+            if (key == previous) continue;
+            previous = key;
+            long a = key >>> 32, b = key & LOW;
+            long number = pairs.payload() >>> 32, weight = pairs.payload() & LOW;
+            order.add(a << 32 | number, b << 32 | weight);
+            degree[(int) a]++;
+            m++;
+            if (!directed && a != b) {
+                order.add(b << 32 | number, a << 32 | weight);
+                degree[(int) b]++;
+                m++;
+            }
+        }
+        if (m > Integer.MAX_VALUE) throw new IOException(mapped + ": больше Integer.MAX_VALUE рёбер");
+
+        // 2) секции файла: offsets по степеням, рёбра в порядке второй сортировки, имена
+        int n = vertexCount;
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) offsets[v + 1] = offsets[v] + degree[v];
+        order.finish();
+        try (MappedGraph.Writer w = MappedGraph.Writer.create(mapped, directed, n, (int) m, (int) nameBytes)) {
+            w.offsets(offsets);
+            while (order.next()) {
+                long p = order.payload();
+                w.edge((int) (p >>> 32), (int) p);
+            }
+            w.nameOffsets(nameOffsets.toArray());
+            byte[] chunk = new byte[1 << 16];
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(namesFile))) {
+                int len;
+                while ((len = in.read(chunk)) > 0) w.names(chunk, 0, len);
+            }
+        }
+    }
+}
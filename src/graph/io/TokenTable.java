@@ -0,0 +1,94 @@
+package graph.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/*
+ Таблица имён вершин по байтам токена.
+ Токен ищется прямо в буфере файла (хеш по байтам + сравнение с копией в byte-арене),
+ поэтому объект-значение вершины создаётся один раз на вершину, а не на строку файла.
+ */
+final class TokenTable<V> {
+    private final Function<String, V> factory;
+
+    private int[] slots;            // индекс записи + 1, 0 — пусто
+    private int mask;
+    private int[] hashes = new int[16];
+    private int[] starts = new int[16];
+    private int[] lengths = new int[16];
+    private Object[] values = new Object[16];
+    private byte[] arena = new byte[1024];
+    private int arenaSize;
+    private int size;
+
+    TokenTable(Function<String, V> factory) {
+        this.factory = factory;
+        slots = new int[64];
+        mask = slots.length - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // значение вершины для токена buf[start, end); isNew[0] = true, если вершина встречена впервые
+    @SuppressWarnings("unchecked")
+    V lookup(ByteBuffer buf, int start, int end, boolean[] isNew) {
+        int h = hash(buf, start, end);
+        int i = h & mask;
+        int len = end - start;
+        while (slots[i] != 0) {
+            int e = slots[i] - 1;
+            if (hashes[e] == h && lengths[e] == len && equalsArena(buf, start, starts[e], len)) {
+                isNew[0] = false;
+                return (V) values[e];
+            }
+            i = (i + 1) & mask;
+        }
+
+        if (size == values.length) {
+            int cap = size * 2;
+            hashes = Arrays.copyOf(hashes, cap);
+            starts = Arrays.copyOf(starts, cap);
+            lengths = Arrays.copyOf(lengths, cap);
+            values = Arrays.copyOf(values, cap);
+        }
+        if (arenaSize + len > arena.length) arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + len));
+        for (int k = 0; k < len; k++) arena[arenaSize + k] = buf.get(start + k);
+
+        int e = size++;
+        hashes[e] = h;
+        starts[e] = arenaSize;
+        lengths[e] = len;
+        V value = factory.apply(new String(arena, arenaSize, len, StandardCharsets.UTF_8));
+        values[e] = value;
+        arenaSize += len;
+        slots[i] = e + 1;
+        if (size * 2 > slots.length) rehash();
+        isNew[0] = true;
+        return value;
+    }
+
+    private boolean equalsArena(ByteBuffer buf, int start, int arenaStart, int len) {
+        for (int k = 0; k < len; k++) if (buf.get(start + k) != arena[arenaStart + k]) return false;
+        return true;
+    }
+
+    private static int hash(ByteBuffer buf, int start, int end) {
+        int h = 0x811C9DC5;
+        for (int k = start; k < end; k++) h = (h ^ buf.get(k)) * 0x01000193;
+        return h ^ (h >>> 16);
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        mask = slots.length - 1;
+        for (int e = 0; e < size; e++) {
+            int i = hashes[e] & mask;
+            while (slots[i] != 0) i = (i + 1) & mask;
+            slots[i] = e + 1;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package algorithms;
+
+import graph.CsrGraph;
+import graph.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ ContractionHierarchy против DijkstraEngine: расстояния и распакованные пути (цепочки
+ рёбер исходного графа той же длины) до и после save/load; повреждённый файл не загружается.
+ */
+class ContractionHierarchyTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void directedMatchesDijkstraAfterReload() throws IOException {
+        check(random(new SplittableRandom(1), true, 400, 1_600));
+    }
+
+    @Test
+    void undirectedMatchesDijkstraAfterReload() throws IOException {
+        check(random(new SplittableRandom(2), false, 400, 1_000));
+    }
+
+    @Test
+    void corruptedHierarchyIsRejected() throws IOException {
+        Graph<Integer> g = random(new SplittableRandom(3), true, 50, 200);
+        ContractionHierarchy<Integer> ch = ContractionHierarchy.build(g);
+        Path file = dir.resolve("ch.bin");
+        ch.save(file);
+
+        // первая цель восходящего CSR -> вершина вне графа
+        CsrGraph<Integer> csr = ch.graph();
+        int n = csr.vertexCount();
+        long pos = 4 + 4 + 1 + 4;
+        for (int v = 0; v < n; v++) pos += 2 + String.valueOf(csr.value(v)).getBytes(StandardCharsets.UTF_8).length;
+        pos += 3 * 4L + 4L * (n + 1) + 8L * csr.edgeCount();   // offsets, targets, weights
+        pos += 1 + (csr.hasCoordinates() ? 8L * n : 0);
+        pos += 4 + 4L * n;                                       // rank
+        pos += 4 + 4L * (n + 1);                                 // upOffsets
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(pos - 4 - 4L * (n + 1));
+            assertEquals(n + 1, raf.readInt(), "смещение upOffsets в файле");
+            raf.seek(pos);
+            assertTrue(raf.readInt() > 0);
+            raf.writeInt(n + 5);
+        }
+        assertThrows(IOException.class, () -> ContractionHierarchy.load(file, Integer::valueOf));
+    }
+
+    private void check(Graph<Integer> g) throws IOException {
+        ContractionHierarchy<Integer> ch = ContractionHierarchy.build(g);
+        compare(ch);
+        Path file = dir.resolve("ch.bin");
+        ch.save(file);
+        ContractionHierarchy<Integer> loaded = ContractionHierarchy.load(file, Integer::valueOf);
+        assertEquals(ch.shortcutCount(), loaded.shortcutCount());
+        compare(loaded);
+    }
+
+    private static void compare(ContractionHierarchy<Integer> ch) {
+        CsrGraph<Integer> g = ch.graph();
+        DijkstraEngine<Integer> engine = new DijkstraEngine<>(g);
+        SplittableRandom r = new SplittableRandom(7);
+        for (int q = 0; q < 300; q++) {
+            int s = r.nextInt(g.vertexCount()), t = r.nextInt(g.vertexCount());
+            ShortestPathResult<Integer> expected = engine.query(s, t, new ShortestPathResult<>());
+            ShortestPathResult<Integer> actual = ch.query(s, t);
+            assertEquals(expected.distance(), actual.distance(), s + " -> " + t);
+            if (!actual.hasPath()) continue;
+            int[] path = actual.path();
+            int len = actual.pathLength();
+            assertEquals(s, path[0]);
+            assertEquals(t, path[len - 1]);
+            long total = 0;
+            for (int i = 0; i + 1 < len; i++) total += edgeWeight(g, path[i], path[i + 1]);
+            assertEquals(expected.distance(), total, "длина распакованного пути " + s + " -> " + t);
+        }
+    }
+
+    // минимальный вес ребра a -> b исходного графа
+    private static long edgeWeight(CsrGraph<?> g, int a, int b) {
+        int[] offsets = g.offsets(), targets = g.targets(), weights = g.weights();
+        long best = Long.MAX_VALUE;
+        for (int e = offsets[a]; e < offsets[a + 1]; e++) if (targets[e] == b) best = Math.min(best, weights[e]);
+        assertNotEquals(Long.MAX_VALUE, best, "в пути нет ребра " + a + " -> " + b);
+        return best;
+    }
+
+    private static Graph<Integer> random(SplittableRandom r, boolean directed, int n, int m) {
+        Graph<Integer> g = new Graph<>(directed);
+        for (int v = 0; v < n; v++) g.addVertex(v);
+        for (int i = 0; i < m; i++) g.addEdge(r.nextInt(n), r.nextInt(n), 1 + r.nextInt(100));
+        return g;
+    }
+}
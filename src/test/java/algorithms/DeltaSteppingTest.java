@@ -0,0 +1,103 @@
+package algorithms;
+
+import graph.CsrGraph;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ DeltaStepping против DijkstraEngine.tree: расстояния совпадают точно, каждое ребро
+ дерева prev[v] -> v натянуто (dist[prev] + w = dist[v]). Пул из 4 потоков, чтобы
+ параллельная ветвь работала и на одноядерной машине.
+ */
+class DeltaSteppingTest {
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void zeroWeights() {
+        // треть рёбер нулевого веса: вершины возвращаются в ту же корзину
+        SplittableRandom r = new SplittableRandom(1);
+        CsrGraph<Integer> g = random(r, 5_000, 20_000, 10, true);
+        compare(g, 0, 0);
+        compare(g, 17, 3);
+    }
+
+    @Test
+    void parallelLargeGraph() {
+        SplittableRandom r = new SplittableRandom(2);
+        int n = DeltaStepping.MIN_PARALLEL_VERTICES * 2;
+        compare(random(r, n, n * 4, 1_000, false), 0, 0);
+        compare(random(r, n, n * 4, 1_000, true), 5, 0);
+    }
+
+    @Test
+    void smallDeltaWrapsBuckets() {
+        // delta 1 при весах до 5000: расстояния в десятки раз дальше числа корзин
+        SplittableRandom r = new SplittableRandom(3);
+        int n = DeltaStepping.MIN_PARALLEL_VERTICES + 1_000;
+        compare(random(r, n, n * 3, 5_000, false), 0, 1);
+        compare(random(r, 2_000, 6_000, 5_000, true), 1, 1);
+    }
+
+    @Test
+    void sourceOutsideGraph() {
+        CsrGraph<Integer> g = random(new SplittableRandom(4), 10, 20, 5, false);
+        ShortestPathResult<Integer> r = new DeltaStepping(pool).run(g, 10, 0, RunMonitor.NONE);
+        assertEquals(0, r.settledCount());
+    }
+
+    private static void compare(CsrGraph<Integer> g, int source, long delta) {
+        ShortestPathResult<Integer> expected = new DijkstraEngine<>(g).tree(source, new ShortestPathResult<>());
+        ShortestPathResult<Integer> actual = new DeltaStepping(pool).run(g, source, delta, RunMonitor.NONE);
+        int[] offsets = g.offsets();
+        int[] targets = g.targets();
+        int[] weights = g.weights();
+        for (int v = 0; v < g.vertexCount(); v++) {
+            assertEquals(expected.distanceTo(v), actual.distanceTo(v), "расстояние до " + v);
+            if (v == source || !actual.isReached(v)) continue;
+            int p = actual.predecessor(v);
+            long best = Long.MAX_VALUE;
+            for (int e = offsets[p]; e < offsets[p + 1]; e++)
+                if (targets[e] == v) best = Math.min(best, weights[e]);
+            assertEquals(actual.distanceTo(v), actual.distanceTo(p) + best,
+                    "ребро дерева " + p + " -> " + v + " не натянуто");
+        }
+        assertEquals(expected.settledCount(), actual.settledCount());
+    }
+
+    private static CsrGraph<Integer> random(SplittableRandom r, int n, int m, int maxWeight, boolean zeros) {
+        int[] from = new int[m], to = new int[m], w = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = r.nextInt(n);
+            to[i] = r.nextInt(n);
+            w[i] = zeros && r.nextInt(3) == 0 ? 0 : 1 + r.nextInt(maxWeight);
+        }
+        int[] offsets = new int[n + 1];
+        for (int f : from) offsets[f + 1]++;
+        for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] targets = new int[m], weights = new int[m];
+        for (int i = 0; i < m; i++) {
+            int j = fill[from[i]]++;
+            targets[j] = to[i];
+            weights[j] = w[i];
+        }
+        return CsrGraph.ofIds(true, offsets, targets, weights);
+    }
+}
@@ -0,0 +1,115 @@
+package algorithms;
+
+import graph.CsrGraph;
+import graph.Graph;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ ForceLayout: позиции не зависят от числа потоков (пул из 4 и из 1), раскладка сходится
+ и разносит вершины, apply переносит позиции в Graph только для той версии графа,
+ по которой раскладка построена.
+ */
+class ForceLayoutTest {
+    private static ForkJoinPool pool, single;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+        single = new ForkJoinPool(1);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+        single.shutdown();
+    }
+
+    @Test
+    void sameResultForAnyThreadCount() {
+        Graph<Integer> g = random(new SplittableRandom(1), ForceLayout.MIN_PARALLEL_VERTICES + 1_500, 3);
+        CsrGraph<Integer> csr = g.freeze(true);
+        ForceLayout parallel = new ForceLayout(csr, false, ForceLayout.DEFAULT_SPACING, pool);
+        ForceLayout sequential = new ForceLayout(csr, false, ForceLayout.DEFAULT_SPACING, single);
+        parallel.run(25);
+        sequential.run(25);
+        assertEquals(sequential.iterations(), parallel.iterations());
+        for (int v = 0; v < csr.vertexCount(); v++) {
+            assertEquals(sequential.x(v), parallel.x(v), "x вершины " + v);
+            assertEquals(sequential.y(v), parallel.y(v), "y вершины " + v);
+        }
+    }
+
+    @Test
+    void convergesWithNeighboursCloserThanAverage() {
+        // решётка 15 x 15: после раскладки рёбра заметно короче среднего расстояния между вершинами
+        int side = 15;
+        Graph<Integer> g = new Graph<>(false);
+        for (int v = 0; v < side * side; v++) g.addVertex(v);
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                if (c + 1 < side) g.addEdge(r * side + c, r * side + c + 1, 1);
+                if (r + 1 < side) g.addEdge(r * side + c, (r + 1) * side + c, 1);
+            }
+        }
+        CsrGraph<Integer> csr = g.freeze();
+        ForceLayout layout = new ForceLayout(csr, false, ForceLayout.DEFAULT_SPACING, pool);
+        layout.run(2_000);
+        assertTrue(layout.isConverged());
+
+        int n = csr.vertexCount();
+        double edgeSum = 0, allSum = 0, minDist = Double.MAX_VALUE;
+        int[] offsets = csr.offsets(), targets = csr.targets();
+        for (int v = 0; v < n; v++) {
+            assertTrue(Double.isFinite(layout.x(v)) && Double.isFinite(layout.y(v)));
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) edgeSum += dist(layout, v, targets[e]);
+            for (int u = v + 1; u < n; u++) {
+                double d = dist(layout, v, u);
+                allSum += d;
+                minDist = Math.min(minDist, d);
+            }
+        }
+        double edgeMean = edgeSum / offsets[n];
+        double allMean = allSum / ((double) n * (n - 1) / 2);
+        assertTrue(edgeMean * 3 < allMean, "ребро " + edgeMean + ", среднее " + allMean);
+        assertTrue(minDist > 1, "совпадающие вершины: " + minDist);
+    }
+
+    @Test
+    void applyOnlyToUnchangedGraph() {
+        Graph<Integer> g = random(new SplittableRandom(2), 200, 2);
+        ForceLayout layout = ForceLayout.of(g, false, pool);
+        layout.run(50);
+        assertTrue(layout.apply());
+        CsrGraph<Integer> csr = g.freeze();
+        int[] xs = new int[layout.vertexCount()], ys = new int[layout.vertexCount()];
+        layout.positions(xs, ys);
+        for (int v = 0; v < csr.vertexCount(); v++) {
+            assertEquals(xs[v], csr.x(v));
+            assertEquals(ys[v], csr.y(v));
+        }
+
+        // тёплый старт продолжает от перенесённых координат
+        ForceLayout warm = ForceLayout.of(g, true, pool);
+        assertEquals(xs[7], warm.x(7));
+        g.addVertex(-1);
+        assertFalse(warm.apply());
+    }
+
+    private static double dist(ForceLayout l, int a, int b) {
+        return Math.hypot(l.x(a) - l.x(b), l.y(a) - l.y(b));
+    }
+
+    private static Graph<Integer> random(SplittableRandom r, int n, int degree) {
+        Graph<Integer> g = new Graph<>(true);
+        for (int v = 0; v < n; v++) g.addVertex(v);
+        for (int i = 0; i < n * degree; i++) g.addEdge(r.nextInt(n), r.nextInt(n), 1);
+        return g;
+    }
+}
@@ -0,0 +1,83 @@
+package algorithms;
+
+import graph.CsrGraph;
+import graph.IntGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Перегрузки GraphAlgorithms для IntGraph: свободные id (удалённые и пропущенные)
+ не попадают в компоненты, топологический порядок и обходы.
+ */
+class IntGraphAlgorithmsTest {
+
+    // id 0..5 и 9; id 4 удалён, 6..8 не выдавались
+    private static IntGraph sparseIds() {
+        IntGraph g = new IntGraph(true);
+        for (int v = 0; v < 6; v++) g.addVertex(v);
+        g.addVertex(9);
+        g.addEdge(0, 1);
+        g.addEdge(1, 2);
+        g.addEdge(2, 3);
+        g.addEdge(3, 4);
+        g.addEdge(5, 9);
+        g.removeVertex(4);
+        return g;
+    }
+
+    @Test
+    void componentsSkipFreeIds() {
+        IntGraph g = sparseIds();
+        g.addEdge(1, 0);
+        SccResult<Integer> scc = GraphAlgorithms.stronglyConnectedComponents(g);
+        // {0, 1}, {2}, {3}, {5}, {9}
+        assertEquals(5, scc.componentCount());
+        CsrGraph<Integer> live = scc.graph();
+        assertEquals(g.size(), live.vertexCount());
+        int a = live.indexOf(0), b = live.indexOf(1), c = live.indexOf(9);
+        assertEquals(scc.componentOf(a), scc.componentOf(b));
+        assertNotEquals(scc.componentOf(a), scc.componentOf(c));
+        assertEquals(-1, live.indexOf(4));
+    }
+
+    @Test
+    void topologicalOrderHasOnlyLiveVertices() {
+        IntGraph g = sparseIds();
+        TopoResult<Integer> topo = GraphAlgorithms.topologicalOrder(g);
+        assertTrue(topo.isAcyclic());
+        assertEquals(g.size(), topo.size());
+        Set<Integer> ids = new HashSet<>();
+        int[] position = new int[g.idBound()];
+        for (int i = 0; i < topo.size(); i++) {
+            int id = topo.value(i);
+            assertTrue(g.containsVertex(id), "свободный id " + id + " в порядке");
+            assertTrue(ids.add(id));
+            position[id] = i;
+        }
+        assertTrue(position[0] < position[1] && position[1] < position[2] && position[2] < position[3]);
+        assertTrue(position[5] < position[9]);
+    }
+
+    @Test
+    void traversalFromFreeIdIsEmpty() {
+        IntGraph g = sparseIds();
+        assertEquals(0, GraphAlgorithms.dfs(g, 4).size());
+        assertEquals(0, GraphAlgorithms.bfs(g, 7).size());
+        assertEquals(4, GraphAlgorithms.dfs(g, 0).size());
+    }
+
+    @Test
+    void denseIdsKeepPlainSnapshot() {
+        IntGraph g = new IntGraph(true);
+        for (int v = 0; v < 4; v++) g.addVertex(v);
+        g.addEdge(0, 1);
+        assertSame(g.freeze(), g.freezeLive());
+        g.removeVertex(3);
+        assertNotSame(g.freeze(), g.freezeLive());
+        assertSame(g.freezeLive(), g.freezeLive());
+    }
+}
@@ -0,0 +1,151 @@
+package algorithms;
+
+import graph.CsrGraph;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ ParallelScc против последовательного SccEngine: одинаковое разбиение на компоненты
+ и топологическая нумерация у обоих. Пул из 4 потоков, чтобы параллельные ветви
+ выполнялись и на одноядерной машине. Путь выполнения (сколько вершин осталось
+ после обрезки) проверяется по метрикам запуска: фронт parallel scc — это они.
+ */
+class ParallelSccTest {
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+        AlgorithmMetrics.enable(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        AlgorithmMetrics.enable(false);
+        pool.shutdown();
+    }
+
+    @Test
+    void randomSparse() {
+        // средняя степень 1.5: одна большая компонента и много мелких
+        SplittableRandom r = new SplittableRandom(1);
+        int n = 30_000;
+        int m = n * 3 / 2;
+        int[] from = new int[m], to = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = r.nextInt(n);
+            to[i] = r.nextInt(n);
+        }
+        long rest = compare(csr(n, from, to));
+        assertTrue(rest > ParallelScc.SEQUENTIAL_THRESHOLD, "ожидался forward-backward, осталось " + rest);
+    }
+
+    @Test
+    void powerLaw() {
+        SplittableRandom r = new SplittableRandom(2);
+        int n = 30_000;
+        int m = n * 4;
+        int[] from = new int[m], to = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = skewed(r, n);
+            to[i] = skewed(r, n);
+        }
+        compare(csr(n, from, to));
+    }
+
+    @Test
+    void deepDag() {
+        // длинные цепочки не успевают обрезаться за TRIM_ROUNDS раундов
+        SplittableRandom r = new SplittableRandom(3);
+        int n = 30_000;
+        int m = 2 * (n - 1);
+        int[] from = new int[m], to = new int[m];
+        for (int v = 0; v + 1 < n; v++) {
+            from[2 * v] = v;
+            to[2 * v] = v + 1;
+            from[2 * v + 1] = v;
+            to[2 * v + 1] = v + 1 + r.nextInt(Math.min(n - v - 1, 64));
+        }
+        CsrGraph<Integer> g = csr(n, from, to);
+        compare(g);
+        assertEquals(n, SccEngine.run(g).componentCount());
+    }
+
+    @Test
+    void trimRemovesEverything() {
+        // двудольный DAG: каждая вершина — источник или сток, первый же раунд обрезки забирает все
+        SplittableRandom r = new SplittableRandom(4);
+        int n = 20_000;
+        int m = n * 3;
+        int[] from = new int[m], to = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = r.nextInt(n / 2);
+            to[i] = n / 2 + r.nextInt(n / 2);
+        }
+        assertEquals(0, compare(csr(n, from, to)));
+    }
+
+    @Test
+    void tarjanFallback() {
+        // после обрезки остаётся меньше SEQUENTIAL_THRESHOLD вершин: сразу итеративный Тарьян
+        SplittableRandom r = new SplittableRandom(5);
+        int n = 3_000;
+        int m = n * 2;
+        int[] from = new int[m], to = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = r.nextInt(n);
+            to[i] = r.nextInt(n);
+        }
+        long rest = compare(csr(n, from, to));
+        assertTrue(rest > 0 && rest <= ParallelScc.SEQUENTIAL_THRESHOLD, "осталось после обрезки: " + rest);
+    }
+
+    @Test
+    void emptyAndSelfLoops() {
+        compare(csr(0, new int[0], new int[0]));
+        compare(csr(5, new int[]{0, 1, 2, 3}, new int[]{0, 2, 1, 3}));
+    }
+
+    // сравнивает результаты и возвращает число вершин, оставшихся после обрезки
+    private static long compare(CsrGraph<Integer> g) {
+        SccResult<Integer> expected = SccEngine.run(g);
+        SccResult<Integer> actual = new ParallelScc(pool).run(g);
+        long rest = AlgorithmMetrics.lastRun().getPeakFrontier();
+        assertEquals(expected.componentCount(), actual.componentCount());
+        assertTrue(actual.sameComponents(expected), "разбиение на компоненты отличается");
+        assertTopological(g, expected);
+        assertTopological(g, actual);
+        return rest;
+    }
+
+    private static void assertTopological(CsrGraph<?> g, SccResult<?> scc) {
+        int[] offsets = g.offsets();
+        int[] targets = g.targets();
+        for (int v = 0; v < g.vertexCount(); v++)
+            for (int e = offsets[v]; e < offsets[v + 1]; e++)
+                assertTrue(scc.componentOf(v) <= scc.componentOf(targets[e]),
+                        "ребро " + v + " -> " + targets[e] + " против топологического порядка");
+    }
+
+    private static CsrGraph<Integer> csr(int n, int[] from, int[] to) {
+        int[] offsets = new int[n + 1];
+        for (int f : from) offsets[f + 1]++;
+        for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] targets = new int[from.length];
+        for (int i = 0; i < from.length; i++) targets[fill[from[i]]++] = to[i];
+        return CsrGraph.ofIds(true, offsets, targets, new int[from.length]);
+    }
+
+    private static int skewed(SplittableRandom r, int n) {
+        double x = r.nextDouble();
+        return (int) (n * x * x * x);
+    }
+}
@@ -0,0 +1,77 @@
+package algorithms;
+
+import graph.CsrGraph;
+import graph.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Кэш деревьев путей: сброс только при изменении структуры графа, один расчёт
+ на одновременные запросы к одному источнику, отменённый расчёт в кэш не попадает.
+ */
+class ShortestPathCacheTest {
+
+    private static Graph<Integer> randomGraph(int n, long seed) {
+        Graph<Integer> g = new Graph<>(true);
+        for (int v = 0; v < n; v++) g.addVertex(v);
+        SplittableRandom r = new SplittableRandom(seed);
+        for (int i = 0; i < 4 * n; i++) g.addEdge(r.nextInt(n), r.nextInt(n), 1 + r.nextInt(50));
+        return g;
+    }
+
+    @Test
+    void movingVerticesKeepsCache() {
+        Graph<Integer> g = randomGraph(2_000, 1);
+        ShortestPathCache<Integer> cache = new ShortestPathCache<>(8);
+        cache.tree(g.freeze(), 5);
+        g.moveVertex(3, 100, 100);
+        CsrGraph<Integer> moved = g.freeze();
+        cache.tree(moved, 5);
+        assertEquals(1, cache.hits());
+        assertEquals(0, cache.invalidations());
+
+        g.addEdge(1, 2, 7);
+        cache.tree(g.freeze(), 5);
+        assertEquals(1, cache.invalidations());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void concurrentQueriesShareOneComputation() throws Exception {
+        Graph<Integer> g = randomGraph(100_000, 2);
+        CsrGraph<Integer> s = g.freeze();
+        ShortestPathCache<Integer> cache = new ShortestPathCache<>(8);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ShortestPathResult<Integer>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) results.add(pool.submit(() -> cache.tree(s, 11)));
+            ShortestPathResult<Integer> first = results.get(0).get();
+            for (Future<ShortestPathResult<Integer>> f : results) assertSame(first, f.get());
+            assertEquals(1, cache.misses());
+        } finally {
+            pool.shutdown();
+        }
+        ShortestPathResult<Integer> expected = new DijkstraEngine<>(s).query(11, -1, null);
+        for (int v = 0; v < s.vertexCount(); v++) assertEquals(expected.distanceTo(v), cache.tree(s, 11).distanceTo(v));
+    }
+
+    @Test
+    void cancelledComputationIsNotCached() {
+        Graph<Integer> g = randomGraph(2_000, 3);
+        ShortestPathCache<Integer> cache = new ShortestPathCache<>(8);
+        RunMonitor cancelled = new RunMonitor();
+        cancelled.cancel();
+        assertThrows(CancellationException.class, () -> cache.tree(g.freeze(), 4, cancelled));
+        assertEquals(0, cache.size());
+        assertTrue(cache.tree(g.freeze(), 4).isSettled(4));
+    }
+}
@@ -0,0 +1,150 @@
+package graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ ConcurrentGraph: снимок не меняется от последующих записей (списки соседей общие
+ между версиями, новые рёбра дописываются за префикс старой версии), итог совпадает
+ с Graph после тех же операций, а снимки, взятые во время записи, согласованы.
+ */
+class ConcurrentGraphTest {
+
+    @Test
+    void snapshotsSurviveLaterWrites() {
+        for (boolean directed : new boolean[]{true, false}) {
+            SplittableRandom r = new SplittableRandom(directed ? 1 : 2);
+            ConcurrentGraph<Integer> cg = new ConcurrentGraph<>(directed);
+            Graph<Integer> model = new Graph<>(directed);
+            java.util.List<ConcurrentGraph.Snapshot<Integer>> snapshots = new ArrayList<>();
+            java.util.List<String> dumps = new ArrayList<>();
+            int n = 60;
+            for (int v = 0; v < n; v++) {
+                cg.addVertex(v);
+                model.addVertex(v);
+            }
+            for (int step = 0; step < 3_000; step++) {
+                int op = r.nextInt(10), a = r.nextInt(n), b = r.nextInt(n);
+                if (op < 6) {
+                    int w = 1 + r.nextInt(9);
+                    cg.addEdge(a, b, w);
+                    model.addEdge(a, b, w);
+                } else if (op < 9) {
+                    cg.removeEdge(a, b);
+                    model.removeEdge(a, b);
+                } else if (r.nextBoolean()) {
+                    cg.removeVertex(a);
+                    model.removeVertex(a);
+                } else {
+                    cg.addVertex(a);
+                    model.addVertex(a);
+                }
+                if (step % 50 == 0) {
+                    ConcurrentGraph.Snapshot<Integer> s = cg.snapshot();
+                    snapshots.add(s);
+                    dumps.add(dump(s));
+                }
+            }
+            // старые снимки видят ровно то же, что в момент снятия
+            for (int i = 0; i < snapshots.size(); i++) assertEquals(dumps.get(i), dump(snapshots.get(i)), "снимок " + i);
+            assertEquals(dump(model), dump(cg.snapshot()));
+        }
+    }
+
+    @Test
+    void readersSeeConsistentVersions() throws InterruptedException {
+        ConcurrentGraph<Integer> cg = new ConcurrentGraph<>(true);
+        int n = 200;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            SplittableRandom r = new SplittableRandom(3);
+            for (int step = 0; step < 40_000; step++) {
+                int a = r.nextInt(n), b = r.nextInt(n);
+                switch (r.nextInt(8)) {
+                    case 0 -> cg.removeVertex(a);
+                    case 1, 2 -> cg.removeEdge(a, b);
+                    default -> {
+                        cg.addVertex(a);
+                        cg.addVertex(b);
+                        cg.addEdge(a, b, 1);
+                    }
+                }
+            }
+            done.set(true);
+        });
+        Thread reader = new Thread(() -> {
+            try {
+                while (!done.get()) {
+                    ConcurrentGraph.Snapshot<Integer> s = cg.snapshot();
+                    String before = dump(s);
+                    checkConsistent(s);
+                    assertEquals(before, dump(s));
+                }
+            } catch (Throwable ex) {
+                failure.set(ex);
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+        if (failure.get() != null) fail(failure.get());
+        checkConsistent(cg.snapshot());
+    }
+
+    // число рёбер и вершин совпадает со списками, рёбра ведут только в живые вершины
+    private static void checkConsistent(ConcurrentGraph.Snapshot<Integer> s) {
+        int edges = 0, vertices = 0;
+        for (int v = 0; v < s.vertexCount(); v++) {
+            if (!s.contains(v)) {
+                assertEquals(0, s.degree(v));
+                continue;
+            }
+            vertices++;
+            for (int i = 0; i < s.degree(v); i++) {
+                assertTrue(s.contains(s.target(v, i)), "ребро в удалённую вершину");
+                edges++;
+            }
+        }
+        assertEquals(s.size(), vertices);
+        assertEquals(s.edgeCount(), edges);
+    }
+
+    // рёбра как отсортированные тройки "значение -> значение (вес)"
+    private static String dump(ConcurrentGraph.Snapshot<Integer> s) {
+        java.util.List<String> lines = new ArrayList<>();
+        for (int v = 0; v < s.vertexCount(); v++) {
+            if (!s.contains(v)) continue;
+            lines.add(String.valueOf(s.value(v)));
+            for (int i = 0; i < s.degree(v); i++)
+                lines.add(s.value(v) + " -> " + s.value(s.target(v, i)) + " (" + s.weight(v, i) + ")");
+        }
+        return sorted(lines);
+    }
+
+    private static String dump(Graph<Integer> g) {
+        CsrGraph<Integer> csr = g.freeze();
+        java.util.List<String> lines = new ArrayList<>();
+        int[] offsets = csr.offsets(), targets = csr.targets(), weights = csr.weights();
+        for (int v = 0; v < csr.vertexCount(); v++) {
+            lines.add(String.valueOf(csr.value(v)));
+            for (int e = offsets[v]; e < offsets[v + 1]; e++)
+                lines.add(csr.value(v) + " -> " + csr.value(targets[e]) + " (" + weights[e] + ")");
+        }
+        return sorted(lines);
+    }
+
+    private static String sorted(java.util.List<String> lines) {
+        String[] a = lines.toArray(new String[0]);
+        Arrays.sort(a);
+        return String.join("\n", a);
+    }
+}
@@ -0,0 +1,118 @@
+package graph;
+
+import ds.ArrayList;
+import ds.IntArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Удаление в Graph перестановкой последнего элемента: после случайной последовательности
+ добавлений и удалений Edge.back и входящие списки указывают друг на друга, рёбра совпадают
+ с моделью на множестве пар, а compact() сохраняет id и порядок вершин.
+ */
+class GraphRemovalTest {
+
+    @Test
+    void swapRemoveKeepsIndexesConsistent() {
+        for (boolean directed : new boolean[]{true, false}) {
+            for (int seed = 1; seed <= 5; seed++) {
+                SplittableRandom r = new SplittableRandom(seed);
+                Graph<Integer> g = new Graph<>(directed);
+                Map<Integer, Integer> ids = new HashMap<>();
+                Set<Long> edges = new HashSet<>();
+                int n = 80;
+                for (int step = 0; step < 4_000; step++) {
+                    int op = r.nextInt(20), a = r.nextInt(n), b = r.nextInt(n);
+                    if (op < 3) {
+                        if (!ids.containsKey(a)) {
+                            g.addVertex(a);
+                            ids.put(a, g.idOf(a));
+                        }
+                    } else if (op < 12) {
+                        g.addEdge(a, b, 1);
+                        if (ids.containsKey(a) && ids.containsKey(b)) edges.add(key(a, b, directed));
+                    } else if (op < 18) {
+                        g.removeEdge(a, b);
+                        edges.remove(key(a, b, directed));
+                        if (!directed) edges.remove(key(b, a, false));
+                    } else if (ids.remove(a) != null) {
+                        g.removeVertex(a);
+                        edges.removeIf(e -> (int) (e >> 32) == a || (int) (long) e == a);
+                    }
+                }
+                check(g, ids, edges, directed, "seed " + seed + (directed ? ", ориентированный" : ""));
+            }
+        }
+    }
+
+    @Test
+    void compactKeepsIdsAndOrder() {
+        Graph<String> g = new Graph<>(true);
+        for (int v = 0; v < 100; v++) g.addVertex("v" + v);
+        for (int v = 0; v + 1 < 100; v++) g.addEdge("v" + v, "v" + (v + 1), v);
+        for (int v = 0; v < 100; v += 3) g.removeVertex("v" + v);
+        g.compact();
+        ArrayList<Vertex<String>> vertices = g.getVertices();
+        int previous = -1;
+        for (int i = 0; i < vertices.size(); i++) {
+            Vertex<String> vert = vertices.get(i);
+            int v = Integer.parseInt(vert.value.substring(1));
+            assertNotEquals(0, v % 3);
+            assertEquals(v, vert.id, "id после уплотнения");
+            assertEquals(v, g.idOf(vert.value));
+            assertTrue(v > previous, "порядок вершин");
+            previous = v;
+        }
+        assertEquals(66, vertices.size());
+        assertTrue(g.containsEdge("v1", "v2"));
+        assertFalse(g.containsEdge("v2", "v3"));
+        g.addVertex("new");
+        assertEquals(100, g.idOf("new"));
+    }
+
+    private static void check(Graph<Integer> g, Map<Integer, Integer> ids, Set<Long> edges,
+                              boolean directed, String where) {
+        ArrayList<Vertex<Integer>> vertices = g.getVertices();
+        assertEquals(ids.size(), vertices.size(), where);
+        int[] inCount = new int[g.idBound()];
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < vertices.size(); i++) {
+            Vertex<Integer> u = vertices.get(i);
+            assertEquals(ids.get(u.value), u.id, where + ": id " + u.value);
+            for (int j = 0; j < u.edges.size(); j++) {
+                Edge<Integer> e = u.edges.get(j);
+                assertEquals(ids.get(e.to), e.target, where);
+                if (directed) {
+                    IntArrayList in = g.predecessors(e.target);
+                    assertEquals(u.id, in.get(e.back), where + ": Edge.back " + u.value + " -> " + e.to);
+                    inCount[e.target]++;
+                    seen.add(key(u.value, e.to, true));
+                } else if (u.value <= e.to) {
+                    seen.add(key(u.value, e.to, false));
+                }
+                assertTrue(g.containsEdge(u.value, e.to), where);
+                if (!directed) assertTrue(g.containsEdge(e.to, u.value), where + ": нет зеркального ребра");
+            }
+        }
+        assertEquals(edges, seen, where);
+        if (directed) {
+            for (int i = 0; i < vertices.size(); i++) {
+                int id = vertices.get(i).id;
+                assertEquals(inCount[id], g.predecessors(id).size(), where + ": входящий список " + id);
+            }
+        }
+    }
+
+    // пара концов; у неориентированного ребра — по возрастанию
+    private static long key(int a, int b, boolean directed) {
+        if (!directed && a > b) return key(b, a, true);
+        return (long) a << 32 | b;
+    }
+}
@@ -0,0 +1,78 @@
+package graph;
+
+import algorithms.GraphAlgorithms;
+import ds.List;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Инкрементальный порядок Graph (TopoOrder, Pearce–Kelly) против алгоритма Кана
+ по снимку после каждой операции случайной последовательности добавлений и удалений:
+ ацикличность совпадает, каждое ребро идёт вперёд по порядку, найденный цикл — настоящий.
+ */
+class TopoOrderTest {
+
+    @Test
+    void randomAddRemoveSequences() {
+        for (int seed = 1; seed <= 20; seed++) {
+            SplittableRandom r = new SplittableRandom(seed);
+            Graph<Integer> g = new Graph<>(true);
+            int n = 40;
+            for (int v = 0; v < n; v++) g.addVertex(v);
+            int nextValue = n;
+            for (int step = 0; step < 600; step++) {
+                int op = r.nextInt(10);
+                int a = r.nextInt(nextValue), b = r.nextInt(nextValue);
+                if (op < 6) {
+                    // рёбра чаще вперёд по значению, чтобы граф подолгу оставался ациклическим
+                    if (op < 5 && a > b) {
+                        int t = a;
+                        a = b;
+                        b = t;
+                    }
+                    g.addEdge(a, b, 1);
+                } else if (op < 9) {
+                    g.removeEdge(a, b);
+                    List<Integer> adj = g.getAdjacent(a);
+                    if (adj.size() > 0) g.removeEdge(a, adj.get(r.nextInt(adj.size())));
+                } else if (r.nextBoolean()) {
+                    g.removeVertex(a);
+                } else {
+                    g.addVertex(nextValue++);
+                }
+                check(g, nextValue, "seed " + seed + ", шаг " + step);
+            }
+        }
+    }
+
+    @Test
+    void undirectedGraphHasNoOrder() {
+        Graph<Integer> g = new Graph<>(false);
+        g.addVertex(1);
+        g.addVertex(2);
+        g.addEdge(1, 2, 1);
+        assertFalse(g.hasTopologicalOrder());
+        assertThrows(IllegalArgumentException.class, () -> GraphAlgorithms.topologicalOrder(g.freeze()));
+    }
+
+    private static void check(Graph<Integer> g, int bound, String where) {
+        boolean acyclic = GraphAlgorithms.topologicalOrder(g.freeze()).isAcyclic();
+        assertEquals(acyclic, g.hasTopologicalOrder(), where);
+        if (acyclic) {
+            for (int a = 0; a < bound; a++) {
+                List<Integer> adj = g.getAdjacent(a);
+                for (int i = 0; i < adj.size(); i++)
+                    assertTrue(g.comesBefore(a, adj.get(i)), where + ": ребро " + a + " -> " + adj.get(i));
+            }
+            assertEquals(g.freeze().vertexCount(), g.topologicalOrder().size(), where);
+        } else {
+            List<Integer> cycle = g.findCycle();
+            assertTrue(cycle.size() > 0, where);
+            for (int i = 0; i < cycle.size(); i++)
+                assertTrue(g.containsEdge(cycle.get(i), cycle.get((i + 1) % cycle.size())), where + ": не цикл");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package graph.io;
+
+import graph.Graph;
+import graph.MappedGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ GraphReader.toMapped против MappedGraph.write(read в Graph): файлы должны совпадать байт в байт.
+ Порция сортировки крошечная, чтобы слияние шло через временные файлы.
+ */
+class MappedImportTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void duplicatesLoopsAndIsolated() throws IOException {
+        String text = """
+                # комментарий
+                a b 5
+                b a 7
+                a b 9
+                c c 2
+                c c 3
+                "x y" a -4
+                lonely
+                b c
+                """;
+        for (boolean directed : new boolean[]{true, false}) {
+            compare("g.txt", text, GraphFormat.EDGE_LIST, GraphReader.Header.AUTO, directed);
+        }
+    }
+
+    @Test
+    void csvHeaderAndDimacs() throws IOException {
+        compare("g.csv", "source,target\n1,2\n2,3\n3,1\n1,2\n", GraphFormat.CSV, GraphReader.Header.AUTO, true);
+        compare("g.gr", "c x\np sp 6 3\na 1 2 4\na 2 1 4\na 5 5 1\n", GraphFormat.DIMACS, GraphReader.Header.AUTO, false);
+    }
+
+    @Test
+    void randomMultigraph() throws IOException {
+        SplittableRandom r = new SplittableRandom(7);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            text.append('v').append(r.nextInt(300)).append(' ')
+                    .append('v').append(r.nextInt(300)).append(' ')
+                    .append(r.nextInt(-50, 50)).append('\n');
+        }
+        compare("r.txt", text.toString(), GraphFormat.EDGE_LIST, GraphReader.Header.AUTO, true);
+        compare("r.txt", text.toString(), GraphFormat.EDGE_LIST, GraphReader.Header.AUTO, false);
+    }
+
+    @Test
+    void emptyFile() throws IOException {
+        compare("e.txt", "", GraphFormat.EDGE_LIST, GraphReader.Header.AUTO, true);
+    }
+
+    private void compare(String name, String text, GraphFormat format, GraphReader.Header header,
+                         boolean directed) throws IOException {
+        Path source = dir.resolve(name);
+        Files.writeString(source, text, StandardCharsets.UTF_8);
+
+        Graph<String> g = new Graph<>(directed);
+        long read = GraphReader.read(source, format, g, s -> s, header, 64);
+        Path expected = dir.resolve("expected.bin");
+        MappedGraph.write(g, expected);
+
+        Path actual = dir.resolve("actual.bin");
+        assertEquals(read, MappedImport.run(source, format, header, directed, actual, 3, 64));
+        assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(actual),
+                name + (directed ? ", ориентированный" : ", неориентированный"));
+        try (var files = Files.list(dir)) {
+            assertTrue(files.noneMatch(f -> f.toString().endsWith(".run") || f.toString().endsWith(".tmp")),
+                    "временные файлы не удалены");
+        }
+    }
+}
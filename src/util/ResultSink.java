@@ -0,0 +1,31 @@
+package util;
+
+/*
+ Приёмник текстового вывода алгоритмов.
+ Алгоритмы не знают, куда идёт вывод (Swing, консоль, сервис): реализации
+ могут буферизовать текст и отдавать его получателю одним куском во flush().
+ */
+public interface ResultSink {
+
+    // вывод в стандартный поток (поведение по умолчанию, когда приёмник не задан)
+    ResultSink STDOUT = new ResultSink() {
+        @Override
+        public void append(CharSequence text) {
+            System.out.print(text);
+        }
+
+        @Override
+        public void flush() {
+            System.out.flush();
+        }
+    };
+
+    void append(CharSequence text);
+
+    default void flush() {
+    }
+
+    static ResultSink orStdout(ResultSink sink) {
+        return sink != null ? sink : STDOUT;
+    }
+}